@@ -0,0 +1,74 @@
+package Benchmarks;
+
+import HWSystem.Devices.Sensors.SensorSample;
+import HWSystem.History.TimeSeries;
+import HWSystem.History.TimeSeriesStore;
+
+/**
+ * Benchmark of the sensor history store.
+ * Readings of several sensors polled at 1 kHz are recorded in a {@link TimeSeriesStore},
+ * then the recording rate is printed along with the memory of the columns, both as
+ * computed by the series and as measured on the heap, scaled to a million readings retained.
+ */
+public class HistoryBenchmark {
+    private static final long PERIOD_NANOS = 1_000_000L;
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param args optional arguments: the number of sensors (default 100), the number of
+     *             readings recorded per sensor (default 100000) and the number of raw
+     *             readings retained per sensor (default 10000)
+     */
+    public static void main(String[] args) {
+        int sensors = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int readings = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+        int rawPoints = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+
+        long heapBefore = usedHeap();
+        TimeSeriesStore store = new TimeSeriesStore(sensors, rawPoints);
+        SensorSample sample = new SensorSample();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < readings; i++) {
+            for (int devID = 0; devID < sensors; devID++) {
+                sample.reset(i * PERIOD_NANOS);
+                sample.setTemperature(20 + (i + devID) % 50 / 10.0);
+                sample.setHumidity(40 + (i * 7 + devID) % 200 / 10.0);
+                store.record(devID, sample);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long heapAfter = usedHeap();
+
+        long recorded = (long) sensors * readings;
+        System.out.println("Sensors: " + sensors + ", readings per sensor: " + readings
+                + ", raw readings retained per sensor: " + rawPoints);
+        System.out.printf("Recorded %d readings in %.1f ms (%.0f readings/s)%n",
+                recorded, elapsed / 1e6, recorded / (elapsed / 1e9));
+
+        TimeSeries series = store.get(0);
+        long columnBytes = 0;
+        for (int tier = 0; tier < series.getTierCount(); tier++) {
+            columnBytes += series.getBytes(tier);
+            System.out.printf("  %s: %d of %d entries, %.1f MB per million entries%n", series.getTierName(tier),
+                    series.getRetained(tier), series.getCapacity(tier),
+                    (double) series.getBytes(tier) / series.getCapacity(tier) * 1e6 / (1024 * 1024));
+        }
+        System.out.printf("Columns: %.1f MB computed, %.1f MB measured on the heap%n",
+                columnBytes * sensors / (1024.0 * 1024), (heapAfter - heapBefore) / (1024.0 * 1024));
+        System.out.printf("Heap per million raw readings retained, including rollups: %.1f MB%n",
+                (double) (heapAfter - heapBefore) / ((long) sensors * rawPoints) * 1e6 / (1024 * 1024));
+    }
+
+    /**
+     * Gets the heap in use after a garbage collection.
+     * 
+     * @return the used heap, in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
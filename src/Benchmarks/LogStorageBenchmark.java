@@ -0,0 +1,96 @@
+package Benchmarks;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import HWSystem.Logging.LogOperation;
+import HWSystem.Logging.LogStorage;
+import HWSystem.Logging.SegmentedLogStorage;
+
+/**
+ * Benchmark comparing the time to write a port log through a {@link FileWriter},
+ * as {@code Protocol.close()} does by default, with writing it through memory-mapped
+ * segments of a {@link SegmentedLogStorage}.
+ * Both cases render the same records with {@link LogOperation#render(StringBuilder, Object)}
+ * into a temporary directory, which is deleted afterwards.
+ */
+public class LogStorageBenchmark {
+    private static final String[] PAYLOADS = {"turnON", "turnOFF", "100", "Hello"};
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param args optional arguments: the number of records (default 10000000),
+     *             the number of measured iterations (default 3) and the segment size 
+     *             in bytes (default {@value SegmentedLogStorage#DEFAULT_SEGMENT_SIZE})
+     * @throws IOException if the logs cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int segmentSize = args.length > 2 ? Integer.parseInt(args[2]) : SegmentedLogStorage.DEFAULT_SEGMENT_SIZE;
+
+        Path directory = Files.createTempDirectory("log-storage-benchmark");
+        LogStorage segments = new SegmentedLogStorage(segmentSize);
+        try {
+            // The first iteration warms up the JIT and is not reported
+            for (int i = 0; i <= iterations; i++) {
+                long start = System.nanoTime();
+                long fileBytes;
+                try (Writer writer = new FileWriter(new File(directory.toFile(), "I2C_0.log"))) {
+                    fileBytes = writeRecords(writer, records);
+                }
+                long fileTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long segmentBytes;
+                try (Writer writer = new OutputStreamWriter(segments.open(directory, "I2C_0"))) {
+                    segmentBytes = writeRecords(writer, records);
+                }
+                long segmentTime = System.nanoTime() - start;
+
+                if (i == 0) continue;
+                System.out.printf("Iteration %d: FileWriter %.1f ms (%.1f MB/s) | mapped segments %.1f ms (%.1f MB/s)%n", i,
+                        fileTime / 1e6, fileBytes / (fileTime / 1e3),
+                        segmentTime / 1e6, segmentBytes / (segmentTime / 1e3));
+            }
+        } finally {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Writes the records of a port log, one read for every three writes.
+     * 
+     * @param writer the writer receiving the log
+     * @param records the number of records
+     * @return the number of characters written
+     * @throws IOException if writing fails
+     */
+    private static long writeRecords(Writer writer, int records) throws IOException {
+        StringBuilder text = new StringBuilder();
+        long length = 0;
+        for (int i = 0; i < records; i++) {
+            text.setLength(0);
+            if ((i & 3) == 3) {
+                LogOperation.READ.render(text, null);
+            } else {
+                LogOperation.WRITE.render(text, PAYLOADS[i & 3]);
+            }
+            text.append('\n');
+            writer.append(text);
+            length += text.length();
+        }
+        writer.write("Port Opened.\n");
+        return length;
+    }
+}
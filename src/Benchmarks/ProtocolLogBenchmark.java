@@ -0,0 +1,91 @@
+package Benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.Stack;
+
+import HWSystem.Protocols.I2C;
+import HWSystem.Protocols.Protocol;
+
+/**
+ * Benchmark comparing the allocation and time cost of protocol logging.
+ * The "before" case reproduces the former eager logging, which formatted every write
+ * with {@code String.format}, built a new String on every read and pushed both onto a
+ * {@link Stack}. The "after" case uses the structured records of the protocol classes.
+ * Allocation is measured with the per-thread allocation counter of the JVM.
+ */
+public class ProtocolLogBenchmark {
+    private static final String[] PAYLOADS = {"turnON", "turnOFF", "100", "Hello"};
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param args optional arguments: the number of operations (default 1000000) 
+     *             and the number of measured iterations (default 5)
+     */
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        // The first iteration warms up the JIT and is not reported
+        for (int i = 0; i <= iterations; i++) {
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            runEager(operations);
+            long eagerTime = System.nanoTime() - start;
+            long eagerBytes = threads.getThreadAllocatedBytes(thread) - allocated;
+
+            allocated = threads.getThreadAllocatedBytes(thread);
+            start = System.nanoTime();
+            runStructured(operations);
+            long structuredTime = System.nanoTime() - start;
+            long structuredBytes = threads.getThreadAllocatedBytes(thread) - allocated;
+
+            if (i == 0) continue;
+            System.out.printf("Iteration %d: before %.1f ms, %.1f bytes/op | after %.1f ms, %.1f bytes/op%n", i,
+                    eagerTime / 1e6, (double) eagerBytes / operations,
+                    structuredTime / 1e6, (double) structuredBytes / operations);
+        }
+    }
+
+    /**
+     * Logs the operations the way the protocols did before structured records.
+     * 
+     * @param operations the number of operations
+     * @return the size of the log, so the work is not optimized away
+     */
+    private static int runEager(int operations) {
+        Stack<String> logs = new Stack<>();
+        int length = 0;
+        for (int i = 0; i < operations; i++) {
+            if ((i & 3) == 3) {
+                logs.push("Reading");
+                length += ("I2C" + ": Reading.").length();
+            } else {
+                logs.push(String.format("Writing \"%s\"", PAYLOADS[i & 3]));
+            }
+        }
+        return logs.size() + length;
+    }
+
+    /**
+     * Logs the operations through a protocol with structured records.
+     * 
+     * @param operations the number of operations
+     * @return the length of the read messages, so the work is not optimized away
+     */
+    private static int runStructured(int operations) {
+        Protocol protocol = new I2C(0, Math.max(operations, 1), I2C.DEFAULT_OVERFLOW_POLICY);
+        int length = 0;
+        for (int i = 0; i < operations; i++) {
+            if ((i & 3) == 3) {
+                length += protocol.read().length();
+            } else {
+                protocol.write(PAYLOADS[i & 3]);
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,144 @@
+package Benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+
+import HWSystem.HWSystem;
+import HWSystem.Commands.CompiledScript;
+import HWSystem.Commands.ScriptCompiler;
+import HWSystem.Protocols.I2C;
+import HWSystem.Protocols.OneWire;
+import HWSystem.Protocols.Protocol;
+import HWSystem.Protocols.SPI;
+import HWSystem.Protocols.UART;
+
+/**
+ * Benchmark comparing text command execution with compiled script replay.
+ * A synthetic scenario is generated, then executed repeatedly both line by line
+ * through {@link HWSystem#exeCommand(String)} and as a compiled script through
+ * {@link HWSystem#replay(CompiledScript)}. Device output is discarded while timing.
+ */
+public class ReplayBenchmark {
+    private static final int DEVICE_GROUPS = 4;
+
+    /**
+     * Runs the benchmark.
+     * 
+     * @param args optional arguments: the number of commands (default 500000) 
+     *             and the number of measured iterations (default 5)
+     */
+    public static void main(String[] args) {
+        int commandCount = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        ArrayList<String> lines = createScenario(commandCount);
+        long textBytes = 0;
+        for (String line : lines) textBytes += line.length() + 1;
+
+        long compileStart = System.nanoTime();
+        ScriptCompiler compiler = new ScriptCompiler();
+        for (String line : lines) compiler.add(line);
+        CompiledScript script = compiler.finish();
+        long compileTime = System.nanoTime() - compileStart;
+
+        System.out.println("Commands: " + lines.size());
+        System.out.println("Text size: " + textBytes + " bytes, compiled size: " + script.getCodeSize()
+                + " bytes of code + " + script.getStringCount() + " strings");
+        System.out.printf("Compile time: %.1f ms%n", compileTime / 1e6);
+
+        PrintStream out = System.out;
+        PrintStream err = System.err;
+        PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+        long bestText = Long.MAX_VALUE;
+        long bestReplay = Long.MAX_VALUE;
+
+        // The first iteration warms up the JIT and is not reported
+        for (int i = 0; i <= iterations; i++) {
+            System.setOut(discard);
+            System.setErr(discard);
+
+            HWSystem textSystem = createSystem();
+            long start = System.nanoTime();
+            for (String line : lines) textSystem.exeCommand(line);
+            long textTime = System.nanoTime() - start;
+
+            HWSystem replaySystem = createSystem();
+            start = System.nanoTime();
+            replaySystem.replay(script);
+            long replayTime = System.nanoTime() - start;
+
+            System.setOut(out);
+            System.setErr(err);
+            if (i == 0) continue;
+
+            bestText = Math.min(bestText, textTime);
+            bestReplay = Math.min(bestReplay, replayTime);
+            System.out.printf("Iteration %d: text %.1f ms, replay %.1f ms%n", i, textTime / 1e6, replayTime / 1e6);
+        }
+
+        System.out.printf("Best text: %.1f ms (%.0f commands/s)%n", bestText / 1e6, lines.size() / (bestText / 1e9));
+        System.out.printf("Best replay: %.1f ms (%.0f commands/s)%n", bestReplay / 1e6, lines.size() / (bestReplay / 1e9));
+        System.out.printf("Speedup: %.2fx%n", (double) bestText / bestReplay);
+    }
+
+    /**
+     * Creates a system with one port of each protocol per device group.
+     * 
+     * @return a new hardware system without devices
+     */
+    private static HWSystem createSystem() {
+        ArrayList<Protocol> ports = new ArrayList<>();
+        for (int i = 0; i < DEVICE_GROUPS; i++) {
+            ports.add(new I2C(ports.size()));
+            ports.add(new SPI(ports.size()));
+            ports.add(new UART(ports.size()));
+            ports.add(new OneWire(ports.size()));
+        }
+        return new HWSystem(ports, DEVICE_GROUPS * 2, DEVICE_GROUPS, DEVICE_GROUPS, DEVICE_GROUPS);
+    }
+
+    /**
+     * Creates a scenario that adds a sensor, display, motor driver and wireless adapter
+     * per device group, turns them on and then repeatedly uses them.
+     * 
+     * @param commandCount the approximate number of commands to generate
+     * @return the command lines of the scenario
+     */
+    private static ArrayList<String> createScenario(int commandCount) {
+        ArrayList<String> lines = new ArrayList<>(commandCount + 64);
+        for (int group = 0; group < DEVICE_GROUPS; group++) {
+            int base = group * 4;
+            lines.add("addDev MPU6050 " + base + " " + (group * 2));
+            lines.add("addDev OLED " + (base + 1) + " " + group);
+            lines.add("addDev Bluetooth " + (base + 2) + " " + group);
+            lines.add("addDev DHT11 " + (base + 3) + " " + (group * 2 + 1));
+            for (int port = base; port < base + 4; port++) lines.add("turnON " + port);
+        }
+
+        int step = 0;
+        while (lines.size() < commandCount) {
+            int group = step % DEVICE_GROUPS;
+            switch ((step / DEVICE_GROUPS) % 5) {
+                case 0:
+                    lines.add("readSensor " + (group * 2));
+                    break;
+                case 1:
+                    lines.add("printDisplay " + group + " frame" + (step % 100));
+                    break;
+                case 2:
+                    lines.add("writeWireless " + group + " ping");
+                    break;
+                case 3:
+                    lines.add("readWireless " + group);
+                    break;
+                default:
+                    lines.add("readSensor " + (group * 2 + 1));
+                    break;
+            }
+            step++;
+        }
+        lines.add("exit");
+        return lines;
+    }
+}
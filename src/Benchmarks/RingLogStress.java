@@ -0,0 +1,114 @@
+package Benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import HWSystem.Logging.LogBatch;
+import HWSystem.Logging.LogOperation;
+import HWSystem.Logging.OverflowPolicy;
+import HWSystem.Logging.RingLog;
+
+/**
+ * Stress check of a {@link RingLog} appended by many threads while one thread drains it.
+ * A small log makes writers a lap apart collide on the same slots. Every payload
+ * identifies its producer and its position in the producer's sequence of appends, so
+ * the check verifies that each producer's drained records are in order and unique, that
+ * each record has the operation appended with its payload, and that every record
+ * appended is either drained or counted as dropped. A drain that does
+ * not finish within the timeout is reported as a hang.
+ */
+public class RingLogStress {
+    private static final long TIMEOUT_SECONDS = 60;
+
+    /**
+     * Runs the check for both overflow policies.
+     * 
+     * @param args optional arguments: the number of producers (default 4), the number of
+     *             records per producer (default 2000000) and the log capacity (default 64)
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int producers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int records = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int capacity = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+
+        boolean passed = true;
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            passed &= run(policy, producers, records, capacity);
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) System.exit(1);
+    }
+
+    /**
+     * Runs the check for one overflow policy.
+     * 
+     * @param policy the overflow policy of the log
+     * @param producers the number of appending threads
+     * @param records the number of records each thread appends
+     * @param capacity the capacity of the log
+     * @return true if the check passed, false otherwise
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static boolean run(OverflowPolicy policy, int producers, int records, int capacity)
+            throws InterruptedException {
+        RingLog<Long> log = new RingLog<>(capacity, policy);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                for (long i = 0; i < records; i++) log.append(operationOf(i), producer << 32 | i);
+                done.countDown();
+            }, "producer-" + p);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        long[] next = new long[producers];
+        long drained = 0;
+        long errors = 0;
+        LogBatch<Long> batch = new LogBatch<>(capacity);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        long start = System.nanoTime();
+        boolean finished = false;
+        while (!finished) {
+            if (System.nanoTime() > deadline) {
+                System.out.println(policy + ": timed out, the drain or a producer hangs");
+                return false;
+            }
+            finished = done.getCount() == 0;
+            batch.clear();
+            log.drain(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                long payload = batch.getPayload(i);
+                int producer = (int) (payload >>> 32);
+                long index = payload & 0xFFFFFFFFL;
+                // Records of a producer may be dropped, but never repeated or reordered
+                if (index < next[producer]) errors++;
+                if (batch.getOperation(i) != operationOf(index)) errors++;
+                next[producer] = index + 1;
+            }
+            drained += batch.size();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long appended = (long) producers * records;
+        long dropped = log.getDroppedCount();
+        boolean balanced = drained + dropped == appended;
+        System.out.printf("%s: %d appended, %d drained, %d dropped, %d out of order or mismatched, %.0f ms: %s%n",
+                policy, appended, drained, dropped, errors, elapsed / 1e6,
+                balanced && errors == 0 ? "ok" : "FAILED");
+        return balanced && errors == 0;
+    }
+
+    /**
+     * Gets the operation a producer appends with the record at a position of its sequence,
+     * alternating so that a record paired with the operation of another record is detected.
+     * 
+     * @param index the position of the record in the producer's sequence
+     * @return the operation of the record
+     */
+    private static LogOperation operationOf(long index) {
+        return (index & 1) == 0 ? LogOperation.WRITE : LogOperation.READ;
+    }
+}
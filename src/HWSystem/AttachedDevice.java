@@ -0,0 +1,37 @@
+package HWSystem;
+
+import HWSystem.Devices.Device;
+import HWSystem.Devices.DeviceCategory;
+import HWSystem.Protocols.BusTarget;
+
+/**
+ * A device attached by address to a port it shares with other devices.
+ * Holds what the system needs to find the device again from its bus target.
+ */
+class AttachedDevice {
+    final Device device;
+    final DeviceCategory category;
+    final int devID;
+
+    /**
+     * Constructs the record of an attached device.
+     * 
+     * @param device the device
+     * @param category the category of the device
+     * @param devID the device ID of the device
+     */
+    AttachedDevice(Device device, DeviceCategory category, int devID) {
+        this.device = device;
+        this.category = category;
+        this.devID = devID;
+    }
+
+    /**
+     * Gets the bus target the device is connected through.
+     * 
+     * @return the bus target
+     */
+    BusTarget getTarget() {
+        return (BusTarget) device.getProtocol();
+    }
+}
@@ -0,0 +1,95 @@
+package HWSystem;
+
+import HWSystem.Simulation.EventHandler;
+import HWSystem.Simulation.Simulator;
+
+/**
+ * Runs the commands of a system as events of a {@link Simulator}.
+ * Each command runs at its simulated time, and "every" commands repeat a command
+ * at a fixed simulated period, so long stretches of board activity are simulated
+ * without waiting for them.
+ */
+class CommandSimulation {
+    private final HWSystem system;
+    private final Simulator simulator;
+
+    // Handlers are shared by all events; the command of an event is its data
+    private final EventHandler commandHandler;
+    private final EventHandler periodicHandler;
+
+    /**
+     * Constructs the simulation of the commands of a system.
+     * 
+     * @param system the system executing the commands
+     * @param simulator the simulator running the events
+     */
+    CommandSimulation(HWSystem system, Simulator simulator) {
+        this.system = system;
+        this.simulator = simulator;
+        this.commandHandler = (sim, data) -> system.exeCommand((String) data);
+        this.periodicHandler = (sim, data) -> runPeriodic((PeriodicCommand) data);
+    }
+
+    /**
+     * Gets the simulator running the events.
+     * 
+     * @return the simulator
+     */
+    Simulator getSimulator() {
+        return simulator;
+    }
+
+    /**
+     * Schedules a command at a simulated time.
+     * 
+     * @param time the simulated time, in nanoseconds
+     * @param line the command line
+     */
+    void scheduleCommand(long time, String line) {
+        simulator.scheduleAt(time, commandHandler, line);
+    }
+
+    /**
+     * Schedules a command to run a number of times at a fixed period, starting one period from now.
+     * 
+     * @param periodNanos the period in nanoseconds
+     * @param count the number of runs
+     * @param line the command line
+     */
+    void every(long periodNanos, long count, String line) {
+        if (count <= 0) return;
+        simulator.schedule(periodNanos, periodicHandler, new PeriodicCommand(line, periodNanos, count));
+    }
+
+    /**
+     * Runs a periodic command and schedules its next run.
+     * 
+     * @param command the periodic command
+     */
+    private void runPeriodic(PeriodicCommand command) {
+        if (--command.remaining > 0) simulator.schedule(command.periodNanos, periodicHandler, command);
+        system.exeCommand(command.line);
+    }
+
+    /**
+     * A command repeated at a fixed period, reused for all of its runs.
+     */
+    private static final class PeriodicCommand {
+        final String line;
+        final long periodNanos;
+        long remaining;
+
+        /**
+         * Constructs a periodic command.
+         * 
+         * @param line the command line
+         * @param periodNanos the period in nanoseconds
+         * @param remaining the number of runs left
+         */
+        PeriodicCommand(String line, long periodNanos, long remaining) {
+            this.line = line;
+            this.periodNanos = periodNanos;
+            this.remaining = remaining;
+        }
+    }
+}
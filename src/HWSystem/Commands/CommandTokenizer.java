@@ -0,0 +1,209 @@
+package HWSystem.Commands;
+
+/**
+ * Splits command lines into tokens without allocating objects.
+ * The line is copied into a reusable character buffer, and tokens are kept as
+ * index ranges into that buffer. Integer arguments are parsed directly from the
+ * buffer, and a token becomes a String only when it is asked for as one.
+ * 
+ * Tokens are separated by single spaces and the line is split into at most
+ * {@value #MAX_TOKENS} tokens, where the last token holds the rest of the line.
+ * This is the same splitting as {@code line.split(" ", 4)}. A command with one more
+ * argument splits the last token once more with {@link #splitRest()}.
+ * 
+ * A tokenizer is not thread-safe; each executing thread should use its own instance.
+ */
+public class CommandTokenizer {
+    /** The maximum number of tokens a line is split into. */
+    public static final int MAX_TOKENS = 4;
+
+    private char[] buffer = new char[256];
+    private int length;
+
+    private final int[] tokenStarts = new int[MAX_TOKENS + 1];
+    private final int[] tokenEnds = new int[MAX_TOKENS + 1];
+    private int tokenCount;
+
+    /**
+     * Loads a new command line into the tokenizer and finds its tokens.
+     * 
+     * @param line the command line to tokenize
+     */
+    public void reset(String line) {
+        length = line.length();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        line.getChars(0, length, buffer, 0);
+        scan();
+    }
+
+    /**
+     * Finds the token boundaries in the buffer.
+     */
+    private void scan() {
+        tokenCount = 0;
+        int start = 0;
+        for (int i = 0; i < length && tokenCount < MAX_TOKENS - 1; i++) {
+            if (buffer[i] == ' ') {
+                tokenStarts[tokenCount] = start;
+                tokenEnds[tokenCount] = i;
+                tokenCount++;
+                start = i + 1;
+            }
+        }
+        // The last token holds the rest of the line
+        tokenStarts[tokenCount] = start;
+        tokenEnds[tokenCount] = length;
+        tokenCount++;
+    }
+
+    /**
+     * Splits the last token of the current line at its first space, so the rest of the
+     * line after it becomes a token of its own.
+     * Only a line already split into {@value #MAX_TOKENS} tokens is split further, once.
+     * 
+     * @return true if the last token was split, false otherwise
+     */
+    public boolean splitRest() {
+        if (tokenCount != MAX_TOKENS) return false;
+
+        int last = tokenCount - 1;
+        for (int i = tokenStarts[last]; i < tokenEnds[last]; i++) {
+            if (buffer[i] == ' ') {
+                tokenStarts[tokenCount] = i + 1;
+                tokenEnds[tokenCount] = tokenEnds[last];
+                tokenEnds[last] = i;
+                tokenCount++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the number of tokens in the current line.
+     * 
+     * @return the number of tokens, at least 1
+     */
+    public int getTokenCount() {
+        return tokenCount;
+    }
+
+    /**
+     * Gets the opcode selected by the first token of the current line.
+     * 
+     * @return the opcode, or {@link Opcode#INVALID} if the command word is unknown
+     */
+    public Opcode opcode() {
+        return Opcode.lookup(buffer, tokenStarts[0], tokenEnds[0]);
+    }
+
+    /**
+     * Checks whether the token at the given index equals the given text.
+     * 
+     * @param index the index of the token
+     * @param text the text to compare with
+     * @return true if the token has the same characters as the text, false otherwise
+     */
+    public boolean tokenEquals(int index, String text) {
+        int start = tokenStarts[index];
+        int tokenLength = tokenEnds[index] - start;
+        if (tokenLength != text.length()) return false;
+
+        for (int i = 0; i < tokenLength; i++) {
+            if (buffer[start + i] != text.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds the name that equals the token at the given index.
+     * Known names are returned as they are, so only unknown tokens allocate a String.
+     * 
+     * @param index the index of the token
+     * @param names the known names
+     * @return the matching known name, or a new String of the token if no name matches
+     */
+    public String name(int index, String[] names) {
+        for (String name : names) {
+            if (tokenEquals(index, name)) return name;
+        }
+        return tokenString(index);
+    }
+
+    /**
+     * Parses the token at the given index as a signed decimal integer.
+     * Accepts the same input as {@link Integer#parseInt(String)}.
+     * 
+     * @param index the index of the token
+     * @return the parsed integer
+     * @throws NumberFormatException if the token is not a valid integer
+     */
+    public int parseInt(int index) {
+        int start = tokenStarts[index];
+        int end = tokenEnds[index];
+        if (start == end) throw invalidNumber(index);
+
+        // Accumulate negatively so that Integer.MIN_VALUE can be parsed
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        int i = start;
+        char first = buffer[i];
+        if (first == '-' || first == '+') {
+            if (first == '-') {
+                negative = true;
+                limit = Integer.MIN_VALUE;
+            }
+            i++;
+            if (i == end) throw invalidNumber(index);
+        }
+
+        int multiplyLimit = limit / 10;
+        int result = 0;
+        for (; i < end; i++) {
+            int digit = Character.digit(buffer[i], 10);
+            if (digit < 0 || result < multiplyLimit) throw invalidNumber(index);
+            result *= 10;
+            if (result < limit + digit) throw invalidNumber(index);
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Checks whether the token at the given index is a valid integer.
+     * 
+     * @param index the index of the token
+     * @return true if {@link #parseInt(int)} would succeed, false otherwise
+     */
+    public boolean isInt(int index) {
+        try {
+            parseInt(index);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a String of the token at the given index.
+     * 
+     * @param index the index of the token
+     * @return the token as a new String
+     */
+    public String tokenString(int index) {
+        return new String(buffer, tokenStarts[index], tokenEnds[index] - tokenStarts[index]);
+    }
+
+    /**
+     * Creates the exception for a token that is not a valid integer,
+     * with the same message as {@link Integer#parseInt(String)}.
+     * 
+     * @param index the index of the token
+     * @return the exception to throw
+     */
+    private NumberFormatException invalidNumber(int index) {
+        return new NumberFormatException("For input string: \"" + tokenString(index) + "\"");
+    }
+}
@@ -0,0 +1,200 @@
+package HWSystem.Commands;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents a command script compiled into a compact binary form.
+ * A compiled script holds a deduplicated table of the strings used by its commands
+ * and a code array with one instruction per command. Each instruction is an
+ * {@link Opcode} ordinal byte followed by its arguments, where integers are
+ * zigzag-encoded varints and strings are varint indexes into the string table.
+ * 
+ * Commands that can not be executed directly (unknown commands, missing or malformed
+ * arguments) are stored as an {@link Opcode#INVALID} instruction holding the original
+ * line, so that replaying them prints the same messages as the text command.
+ * 
+ * The file layout is: the magic bytes "HWCS", a version byte, the number of strings,
+ * each string as a length-prefixed UTF-8 sequence, the code length and the code.
+ */
+public class CompiledScript {
+    private static final byte[] MAGIC = {'H', 'W', 'C', 'S'};
+    private static final int VERSION = 1;
+
+    private final String[] strings;
+    private final byte[] code;
+
+    /**
+     * Constructs a compiled script from its string table and code.
+     * 
+     * @param strings the string table referenced by the instructions
+     * @param code the encoded instructions
+     */
+    public CompiledScript(String[] strings, byte[] code) {
+        this.strings = strings;
+        this.code = code;
+    }
+
+    /**
+     * Gets the size of the encoded instructions.
+     * 
+     * @return the code size in bytes
+     */
+    public int getCodeSize() {
+        return code.length;
+    }
+
+    /**
+     * Gets the number of entries in the string table.
+     * 
+     * @return the number of distinct strings
+     */
+    public int getStringCount() {
+        return strings.length;
+    }
+
+    /**
+     * Creates a cursor positioned at the first instruction.
+     * 
+     * @return a new cursor over the instructions of the script
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Writes the script in its binary file layout.
+     * 
+     * @param out the stream to write to
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        VarIntBuffer header = new VarIntBuffer();
+        header.writeBytes(MAGIC, 0, MAGIC.length);
+        header.writeByte(VERSION);
+        header.writeUnsigned(strings.length);
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            header.writeUnsigned(bytes.length);
+            header.writeBytes(bytes, 0, bytes.length);
+        }
+        header.writeUnsigned(code.length);
+
+        out.write(header.array(), 0, header.size());
+        out.write(code);
+    }
+
+    /**
+     * Reads a script written by {@link #write(OutputStream)}.
+     * 
+     * @param in the stream to read from
+     * @return the compiled script
+     * @throws IOException if reading fails or the data is not a compiled script
+     */
+    public static CompiledScript read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+
+        byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (magic[i] != MAGIC[i]) throw new IOException("Not a compiled command script.");
+        }
+        int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported compiled script version: " + version);
+        }
+
+        String[] strings = new String[readUnsigned(data)];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readUnsigned(data)];
+            data.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        byte[] code = new byte[readUnsigned(data)];
+        data.readFully(code);
+        return new CompiledScript(strings, code);
+    }
+
+    /**
+     * Reads an unsigned varint from a stream.
+     * 
+     * @param data the stream to read from
+     * @return the decoded value
+     * @throws IOException if reading fails
+     */
+    private static int readUnsigned(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IOException("Malformed varint in compiled script.");
+    }
+
+    /**
+     * Reads the instructions of the script one value at a time.
+     * The caller decodes the arguments in the order the compiler wrote them for each opcode.
+     */
+    public class Cursor {
+        private int position;
+
+        /**
+         * Checks whether there are instructions left.
+         * 
+         * @return true if another instruction follows, false at the end of the code
+         */
+        public boolean hasNext() {
+            return position < code.length;
+        }
+
+        /**
+         * Reads the opcode of the next instruction.
+         * 
+         * @return the opcode
+         */
+        public Opcode nextOpcode() {
+            return Opcode.fromOrdinal(code[position++]);
+        }
+
+        /**
+         * Reads a signed integer argument.
+         * 
+         * @return the decoded integer
+         */
+        public int nextInt() {
+            int zigzag = nextUnsigned();
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        /**
+         * Reads a string argument.
+         * 
+         * @return the referenced entry of the string table
+         */
+        public String nextString() {
+            return strings[nextUnsigned()];
+        }
+
+        /**
+         * Reads an unsigned varint from the code.
+         * 
+         * @return the decoded value
+         */
+        private int nextUnsigned() {
+            int value = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = code[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
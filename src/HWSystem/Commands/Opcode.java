@@ -0,0 +1,135 @@
+package HWSystem.Commands;
+
+/**
+ * Enum representing the operation of a command line.
+ * Each opcode holds the command word that selects it, so a command can be
+ * identified directly from the characters of the line without creating a String.
+ */
+public enum Opcode {
+    /** Terminates the command loop. */
+    EXIT("exit"),
+
+    /** Lists the ports or the devices of a type. */
+    LIST("list"),
+
+    /** Turns on the device at a port. */
+    TURN_ON("turnON"),
+
+    /** Turns off the device at a port. */
+    TURN_OFF("turnOFF"),
+
+    /** Adds a device to a port. */
+    ADD_DEV("addDev"),
+
+    /** Removes the device at a port. */
+    RM_DEV("rmDev"),
+
+    /** Reads a sensor. */
+    READ_SENSOR("readSensor"),
+
+    /** Prints data to a display. */
+    PRINT_DISPLAY("printDisplay"),
+
+    /** Reads data from a wireless I/O device. */
+    READ_WIRELESS("readWireless"),
+
+    /** Writes data to a wireless I/O device. */
+    WRITE_WIRELESS("writeWireless"),
+
+    /** Sets the speed of a motor driver. */
+    SET_MOTOR_SPEED("setMotorSpeed"),
+
+    /** Any command word that is not recognized. */
+    INVALID(""),
+
+    // Opcodes below are added after INVALID so the ordinals stored in compiled scripts stay valid
+
+    /** Prints the bus statistics of the ports. */
+    STATS("stats"),
+
+    /** Repeats a command at a fixed simulated period. */
+    EVERY("every"),
+
+    /** Attaches a device to a shared bus at an address. */
+    ATTACH("attach"),
+
+    /** Detaches the device at an address of a shared bus. */
+    DETACH("detach"),
+
+    /** Begins or ends a burst of writes to a device of a shared bus. */
+    BURST("burst"),
+
+    /** Enumerates the devices of a OneWire bus. */
+    SEARCH("search"),
+
+    /** Samples every device of a OneWire bus in bulk cycles. */
+    SAMPLE("sample"),
+
+    /** Starts, stops or reports the periodic polling of sensors. */
+    POLL("poll"),
+
+    /** Enables, disables or reports the read cache of sensors. */
+    CACHE("cache"),
+
+    /** Prints the recorded readings of a sensor or the memory of the histories. */
+    HISTORY("history"),
+
+    /** Prints the newest records of the log of a port. */
+    LOG("log");
+
+    // Cached copy of values(), which clones the array on every call
+    private static final Opcode[] VALUES = values();
+
+    private final String keyword;
+    private final char[] keywordChars;
+
+    /**
+     * Constructs an opcode selected by the given command word.
+     * 
+     * @param keyword the command word of the opcode
+     */
+    Opcode(String keyword) {
+        this.keyword = keyword;
+        this.keywordChars = keyword.toCharArray();
+    }
+
+    /**
+     * Gets the command word of the opcode.
+     * 
+     * @return the command word, e.g., "turnON"
+     */
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Gets the opcode with the given index in declaration order.
+     * 
+     * @param ordinal the index of the opcode
+     * @return the opcode at the index
+     */
+    public static Opcode fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Finds the opcode whose command word equals the given range of characters.
+     * 
+     * @param chars the characters holding the command word
+     * @param start the index of the first character of the command word
+     * @param end the index after the last character of the command word
+     * @return the matching opcode, or {@link #INVALID} if no command word matches
+     */
+    public static Opcode lookup(char[] chars, int start, int end) {
+        int length = end - start;
+        for (Opcode opcode : VALUES) {
+            char[] keyword = opcode.keywordChars;
+            if (keyword.length != length || opcode == INVALID) continue;
+
+            int i = 0;
+            while (i < length && keyword[i] == chars[start + i]) i++;
+            if (i == length) return opcode;
+        }
+        return INVALID;
+    }
+}
@@ -0,0 +1,141 @@
+package HWSystem.Commands;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Compiles text command scripts into {@link CompiledScript}s.
+ * Each line is tokenized once at compile time, and its command word and arguments
+ * are encoded so that replaying the script does not parse any text.
+ * 
+ * Like {@code HWSystem.getCommands()}, compilation stops after the "exit" command.
+ */
+public class ScriptCompiler {
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+    private final VarIntBuffer code = new VarIntBuffer();
+    private final ArrayList<String> strings = new ArrayList<>();
+    private final HashMap<String, Integer> stringIndexes = new HashMap<>();
+
+    /**
+     * Compiles all commands read from the given reader.
+     * 
+     * @param reader the reader supplying the text script, one command per line
+     * @return the compiled script
+     * @throws IOException if reading the script fails
+     */
+    public static CompiledScript compile(BufferedReader reader) throws IOException {
+        ScriptCompiler compiler = new ScriptCompiler();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String command = line.trim();
+            compiler.add(command);
+            if (command.equals("exit")) break;
+        }
+        return compiler.finish();
+    }
+
+    /**
+     * Compiles a single command and appends it to the script.
+     * 
+     * @param line the trimmed command line
+     */
+    public void add(String line) {
+        int start = code.size();
+        try {
+            if (encode(line)) return;
+        } catch (NumberFormatException e) {
+            // Fall through: the replay must fail the same way as the text command
+        }
+        // Discard a partially encoded instruction and keep the line as text
+        code.truncate(start);
+        code.writeByte(Opcode.INVALID.ordinal());
+        code.writeUnsigned(stringIndex(line));
+    }
+
+    /**
+     * Creates the compiled script from the commands added so far.
+     * 
+     * @return the compiled script
+     */
+    public CompiledScript finish() {
+        return new CompiledScript(strings.toArray(new String[0]), code.toByteArray());
+    }
+
+    /**
+     * Encodes a command with its arguments.
+     * 
+     * @param line the command line
+     * @return true if the command was encoded, false if it must be kept as text
+     * @throws NumberFormatException if an integer argument is malformed
+     */
+    private boolean encode(String line) {
+        tokenizer.reset(line);
+        int argCount = tokenizer.getTokenCount();
+        Opcode opcode = tokenizer.opcode();
+
+        switch (opcode) {
+            case EXIT:
+                code.writeByte(opcode.ordinal());
+                return true;
+            case LIST:
+                if (argCount < 2) return false;
+                code.writeByte(opcode.ordinal());
+                code.writeUnsigned(stringIndex(tokenizer.tokenString(1)));
+                return true;
+            case TURN_ON:
+            case TURN_OFF:
+                // Turning on or off an addressed device of a shared bus is kept as text
+                if (argCount != 2) return false;
+                code.writeByte(opcode.ordinal());
+                code.writeSigned(tokenizer.parseInt(1));
+                return true;
+            case RM_DEV:
+            case READ_SENSOR:
+            case READ_WIRELESS:
+                if (argCount < 2) return false;
+                code.writeByte(opcode.ordinal());
+                code.writeSigned(tokenizer.parseInt(1));
+                return true;
+            case ADD_DEV:
+                if (argCount < 4) return false;
+                code.writeByte(opcode.ordinal());
+                code.writeUnsigned(stringIndex(tokenizer.tokenString(1)));
+                code.writeSigned(tokenizer.parseInt(2));
+                code.writeSigned(tokenizer.parseInt(3));
+                return true;
+            case PRINT_DISPLAY:
+            case WRITE_WIRELESS:
+                if (argCount < 3) return false;
+                code.writeByte(opcode.ordinal());
+                code.writeSigned(tokenizer.parseInt(1));
+                code.writeUnsigned(stringIndex(tokenizer.tokenString(2)));
+                return true;
+            case SET_MOTOR_SPEED:
+                if (argCount < 3) return false;
+                code.writeByte(opcode.ordinal());
+                code.writeSigned(tokenizer.parseInt(1));
+                code.writeSigned(tokenizer.parseInt(2));
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Finds the index of a string in the string table, adding it if it is new.
+     * 
+     * @param string the string to look up
+     * @return the index of the string in the table
+     */
+    private int stringIndex(String string) {
+        Integer index = stringIndexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.add(string);
+            stringIndexes.put(string, index);
+        }
+        return index;
+    }
+}
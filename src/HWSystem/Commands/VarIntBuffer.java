@@ -0,0 +1,106 @@
+package HWSystem.Commands;
+
+import java.util.Arrays;
+
+/**
+ * A growable byte array for writing varint-encoded values.
+ * Unsigned values are written 7 bits per byte with the high bit marking that more bytes follow,
+ * and signed values are zigzag-encoded first so that small negative numbers stay short.
+ */
+class VarIntBuffer {
+    private byte[] bytes = new byte[64];
+    private int size;
+
+    /**
+     * Appends a single byte.
+     * 
+     * @param value the byte to append (only the low 8 bits are used)
+     */
+    void writeByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Appends a range of bytes.
+     * 
+     * @param source the bytes to append
+     * @param offset the index of the first byte to append
+     * @param length the number of bytes to append
+     */
+    void writeBytes(byte[] source, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(source, offset, bytes, size, length);
+        size += length;
+    }
+
+    /**
+     * Appends an unsigned varint.
+     * 
+     * @param value the value to append, treated as unsigned
+     */
+    void writeUnsigned(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7F) != 0) {
+            bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[size++] = (byte) value;
+    }
+
+    /**
+     * Appends a zigzag-encoded signed varint.
+     * 
+     * @param value the signed value to append
+     */
+    void writeSigned(int value) {
+        writeUnsigned((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Gets the backing array. Only the first {@link #size()} bytes are valid.
+     * 
+     * @return the backing array
+     */
+    byte[] array() {
+        return bytes;
+    }
+
+    /**
+     * Gets the number of bytes written.
+     * 
+     * @return the number of valid bytes
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Discards the bytes written after the given size.
+     * 
+     * @param newSize the number of bytes to keep
+     */
+    void truncate(int newSize) {
+        size = newSize;
+    }
+
+    /**
+     * Copies the written bytes into an array of exact size.
+     * 
+     * @return a new array holding the written bytes
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    /**
+     * Grows the backing array so that the given number of bytes fit after the written ones.
+     * 
+     * @param extra the number of bytes about to be written
+     */
+    private void ensureCapacity(int extra) {
+        if (size + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(size + extra, bytes.length * 2));
+        }
+    }
+}
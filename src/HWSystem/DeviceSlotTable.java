@@ -0,0 +1,126 @@
+package HWSystem;
+
+import HWSystem.Devices.Device;
+
+/**
+ * Fixed-capacity table of devices addressed by device ID.
+ * A device keeps its ID until it is removed, and removing it does not move other devices.
+ * Free IDs are kept in a doubly linked free-list, so inserting at a given ID, removing,
+ * and finding a free ID are all constant time.
+ * 
+ * @param <T> the type of devices stored in the table
+ */
+class DeviceSlotTable<T extends Device> {
+    private static final int NONE = -1;
+
+    private final Class<T> type;
+    private final Object[] slots;
+    private final int[] nextFree;
+    private final int[] previousFree;
+    private int firstFree;
+
+    /**
+     * Constructs an empty table.
+     * 
+     * @param type the class of devices stored in the table
+     * @param capacity the number of device IDs, from 0 to capacity - 1
+     */
+    DeviceSlotTable(Class<T> type, int capacity) {
+        this.type = type;
+        this.slots = new Object[capacity];
+        this.nextFree = new int[capacity];
+        this.previousFree = new int[capacity];
+
+        // Initially every ID is free, in ascending order
+        for (int i = 0; i < capacity; i++) {
+            nextFree[i] = i + 1 < capacity ? i + 1 : NONE;
+            previousFree[i] = i - 1;
+        }
+        this.firstFree = capacity > 0 ? 0 : NONE;
+    }
+
+    /**
+     * Gets the number of device IDs of the table.
+     * 
+     * @return the capacity of the table
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Gets the device with the given ID.
+     * 
+     * @param devID the device ID
+     * @return the device, or null if the ID is free
+     */
+    @SuppressWarnings("unchecked")
+    T get(int devID) {
+        return (T) slots[devID];
+    }
+
+    /**
+     * Stores a device at a free ID.
+     * 
+     * @param devID the free device ID
+     * @param device the device to store
+     */
+    void put(int devID, T device) {
+        if (slots[devID] != null) throw new IllegalStateException("Device ID " + devID + " is occupied.");
+        unlinkFree(devID);
+        slots[devID] = device;
+    }
+
+    /**
+     * Stores a device of unchecked type at a free ID.
+     * 
+     * @param devID the free device ID
+     * @param device the device to store
+     * @throws ClassCastException if the device is not of the type of the table
+     */
+    void putDevice(int devID, Device device) {
+        put(devID, type.cast(device));
+    }
+
+    /**
+     * Removes the device with the given ID and makes the ID free.
+     * 
+     * @param devID the device ID
+     * @return the removed device, or null if the ID was already free
+     */
+    T remove(int devID) {
+        T device = get(devID);
+        if (device == null) return null;
+
+        slots[devID] = null;
+
+        // Reuse the most recently freed ID first
+        previousFree[devID] = NONE;
+        nextFree[devID] = firstFree;
+        if (firstFree != NONE) previousFree[firstFree] = devID;
+        firstFree = devID;
+        return device;
+    }
+
+    /**
+     * Gets a free device ID without occupying it.
+     * 
+     * @return a free device ID, or -1 if the table is full
+     */
+    int firstFree() {
+        return firstFree;
+    }
+
+    /**
+     * Removes an ID from the free-list.
+     * 
+     * @param devID the free device ID to unlink
+     */
+    private void unlinkFree(int devID) {
+        int previous = previousFree[devID];
+        int next = nextFree[devID];
+        if (previous != NONE) nextFree[previous] = next;
+        else firstFree = next;
+        if (next != NONE) previousFree[next] = previous;
+    }
+}
@@ -0,0 +1,43 @@
+package HWSystem.Devices;
+
+import java.util.Arrays;
+import java.util.List;
+
+import HWSystem.Devices.Displays.LCD;
+import HWSystem.Devices.Displays.OLED;
+import HWSystem.Devices.MotorDrivers.PCA9685;
+import HWSystem.Devices.MotorDrivers.SparkFunMD;
+import HWSystem.Devices.Sensors.BME280;
+import HWSystem.Devices.Sensors.DHT11;
+import HWSystem.Devices.Sensors.GY_951;
+import HWSystem.Devices.Sensors.MPU6050;
+import HWSystem.Devices.WirelessIOs.Bluetooth;
+import HWSystem.Devices.WirelessIOs.Wifi;
+import HWSystem.Protocols.ProtocolKind;
+
+/**
+ * Provides the device models shipped with the system.
+ */
+public class BuiltinDevices implements DeviceProvider {
+
+    /**
+     * Gets the built-in device types with their compatible protocols.
+     * 
+     * @return the list of built-in device types
+     */
+    @Override
+    public List<DeviceType> getDeviceTypes() {
+        return Arrays.asList(
+            new DeviceType("DHT11", DHT11::new, DeviceCategory.SENSOR, ProtocolKind.ONE_WIRE),
+            new DeviceType("BME280", BME280::new, DeviceCategory.SENSOR, ProtocolKind.I2C, ProtocolKind.SPI),
+            new DeviceType("MPU6050", MPU6050::new, DeviceCategory.SENSOR, ProtocolKind.I2C),
+            new DeviceType("GY951", GY_951::new, DeviceCategory.SENSOR, ProtocolKind.SPI, ProtocolKind.UART),
+            new DeviceType("LCD", LCD::new, DeviceCategory.DISPLAY, ProtocolKind.I2C),
+            new DeviceType("OLED", OLED::new, DeviceCategory.DISPLAY, ProtocolKind.SPI),
+            new DeviceType("Bluetooth", Bluetooth::new, DeviceCategory.WIRELESS_IO, ProtocolKind.UART),
+            new DeviceType("Wifi", Wifi::new, DeviceCategory.WIRELESS_IO, ProtocolKind.SPI, ProtocolKind.UART),
+            new DeviceType("PCA9685", PCA9685::new, DeviceCategory.MOTOR_DRIVER, ProtocolKind.I2C),
+            new DeviceType("SparkFunMD", SparkFunMD::new, DeviceCategory.MOTOR_DRIVER, ProtocolKind.SPI)
+        );
+    }
+}
@@ -0,0 +1,83 @@
+package HWSystem.Devices;
+
+import HWSystem.Devices.Displays.Display;
+import HWSystem.Devices.MotorDrivers.MotorDriver;
+import HWSystem.Devices.Sensors.Sensor;
+import HWSystem.Devices.WirelessIOs.WirelessIO;
+
+/**
+ * Enum representing the categories of devices managed by the system.
+ * Each category has its own range of device IDs.
+ */
+public enum DeviceCategory {
+    /** Sensors, e.g., DHT11 or MPU6050. */
+    SENSOR("Sensor", "Sensor", "Sensor", Sensor.class),
+
+    /** Displays, e.g., LCD or OLED. */
+    DISPLAY("Display", "Display", "Display", Display.class),
+
+    /** Wireless adapters, e.g., Bluetooth or Wifi. */
+    WIRELESS_IO("WirelessIO", "Wireless Adapters", "Wireless IO", WirelessIO.class),
+
+    /** Motor drivers, e.g., PCA9685 or SparkFunMD. */
+    MOTOR_DRIVER("MotorDriver", "Motor Drivers", "Motor Driver", MotorDriver.class);
+
+    private final String typeName;
+    private final String pluralName;
+    private final String singularName;
+    private final Class<? extends Device> deviceClass;
+
+    /**
+     * Constructs a device category.
+     * 
+     * @param typeName the name of the category used by commands
+     * @param pluralName the name of the category in messages about all of its devices
+     * @param singularName the name of the category in messages about one of its devices
+     * @param deviceClass the class every device of the category extends
+     */
+    DeviceCategory(String typeName, String pluralName, String singularName, Class<? extends Device> deviceClass) {
+        this.typeName = typeName;
+        this.pluralName = pluralName;
+        this.singularName = singularName;
+        this.deviceClass = deviceClass;
+    }
+
+    /**
+     * Checks whether a device belongs to the category.
+     * 
+     * @param device the device
+     * @return true if the device extends the class of the category, false otherwise
+     */
+    public boolean accepts(Device device) {
+        return deviceClass.isInstance(device);
+    }
+
+    /**
+     * Gets the name of the category used by commands, e.g., in "list Sensor".
+     * 
+     * @return the name of the category
+     */
+    public String getTypeName() {
+        return typeName;
+    }
+
+    /**
+     * Gets the name of the category in messages about all of its devices,
+     * e.g., "Invalid device ID for Motor Drivers."
+     * 
+     * @return the plural name of the category
+     */
+    public String getPluralName() {
+        return pluralName;
+    }
+
+    /**
+     * Gets the name of the category in messages about one of its devices,
+     * e.g., "Motor Driver ID 0 is already occupied."
+     * 
+     * @return the singular name of the category
+     */
+    public String getSingularName() {
+        return singularName;
+    }
+}
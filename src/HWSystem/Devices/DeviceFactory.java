@@ -0,0 +1,11 @@
+package HWSystem.Devices;
+
+import HWSystem.Protocols.Protocol;
+
+/**
+ * Creates devices of one model connected through a given protocol.
+ */
+@FunctionalInterface
+public interface DeviceFactory {
+    Device create(Protocol protocol);
+}
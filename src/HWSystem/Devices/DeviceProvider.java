@@ -0,0 +1,13 @@
+package HWSystem.Devices;
+
+import java.util.List;
+
+/**
+ * Service interface supplying device types to the {@link DeviceRegistry}.
+ * Additional device models are plugged in by implementing this interface and listing
+ * the implementation in {@code META-INF/services/HWSystem.Devices.DeviceProvider}
+ * on the class path, as described in {@link java.util.ServiceLoader}.
+ */
+public interface DeviceProvider {
+    List<DeviceType> getDeviceTypes();
+}
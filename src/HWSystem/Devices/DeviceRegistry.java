@@ -0,0 +1,124 @@
+package HWSystem.Devices;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the device models that can be added to the system, keyed by model name.
+ * The default registry is loaded once and holds the {@link BuiltinDevices} followed by
+ * the device types of every {@link DeviceProvider} found by {@link ServiceLoader}.
+ * A model name is registered once, so a provider can not replace a built-in model, and the
+ * default registry is frozen once loaded, since it is shared by every system of the process.
+ */
+public class DeviceRegistry {
+    private final HashMap<String, DeviceType> types = new LinkedHashMap<>();
+    private String[] names = new String[0];
+    private boolean frozen;
+
+    /**
+     * Gets the registry shared by all systems, loading it on first use.
+     * 
+     * @return the default registry
+     */
+    public static DeviceRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Creates a registry with the built-in device types and all installed providers.
+     * 
+     * @return the loaded registry
+     */
+    public static DeviceRegistry load() {
+        DeviceRegistry registry = new DeviceRegistry();
+        registry.registerAll(new BuiltinDevices());
+        for (DeviceProvider provider : ServiceLoader.load(DeviceProvider.class)) {
+            registry.registerAll(provider);
+        }
+        return registry;
+    }
+
+    /**
+     * Adds every device type of a provider.
+     * 
+     * @param provider the provider of the device types
+     */
+    public void registerAll(DeviceProvider provider) {
+        for (DeviceType type : provider.getDeviceTypes()) {
+            register(type);
+        }
+    }
+
+    /**
+     * Adds a device type, unless a type with the same name is already registered.
+     * Types should be registered before the registry is used by a system.
+     * 
+     * @param type the device type to add
+     * @return true if the type is added, false if its name is already registered
+     * @throws UnsupportedOperationException if the registry is frozen
+     */
+    public Boolean register(DeviceType type) {
+        if (frozen) throw new UnsupportedOperationException("The device registry can not be changed once frozen.");
+        if (types.containsKey(type.getName())) {
+            System.err.println("Device type " + type.getName() + " is already registered.");
+            return false;
+        }
+        types.put(type.getName(), type);
+        names = types.keySet().toArray(new String[0]);
+        return true;
+    }
+
+    /**
+     * Makes the registry unmodifiable: further registrations throw.
+     */
+    public void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * Checks whether the registry is unmodifiable.
+     * 
+     * @return true if the registry is frozen, false otherwise
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Finds a device type by model name.
+     * 
+     * @param name the model name
+     * @return the device type, or null if no model has the name
+     */
+    public DeviceType get(String name) {
+        return types.get(name);
+    }
+
+    /**
+     * Gets the names of all registered models.
+     * 
+     * @return a copy of the model names, in registration order
+     */
+    public String[] getNames() {
+        return names.clone();
+    }
+
+    /**
+     * Holds the default registry so that it is loaded and frozen on first use.
+     */
+    private static class DefaultHolder {
+        private static final DeviceRegistry INSTANCE = loadFrozen();
+
+        /**
+         * Loads the default registry and freezes it.
+         * 
+         * @return the frozen registry
+         */
+        private static DeviceRegistry loadFrozen() {
+            DeviceRegistry registry = load();
+            registry.freeze();
+            return registry;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package HWSystem.Devices;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import HWSystem.Protocols.Protocol;
+import HWSystem.Protocols.ProtocolKind;
+
+/**
+ * Describes a device model that can be added to the system.
+ * A device type holds the model name used by "addDev", a factory creating the device,
+ * the categories the device belongs to, and the protocols it can be connected through.
+ * The compatible protocols are stored as a {@link ProtocolKind} mask, so checking a port
+ * is a single bit test.
+ */
+public class DeviceType {
+    private final String name;
+    private final DeviceFactory factory;
+    private final List<DeviceCategory> categories;
+    private final int protocolMask;
+
+    /**
+     * Constructs a device type.
+     * 
+     * @param name the model name, e.g., "DHT11"
+     * @param factory the factory creating devices of this model
+     * @param categories the categories of the model; the first one assigns its device IDs
+     * @param protocols the protocols the model can be connected through
+     */
+    public DeviceType(String name, DeviceFactory factory, List<DeviceCategory> categories, ProtocolKind... protocols) {
+        if (categories.isEmpty()) throw new IllegalArgumentException("Device type " + name + " has no category.");
+        this.name = name;
+        this.factory = factory;
+        this.categories = Collections.unmodifiableList(categories);
+        this.protocolMask = ProtocolKind.maskOf(protocols);
+    }
+
+    /**
+     * Constructs a device type belonging to a single category.
+     * 
+     * @param name the model name, e.g., "DHT11"
+     * @param factory the factory creating devices of this model
+     * @param category the category of the model
+     * @param protocols the protocols the model can be connected through
+     */
+    public DeviceType(String name, DeviceFactory factory, DeviceCategory category, ProtocolKind... protocols) {
+        this(name, factory, Arrays.asList(category), protocols);
+    }
+
+    /**
+     * Gets the model name used by "addDev".
+     * 
+     * @return the model name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the categories of the model.
+     * 
+     * @return the unmodifiable list of categories
+     */
+    public List<DeviceCategory> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Gets the category whose device IDs are used by the model.
+     * 
+     * @return the first category of the model
+     */
+    public DeviceCategory getCategory() {
+        return categories.get(0);
+    }
+
+    /**
+     * Checks whether the model can be connected through the given protocol.
+     * 
+     * @param protocol the protocol of a port
+     * @return true if the model supports the protocol, false otherwise
+     */
+    public boolean isCompatible(Protocol protocol) {
+        return (protocolMask & protocol.getProtocolKind().mask()) != 0;
+    }
+
+    /**
+     * Creates a device of this model.
+     * The device must belong to every category of the model, since it is stored in the
+     * device table of its category; a factory creating any other device is rejected.
+     * 
+     * @param protocol the protocol the device is connected through
+     * @return the new device, or null if the factory created no device or one outside the categories of the model
+     */
+    public Device create(Protocol protocol) {
+        Device device = factory.create(protocol);
+        if (device == null) return null;
+        for (DeviceCategory category : categories) {
+            if (!category.accepts(device)) return null;
+        }
+        return device;
+    }
+}
@@ -26,9 +26,9 @@ public class OLED extends Display {
      */
     @Override
     public void turnON() {
-        deviceState = State.ON;
         System.out.println(getName() + ": Turning ON.");
         protocol.write("turnON");
+        deviceState = State.ON;
     }
 
     /**
@@ -37,9 +37,9 @@ public class OLED extends Display {
      */
     @Override
     public void turnOFF() {
-        deviceState = State.OFF;
         System.out.println(getName() + ": Turning OFF.");
         protocol.write("turnOFF");
+        deviceState = State.OFF;
     }
 
     /**
@@ -9,6 +9,8 @@ import HWSystem.Protocols.Protocol;
  * allowing interaction with a protocol and controlling the motor speed.
  */
 public abstract class MotorDriver extends Device {
+    // Reused for the decimal text of every speed written to the protocol; fits Integer.MIN_VALUE
+    private final byte[] speedText = new byte[11];
 
     /**
      * Constructs a motor driver with the specified communication protocol.
@@ -37,4 +39,21 @@ public abstract class MotorDriver extends Device {
      * @param speed the speed of the motor to be set
      */
     public abstract void setMotorSpeed(int speed);
+
+    /**
+     * Writes the decimal text of a speed to the protocol.
+     * The digits are formatted into a reused array instead of a new String.
+     * 
+     * @param speed the speed of the motor
+     */
+    protected void writeSpeed(int speed) {
+        long value = Math.abs((long) speed);
+        int start = speedText.length;
+        do {
+            speedText[--start] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        if (speed < 0) speedText[--start] = '-';
+        protocol.write(speedText, start, speedText.length - start);
+    }
 }
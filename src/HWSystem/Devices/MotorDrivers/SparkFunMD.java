@@ -25,9 +25,9 @@ public class SparkFunMD extends MotorDriver {
      */
     @Override
     public void turnON() {
-        deviceState = State.ON;
         System.out.println(getName() + ": Turning ON.");
         protocol.write("turnON");
+        deviceState = State.ON;
     }
 
     /**
@@ -35,9 +35,9 @@ public class SparkFunMD extends MotorDriver {
      */
     @Override
     public void turnOFF() {
-        deviceState = State.OFF;
         System.out.println(getName() + ": Turning OFF.");
         protocol.write("turnOFF");
+        deviceState = State.OFF;
     }
 
     /**
@@ -58,6 +58,6 @@ public class SparkFunMD extends MotorDriver {
     @Override
     public void setMotorSpeed(int speed) {
         System.out.println(getName() + " Setting speed to: " + speed);
-        protocol.write(String.format("%d", speed));
+        writeSpeed(speed);
     }
 }
@@ -10,6 +10,9 @@ import HWSystem.State;
  */
 public class DHT11 extends TempSensor {
 
+    /** The temperature reported by the sensor, in degrees Celsius. */
+    private static final double TEMPERATURE = 24.0;
+
     /**
      * Constructs a DHT11 temperature sensor device with the specified communication protocol.
      * The device is initially set to the OFF state.
@@ -26,9 +29,9 @@ public class DHT11 extends TempSensor {
      */
     @Override
     public void turnON() {
-        deviceState = State.ON;
         System.out.println(getName() + ": Turning ON.");
         protocol.write("turnON");
+        deviceState = State.ON;
     }
 
     /**
@@ -37,9 +40,9 @@ public class DHT11 extends TempSensor {
      */
     @Override
     public void turnOFF() {
-        deviceState = State.OFF;
         System.out.println(getName() + ": Turning OFF.");
         protocol.write("turnOFF");
+        deviceState = State.OFF;
     }
 
     /**
@@ -54,14 +57,14 @@ public class DHT11 extends TempSensor {
     }
 
     /**
-     * Converts the sensor's data into a string format.
-     * This method provides a simple string representation of the DHT11 sensor's temperature data.
+     * Reads the sensor's temperature into a sample.
      * 
-     * @return a string representing the sensor's temperature data, such as the current temperature
+     * @param sample the sample receiving the reading
      */
     @Override
-    public String data2String() {
+    public void readSample(SensorSample sample) {
         protocol.read();
-        return getName() + " " + getDevType() + ": Temperature: 24.00°C.";
+        sample.reset(sampleTime());
+        sample.setTemperature(TEMPERATURE);
     }
 }
@@ -10,6 +10,12 @@ import HWSystem.State;
  */
 public class GY_951 extends IMUSensor {
 
+    /** The acceleration reported by the sensor, in m/s^2. */
+    private static final double ACCELERATION = 1.0;
+
+    /** The rotation reported by the sensor, in Hz. */
+    private static final double ROTATION = 0.5;
+
     /**
      * Constructs a GY-951 IMU sensor device with the specified communication protocol.
      * The device is initially set to the OFF state.
@@ -26,9 +32,9 @@ public class GY_951 extends IMUSensor {
      */
     @Override
     public void turnON() {
-        deviceState = State.ON;
         System.out.println(getName() + ": Turning ON.");
         protocol.write("turnON");
+        deviceState = State.ON;
     }
 
     /**
@@ -37,9 +43,9 @@ public class GY_951 extends IMUSensor {
      */
     @Override
     public void turnOFF() {
-        deviceState = State.OFF;
         System.out.println(getName() + ": Turning OFF.");
         protocol.write("turnOFF");
+        deviceState = State.OFF;
     }
 
     /**
@@ -54,14 +60,15 @@ public class GY_951 extends IMUSensor {
     }
 
     /**
-     * Converts the sensor's data into a string format.
-     * This method provides a simple string representation of the GY-951 sensor's data, such as acceleration and rotation.
+     * Reads the sensor's acceleration and rotation into a sample.
      * 
-     * @return a string representing the sensor's data, such as acceleration and rotation
+     * @param sample the sample receiving the reading
      */
     @Override
-    public String data2String() {
+    public void readSample(SensorSample sample) {
         protocol.read();
-        return getName() + " " + getDevType() + ": Acceleration: 1.00m/s^2, Rotation: 0.50Hz.";
+        sample.reset(sampleTime());
+        sample.setAcceleration(ACCELERATION);
+        sample.setRotation(ROTATION);
     }
 }
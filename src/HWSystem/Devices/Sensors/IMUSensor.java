@@ -29,12 +29,4 @@ public abstract class IMUSensor extends Sensor {
     public String getSensType() {
         return "IMUSensor";
     }
-
-    /**
-     * Converts the IMU sensor data to a string representation.
-     * This method should be implemented by subclasses to return the sensor's data in a suitable string format.
-     * 
-     * @return a string representation of the IMU sensor data
-     */
-    public abstract String data2String();
 }
@@ -1,6 +1,8 @@
 package HWSystem.Devices.Sensors;
 
 import HWSystem.Devices.Device;
+import HWSystem.Protocols.BaseProtocol;
+import HWSystem.Protocols.BusTarget;
 import HWSystem.Protocols.Protocol;
 
 /**
@@ -39,11 +41,46 @@ public abstract class Sensor extends Device {
      */
     public abstract String getSensType();
 
+    /**
+     * Reads the sensor into a sample, replacing the previous reading it held.
+     * This method should be implemented by subclasses to set the quantities they measure.
+     *
+     * @param sample the sample receiving the reading, which can be reused between reads
+     */
+    public abstract void readSample(SensorSample sample);
+
     /**
      * Converts the sensor data to a string representation.
-     * This method should be implemented by subclasses to return the data in a format suitable for output or display.
+     * Reads the sensor into a new sample and formats it after the name and type of the sensor.
      *
      * @return a string representation of the sensor data
      */
-    public abstract String data2String();
+    public String data2String() {
+        SensorSample sample = new SensorSample();
+        readSample(sample);
+        return format(sample);
+    }
+
+    /**
+     * Formats a reading of the sensor after the name and type of the sensor, as {@link #data2String()} does.
+     *
+     * @param sample a reading of the sensor
+     * @return a string representation of the reading
+     */
+    public String format(SensorSample sample) {
+        StringBuilder text = new StringBuilder(64).append(getName()).append(' ').append(getDevType()).append(": ");
+        return sample.appendTo(text).toString();
+    }
+
+    /**
+     * Gets the time on the clock of the bus of the sensor, which stamps its readings,
+     * so that readings in simulation mode are stamped with simulated time.
+     *
+     * @return the current time, in nanoseconds
+     */
+    public long sampleTime() {
+        Protocol port = protocol instanceof BusTarget ? ((BusTarget) protocol).getPort() : protocol;
+        if (port instanceof BaseProtocol) return ((BaseProtocol) port).getBus().getClock().nanoTime();
+        return System.nanoTime();
+    }
 }
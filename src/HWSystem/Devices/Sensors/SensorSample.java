@@ -0,0 +1,237 @@
+package HWSystem.Devices.Sensors;
+
+/**
+ * A reading of a sensor as primitive values.
+ * A sample is filled in place by {@link Sensor#readSample(SensorSample)}, so a caller
+ * reading sensors repeatedly can reuse one sample and allocate nothing. Each sensor
+ * sets the quantities it measures; the others are absent, see {@link #has(int)}.
+ * The reading is only turned into text when it is printed, by {@link #appendTo(StringBuilder)}.
+ */
+public class SensorSample {
+    /** Flag of the temperature, in degrees Celsius. */
+    public static final int TEMPERATURE = 1;
+
+    /** Flag of the relative humidity, in percent. */
+    public static final int HUMIDITY = 1 << 1;
+
+    /** Flag of the pressure, in hectopascals. */
+    public static final int PRESSURE = 1 << 2;
+
+    /** Flag of the acceleration, in m/s^2. */
+    public static final int ACCELERATION = 1 << 3;
+
+    /** Flag of the rotation, in Hz. */
+    public static final int ROTATION = 1 << 4;
+
+    private int present;
+    private long timestamp;
+    private double temperature;
+    private double humidity;
+    private double pressure;
+    private double acceleration;
+    private double rotation;
+
+    /**
+     * Removes every quantity from the sample, before it is filled by another reading.
+     * 
+     * @param timestamp the time of the new reading, in nanoseconds
+     */
+    public void reset(long timestamp) {
+        this.present = 0;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Checks whether the sample holds a quantity.
+     * 
+     * @param quantity the flag of the quantity, e.g., {@link #TEMPERATURE}
+     * @return true if the sensor measured the quantity, false otherwise
+     */
+    public boolean has(int quantity) {
+        return (present & quantity) != 0;
+    }
+
+    /**
+     * Gets the flags of the quantities the sample holds.
+     * 
+     * @return the flags, e.g., {@code TEMPERATURE | HUMIDITY}
+     */
+    public int getQuantities() {
+        return present;
+    }
+
+    /**
+     * Gets a quantity by its flag.
+     * 
+     * @param quantity the flag of one quantity, e.g., {@link #TEMPERATURE}
+     * @return the value of the quantity, or NaN if the sample does not hold it
+     */
+    public double get(int quantity) {
+        if (!has(quantity)) return Double.NaN;
+        switch (quantity) {
+            case TEMPERATURE: return temperature;
+            case HUMIDITY: return humidity;
+            case PRESSURE: return pressure;
+            case ACCELERATION: return acceleration;
+            case ROTATION: return rotation;
+            default: throw new IllegalArgumentException("Not the flag of one quantity: " + quantity);
+        }
+    }
+
+    /**
+     * Gets the time of the reading, on the clock of the bus of the sensor.
+     * 
+     * @return the timestamp, in nanoseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the temperature.
+     * 
+     * @return the temperature in degrees Celsius
+     */
+    public double getTemperature() {
+        return temperature;
+    }
+
+    /**
+     * Sets the temperature.
+     * 
+     * @param temperature the temperature in degrees Celsius
+     */
+    public void setTemperature(double temperature) {
+        this.temperature = temperature;
+        present |= TEMPERATURE;
+    }
+
+    /**
+     * Gets the relative humidity.
+     * 
+     * @return the relative humidity in percent
+     */
+    public double getHumidity() {
+        return humidity;
+    }
+
+    /**
+     * Sets the relative humidity.
+     * 
+     * @param humidity the relative humidity in percent
+     */
+    public void setHumidity(double humidity) {
+        this.humidity = humidity;
+        present |= HUMIDITY;
+    }
+
+    /**
+     * Gets the pressure.
+     * 
+     * @return the pressure in hectopascals
+     */
+    public double getPressure() {
+        return pressure;
+    }
+
+    /**
+     * Sets the pressure.
+     * 
+     * @param pressure the pressure in hectopascals
+     */
+    public void setPressure(double pressure) {
+        this.pressure = pressure;
+        present |= PRESSURE;
+    }
+
+    /**
+     * Gets the acceleration.
+     * 
+     * @return the acceleration in m/s^2
+     */
+    public double getAcceleration() {
+        return acceleration;
+    }
+
+    /**
+     * Sets the acceleration.
+     * 
+     * @param acceleration the acceleration in m/s^2
+     */
+    public void setAcceleration(double acceleration) {
+        this.acceleration = acceleration;
+        present |= ACCELERATION;
+    }
+
+    /**
+     * Gets the rotation.
+     * 
+     * @return the rotation in Hz
+     */
+    public double getRotation() {
+        return rotation;
+    }
+
+    /**
+     * Sets the rotation.
+     * 
+     * @param rotation the rotation in Hz
+     */
+    public void setRotation(double rotation) {
+        this.rotation = rotation;
+        present |= ROTATION;
+    }
+
+    /**
+     * Appends the quantities of the sample as text, e.g., "Temperature: 24.00°C.".
+     * 
+     * @param text the builder receiving the text
+     * @return the builder
+     */
+    public StringBuilder appendTo(StringBuilder text) {
+        int start = text.length();
+        if (has(TEMPERATURE)) appendFixed(separate(text, start).append("Temperature: "), temperature).append("°C");
+        if (has(HUMIDITY)) appendFixed(separate(text, start).append("Humidity: "), humidity).append('%');
+        if (has(PRESSURE)) appendFixed(separate(text, start).append("Pressure: "), pressure).append("hPa");
+        if (has(ACCELERATION)) appendFixed(separate(text, start).append("Acceleration: "), acceleration).append("m/s^2");
+        if (has(ROTATION)) appendFixed(separate(text, start).append("Rotation: "), rotation).append("Hz");
+        return text.append('.');
+    }
+
+    /**
+     * Appends the separator before a quantity unless it is the first one.
+     * 
+     * @param text the builder receiving the text
+     * @param start the length of the builder before the first quantity
+     * @return the builder
+     */
+    private static StringBuilder separate(StringBuilder text, int start) {
+        return text.length() > start ? text.append(", ") : text;
+    }
+
+    /**
+     * Appends a value with two decimals, independent of the locale.
+     * 
+     * @param text the builder receiving the text
+     * @param value the value
+     * @return the builder
+     */
+    private static StringBuilder appendFixed(StringBuilder text, double value) {
+        long hundredths = Math.round(Math.abs(value) * 100);
+        if (value < 0 && hundredths != 0) text.append('-');
+        text.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        return text.append(fraction);
+    }
+
+    /**
+     * Formats the quantities of the sample.
+     * 
+     * @return the quantities as text
+     */
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder()).toString();
+    }
+}
@@ -29,12 +29,4 @@ public abstract class TempSensor extends Sensor {
     public String getSensType() {
         return "TempSensor";
     }
-
-    /**
-     * Converts the temperature sensor data to a string representation.
-     * This method should be implemented by subclasses to return the sensor's data in a suitable string format.
-     * 
-     * @return a string representation of the temperature sensor data
-     */
-    public abstract String data2String();
 }
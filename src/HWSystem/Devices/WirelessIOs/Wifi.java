@@ -26,9 +26,9 @@ public class Wifi extends WirelessIO {
      */
     @Override
     public void turnON() {
-        deviceState = State.ON;
         System.out.println(getName() + ": Turning ON.");
         protocol.write("turnON");
+        deviceState = State.ON;
     }
 
     /**
@@ -37,9 +37,9 @@ public class Wifi extends WirelessIO {
      */
     @Override
     public void turnOFF() {
-        deviceState = State.OFF;
         System.out.println(getName() + ": Turning OFF.");
         protocol.write("turnOFF");
+        deviceState = State.OFF;
     }
 
     /**
@@ -68,14 +68,14 @@ public class Wifi extends WirelessIO {
 
     /**
      * Sets the data to be transmitted via WiFi.
-     * This method stores the data and sends it using the protocol.
+     * This method sends the data using the protocol and stores it once the write is accepted.
      * 
      * @param data the data to be transmitted by the WiFi device
      */
     @Override
     public void setData(String data) {
-        this.deviceData = data;
         protocol.write(data);
+        this.deviceData = data;
         System.out.println(getName() + ": Sending \"" + data + "\"");
     }
 }
@@ -1,30 +1,51 @@
 package HWSystem;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import HWSystem.Commands.CommandTokenizer;
+import HWSystem.Commands.CompiledScript;
+import HWSystem.Commands.Opcode;
 import HWSystem.Devices.Device;
+import HWSystem.Devices.DeviceCategory;
+import HWSystem.Devices.DeviceRegistry;
+import HWSystem.Devices.DeviceType;
 import HWSystem.Devices.Displays.Display;
-import HWSystem.Devices.Displays.LCD;
-import HWSystem.Devices.Displays.OLED;
 import HWSystem.Devices.MotorDrivers.MotorDriver;
-import HWSystem.Devices.MotorDrivers.PCA9685;
-import HWSystem.Devices.MotorDrivers.SparkFunMD;
-import HWSystem.Devices.Sensors.GY_951;
-import HWSystem.Devices.Sensors.BME280;
-import HWSystem.Devices.Sensors.DHT11;
-import HWSystem.Devices.Sensors.MPU6050;
 import HWSystem.Devices.Sensors.Sensor;
-import HWSystem.Devices.WirelessIOs.Bluetooth;
-import HWSystem.Devices.WirelessIOs.Wifi;
+import HWSystem.Devices.Sensors.SensorSample;
 import HWSystem.Devices.WirelessIOs.WirelessIO;
-import HWSystem.Protocols.I2C;
+import HWSystem.History.TimeSeries;
+import HWSystem.History.TimeSeriesStore;
+import HWSystem.Logging.LogExportReport;
+import HWSystem.Protocols.BaseProtocol;
+import HWSystem.Protocols.BusTarget;
+import HWSystem.Simulation.SimulationReport;
+import HWSystem.Simulation.Simulator;
 import HWSystem.Protocols.OneWire;
 import HWSystem.Protocols.Protocol;
-import HWSystem.Protocols.SPI;
+import HWSystem.Protocols.SerialBuffer;
 import HWSystem.Protocols.UART;
+import HWSystem.Protocols.WriteRejectedException;
+import HWSystem.Scheduling.PollScheduler;
+import HWSystem.Scheduling.PollTimer;
+import HWSystem.Timing.BusModel;
+import HWSystem.Timing.BusStats;
 
 /**
  * Represents a hardware system that connects and manages various types of devices
@@ -35,13 +56,59 @@ public class HWSystem {
     private ArrayList<Protocol> ports;
     private ArrayList<Device> devices;
 
-    private ArrayList<Display> displays;
-    private ArrayList<MotorDriver> motorDrivers;
-    private ArrayList<Sensor> sensors;
-    private ArrayList<WirelessIO> wirelessIOs;
+    private DeviceSlotTable<Display> displays;
+    private DeviceSlotTable<MotorDriver> motorDrivers;
+    private DeviceSlotTable<Sensor> sensors;
+    private DeviceSlotTable<WirelessIO> wirelessIOs;
+
+    private PortIndex portIndex;
+
+    // Devices sharing the bus of a port by address, by the target they are connected through
+    private final Map<BusTarget, AttachedDevice> attachedDevices = new HashMap<>();
+
+    // Device models available to addDev, loaded once
+    private final DeviceRegistry deviceRegistry = DeviceRegistry.getDefault();
+
+    // The default registry is frozen, so its model names are copied once
+    private final String[] deviceNames = deviceRegistry.getNames();
 
     private LinkedList<String> commandList = new LinkedList<>();
 
+    // Guards the device lists when commands run on several threads
+    private final ReadWriteLock registryLock = new ReentrantReadWriteLock();
+
+    // Splits command lines in place; reused for every command
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+
+    // The simulation running the commands, or null outside simulation mode
+    private CommandSimulation simulation;
+
+    // Polls sensors periodically; created by the first "poll start"
+    private PollScheduler pollScheduler;
+    private int pollWorkers = Runtime.getRuntime().availableProcessors();
+    private final Map<Integer, PollTimer> sensorPolls = new HashMap<>();
+
+    // The sample each thread reads sensors into, so reading and polling allocate no readings
+    private final ThreadLocal<SensorSample> samples = ThreadLocal.withInitial(SensorSample::new);
+
+    // Read-through cache of the sensors read with "readSensor", enabled per sensor with "cache"
+    private SensorReadCache sensorCache;
+
+    // History of the readings of the sensors, queried with "history"
+    private TimeSeriesStore history;
+
+    /** The highest rate at which a sensor can be polled, in Hz. */
+    public static final int MAX_POLL_HZ = 1000;
+
+    // The number of polls that can wait for a worker of the poll scheduler
+    private static final int POLL_QUEUE_CAPACITY = 4096;
+
+    // List types accepted by the "list" command, so that they are matched without creating Strings
+    private static final String[] LIST_TYPES = {"ports", "Sensor", "Display", "MotorDriver", "WirelessIO"};
+
+    // Marks the end of the input in the streaming command queue (compared by reference)
+    private static final String END_OF_INPUT = new String("");
+
     /**
      * Constructs a HWSystem object.
      * 
@@ -56,20 +123,20 @@ public class HWSystem {
     
         // Initialize device lists
         this.devices = new ArrayList<>(ports.size());
-        this.sensors = new ArrayList<>(maxSensors);
-        this.displays = new ArrayList<>(maxDisplays);
-        this.wirelessIOs = new ArrayList<>(maxWirelessAdapters);
-        this.motorDrivers = new ArrayList<>(maxMotorDrivers);
+        this.sensors = new DeviceSlotTable<>(Sensor.class, maxSensors);
+        this.sensorCache = new SensorReadCache(maxSensors);
+        this.history = new TimeSeriesStore(maxSensors, 0);
+        this.displays = new DeviceSlotTable<>(Display.class, maxDisplays);
+        this.wirelessIOs = new DeviceSlotTable<>(WirelessIO.class, maxWirelessAdapters);
+        this.motorDrivers = new DeviceSlotTable<>(MotorDriver.class, maxMotorDrivers);
     
         // Fill `devices` list with `null` (matching port size)
         for (int i = 0; i < ports.size(); i++) {
             this.devices.add(null);
         }
 
-        while (this.sensors.size() < maxSensors) sensors.add(null);
-        while (this.displays.size() < maxDisplays) displays.add(null);
-        while (this.wirelessIOs.size() < maxWirelessAdapters) wirelessIOs.add(null);
-        while (this.motorDrivers.size() < maxMotorDrivers) motorDrivers.add(null);
+        // Capacities are indexed by DeviceCategory ordinal
+        this.portIndex = new PortIndex(ports.size(), new int[] {maxSensors, maxDisplays, maxWirelessAdapters, maxMotorDrivers});
     }
     
     /**
@@ -107,11 +174,76 @@ public class HWSystem {
             return false;
         }
         devices.get(portID).turnOFF();
+        if (portIndex.getCategory(portID) == DeviceCategory.SENSOR) sensorCache.invalidate(portIndex.getDevID(portID));
+        return true;
+    }
+
+    /**
+     * Turns on the device attached at an address of the bus of a port.
+     * 
+     * @param portID the port ID of the bus
+     * @param address the address of the device on the bus
+     * @return true if the device is successfully turned on, false otherwise
+     */
+    public Boolean turnOnDevice(int portID, long address) {
+        AttachedDevice attached = findAttached(portID, address);
+        if (attached == null) return false;
+        if (attached.device.getState() == State.ON){
+            System.err.println("Device is already active. Turn ON command can not be executed.");
+            return false;
+        }
+        attached.device.turnON();
+        return true;
+    }
+
+    /**
+     * Turns off the device attached at an address of the bus of a port.
+     * 
+     * @param portID the port ID of the bus
+     * @param address the address of the device on the bus
+     * @return true if the device is successfully turned off, false otherwise
+     */
+    public Boolean turnOffDevice(int portID, long address) {
+        AttachedDevice attached = findAttached(portID, address);
+        if (attached == null) return false;
+        if (attached.device.getState() == State.OFF){
+            System.err.println("Device is already off. Turn OFF command can not be executed.");
+            return false;
+        }
+        attached.device.turnOFF();
+        if (attached.category == DeviceCategory.SENSOR) sensorCache.invalidate(attached.devID);
+        return true;
+    }
+
+    /**
+     * Adds a device to the system at a specified port, assigning it a free device ID of its type.
+     * The assigned device ID is printed after the device is added.
+     * 
+     * @param devName the name of the device to be added
+     * @param portID the port ID where the device will be connected
+     * @return true if the device is successfully added, false otherwise
+     */
+    public Boolean addDev(String devName, int portID) {
+        DeviceType type = deviceRegistry.get(devName);
+        if (type == null) {
+            // Let addDev report the invalid port or unknown type
+            return addDev(devName, portID, 0);
+        }
+
+        int devID = slotTable(type.getCategory()).firstFree();
+        if (devID < 0) {
+            System.err.println("No free device ID for " + type.getCategory().getPluralName() + ".");
+            return false;
+        }
+        if (!addDev(devName, portID, devID)) return false;
+        System.out.println("Assigned device ID: " + devID);
         return true;
     }
 
     /**
      * Adds a device to the system at a specified port with a specific device ID.
+     * The device model is looked up in the device registry, which provides its category,
+     * its compatible protocols and the factory creating it.
      * 
      * @param devName the name of the device to be added
      * @param portID the port ID where the device will be connected
@@ -120,66 +252,31 @@ public class HWSystem {
      */
     public Boolean addDev(String devName, int portID, int devID) {
         // Check if portID is within valid range
-        if (portID >= devices.size()) {
+        if (portID < 0 || portID >= devices.size()) {
             System.err.println("Invalid port ID.");
             return false;
         }
 
-        // Check if devID is within valid range for the respective list
-        switch (devName) {
-            case "DHT11":
-            case "BME280":
-            case "MPU6050":
-            case "GY951":
-                if (devID >= sensors.size()) {
-                    System.err.println("Invalid device ID for Sensor.");
-                    return false;
-                }
-                if (sensors.get(devID) != null) {
-                    System.err.println("Sensor ID " + devID + " is already occupied.");
-                    return false;
-                }
-                break;
-            case "LCD":
-            case "OLED":
-                if (devID >= displays.size()) {
-                    System.err.println("Invalid device ID for Display.");
-                    return false;
-                }
-                if (displays.get(devID) != null) {
-                    System.err.println("Display ID " + devID + " is already occupied.");
-                    return false;
-                }
-                break;
-            case "Bluetooth":
-            case "Wifi":
-                if (devID >= wirelessIOs.size()) {
-                    System.err.println("Invalid device ID for Wireless Adapters.");
-                    return false;
-                }
-                if (wirelessIOs.get(devID) != null) {
-                    System.err.println("Wireless IO ID " + devID + " is already occupied.");
-                    return false;
-                }
-                break;
-            case "PCA9685":
-            case "SparkFunMD":
-                if (devID >= motorDrivers.size()) {
-                    System.err.println("Invalid device ID for Motor Drivers.");
-                    return false;
-                }
-                if (motorDrivers.get(devID) != null) {
-                    System.err.println("Motor Driver ID " + devID + " is already occupied.");
-                    return false;
-                }
-                break;
-            default:
-                System.err.println("Unknown device type.");
-                return false;
+        DeviceType type = deviceRegistry.get(devName);
+        if (type == null) {
+            System.err.println("Unknown device type.");
+            return false;
         }
 
-        //if port is occupied
-        if (devices.get(portID) != null) {
+        // Check if devID is within valid range for the category
+        DeviceCategory category = type.getCategory();
+        DeviceSlotTable<?> table = slotTable(category);
+        if (devID < 0 || devID >= table.capacity()) {
+            System.err.println("Invalid device ID for " + category.getPluralName() + ".");
+            return false;
+        }
+        if (table.get(devID) != null) {
+            System.err.println(category.getSingularName() + " ID " + devID + " is already occupied.");
+            return false;
+        }
+
+        //if port is occupied, by a device of its own or by devices sharing its bus
+        if (devices.get(portID) != null || sharedDeviceCount(portID) > 0) {
             System.err.println("Port is already occupied.");
             return false;
         }
@@ -192,140 +289,714 @@ public class HWSystem {
             return false;
         }
 
-        switch (devName) {
-            case "DHT11":
-                if (!(protocol instanceof OneWire)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                sensors.set(devID, new DHT11(protocol));
-                devices.set(portID, sensors.get(devID));
-                break;
-            case "BME280":
-                if (!(protocol instanceof I2C || protocol instanceof SPI)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                sensors.set(devID, new BME280(protocol));
-                devices.set(portID, sensors.get(devID));
-                break;
-            case "MPU6050":
-                if (!(protocol instanceof I2C)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                sensors.set(devID, new MPU6050(protocol));
-                devices.set(portID, sensors.get(devID));
-                break;
-            case "GY951":
-                if (!(protocol instanceof SPI || protocol instanceof UART)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                sensors.set(devID, new GY_951(protocol));
-                devices.set(portID, sensors.get(devID));
-                break;
-            case "LCD":
-                if (!(protocol instanceof I2C)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                displays.set(devID, new LCD(protocol));
-                devices.set(portID, displays.get(devID));
-                break;
-            case "OLED":
-                if (!(protocol instanceof SPI)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                displays.set(devID, new OLED(protocol));
-                devices.set(portID, displays.get(devID));
-                break;
-            case "Bluetooth":
-                if (!(protocol instanceof UART)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                wirelessIOs.set(devID, new Bluetooth(protocol));
-                devices.set(portID, wirelessIOs.get(devID));
-                break;
-            case "Wifi":
-                if (!(protocol instanceof SPI || protocol instanceof UART)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                wirelessIOs.set(devID, new Wifi(protocol));
-                devices.set(portID, wirelessIOs.get(devID));
-                break;
-            case "PCA9685":
-                if (!(protocol instanceof I2C)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                motorDrivers.set(devID, new PCA9685(protocol));
-                devices.set(portID, motorDrivers.get(devID));
-                break;
-            case "SparkFunMD":
-                if (!(protocol instanceof SPI)) {
-                    System.err.println("Incompatible protocol.");
-                    return false;
-                }
-                motorDrivers.set(devID, new SparkFunMD(protocol));
-                devices.set(portID, motorDrivers.get(devID));
-                break;
-            default:
-                System.err.println("Unknown device type.");
-                return false;
+        if (!type.isCompatible(protocol)) {
+            System.err.println("Incompatible protocol.");
+            return false;
+        }
+
+        Device device = type.create(protocol);
+        if (device == null) {
+            System.err.println("Device type " + devName + " did not create a " + category.getSingularName() + ".");
+            return false;
         }
+        table.putDevice(devID, device);
+        devices.set(portID, device);
+        portIndex.bind(portID, category, devID);
         System.out.println("Device added.");
         return true;
     }
 
-    
+    
+    /**
+     * Removes the device from the specified port.
+     * 
+     * @param portID the port ID of the device to be removed
+     * @return true if the device is successfully removed, false otherwise
+     */
+    public Boolean rmDev(int portID) {
+        if (devices.get(portID) == null){
+            System.err.println("Port is already empty. Remove Device command can not be executed.");
+            return false;
+        }
+        if (devices.get(portID).getState() == State.ON){
+            System.err.println("Device is active. Remove Device command can not be executed.");
+            return false;
+        }
+
+        devices.set(portID, null); // Remove from the device list
+
+        // Free the device ID in the specific type table; other IDs are not affected
+        DeviceCategory category = portIndex.getCategory(portID);
+        int devID = portIndex.getDevID(portID);
+        slotTable(category).remove(devID);
+        portIndex.unbind(portID);
+        if (category == DeviceCategory.SENSOR) {
+            cancelPoll(devID);
+            sensorCache.disable(devID);
+            history.remove(devID);
+        }
+
+        System.out.println("Device removed.");
+        return true;
+    }
+
+    /**
+     * Attaches a device to the bus of a port at an address, assigning it a free device ID of its type.
+     * Several devices can share the bus of a port whose protocol has addressing, such as I2C.
+     * Their transfers are logged and timed on the bus of the port, one at a time.
+     * 
+     * @param devName the name of the device to be attached
+     * @param portID the port ID of the bus
+     * @param address the address of the device on the bus
+     * @return true if the device is successfully attached, false otherwise
+     */
+    public Boolean attachDev(String devName, int portID, long address) {
+        if (portID < 0 || portID >= devices.size()) {
+            System.err.println("Invalid port ID.");
+            return false;
+        }
+
+        DeviceType type = deviceRegistry.get(devName);
+        if (type == null) {
+            System.err.println("Unknown device type.");
+            return false;
+        }
+
+        if (devices.get(portID) != null) {
+            System.err.println("Port is already occupied.");
+            return false;
+        }
+
+        Protocol protocol = ports.get(portID);
+        if (!(protocol instanceof BaseProtocol)) {
+            System.err.println("Port " + portID + " can not be shared.");
+            return false;
+        }
+        BaseProtocol bus = (BaseProtocol) protocol;
+        if (!bus.isValidAddress(address)) {
+            System.err.println("Invalid " + bus.getProtocolName() + " address: " + bus.formatAddress(address));
+            return false;
+        }
+
+        if (!type.isCompatible(protocol)) {
+            System.err.println("Incompatible protocol.");
+            return false;
+        }
+
+        DeviceCategory category = type.getCategory();
+        DeviceSlotTable<?> table = slotTable(category);
+        int devID = table.firstFree();
+        if (devID < 0) {
+            System.err.println("No free device ID for " + category.getPluralName() + ".");
+            return false;
+        }
+
+        BusTarget target = bus.attach(address);
+        if (target == null) {
+            System.err.println("Address " + bus.formatAddress(address) + " is already in use.");
+            return false;
+        }
+
+        Device device = type.create(target);
+        if (device == null) {
+            bus.detach(address);
+            System.err.println("Device type " + devName + " did not create a " + category.getSingularName() + ".");
+            return false;
+        }
+        table.putDevice(devID, device);
+        attachedDevices.put(target, new AttachedDevice(device, category, devID));
+        portIndex.bindShared(portID, category, devID);
+        System.out.println("Device attached at " + target.formatAddress() + ".");
+        System.out.println("Assigned device ID: " + devID);
+        return true;
+    }
+
+    /**
+     * Detaches the device at an address from the bus of a port.
+     * 
+     * @param portID the port ID of the bus
+     * @param address the address of the device on the bus
+     * @return true if the device is successfully detached, false otherwise
+     */
+    public Boolean detachDev(int portID, long address) {
+        AttachedDevice attached = findAttached(portID, address);
+        if (attached == null) return false;
+        if (attached.device.getState() == State.ON){
+            System.err.println("Device is active. Detach Device command can not be executed.");
+            return false;
+        }
+
+        BusTarget target = attached.getTarget();
+        target.getPort().detach(address);
+        attachedDevices.remove(target);
+        slotTable(attached.category).remove(attached.devID);
+        portIndex.unbindShared(attached.category, attached.devID);
+        if (attached.category == DeviceCategory.SENSOR) {
+            cancelPoll(attached.devID);
+            sensorCache.disable(attached.devID);
+            history.remove(attached.devID);
+        }
+
+        System.out.println("Device detached.");
+        return true;
+    }
+
+    /**
+     * Begins or ends a burst of writes to the device attached at an address of the bus of a port.
+     * While the burst is open the writes of the device are queued, and ending it sends
+     * them in a single transfer, so the framing overhead of the bus is paid once.
+     * 
+     * @param portID the port ID of the bus
+     * @param address the address of the device on the bus
+     * @param begin true to begin a burst, false to end it
+     * @return true if the burst is successfully begun or ended, false otherwise
+     */
+    public Boolean burst(int portID, long address, boolean begin) {
+        AttachedDevice attached = findAttached(portID, address);
+        if (attached == null) return false;
+
+        BusTarget target = attached.getTarget();
+        if (begin) {
+            if (target.isBursting()) {
+                System.err.println("A burst is already open on " + target.formatAddress() + ".");
+                return false;
+            }
+            target.beginBurst();
+            System.out.println("Burst started on " + target.formatAddress() + ".");
+            return true;
+        }
+
+        int writes = target.endBurst();
+        if (writes < 0) {
+            System.err.println("No burst is open on " + target.formatAddress() + ".");
+            return false;
+        }
+        System.out.println("Burst ended on " + target.formatAddress() + ", " + writes + " writes sent.");
+        return true;
+    }
+
+    /**
+     * Enumerates the devices of a OneWire bus with the ROM search algorithm and prints
+     * their ROM codes in the order they were found.
+     * 
+     * @param portID the port ID of the bus
+     * @return true if the bus is successfully searched, false otherwise
+     */
+    public Boolean searchBus(int portID) {
+        OneWire bus = oneWireBus(portID);
+        if (bus == null) return false;
+
+        BusStats stats = bus.getBus().getStats();
+        long start = Math.max(bus.getBus().getClock().nanoTime(), stats.getFreeAt());
+        List<Long> codes = bus.search();
+        long elapsed = stats.getFreeAt() - start;
+        System.out.printf("search on port %d: %d devices in %.3f ms%n", portID, codes.size(), elapsed / 1e6);
+        for (long code : codes) {
+            AttachedDevice attached = attachedDevices.get(bus.getTarget(code));
+            System.out.println("  " + bus.formatAddress(code) + " " + attached.device.getName() + " " + attached.devID);
+        }
+        return true;
+    }
+
+    /**
+     * Samples every device of a OneWire bus with bulk cycles that convert all devices
+     * at once and then read each, and prints the achieved rate next to the rate of
+     * sampling the devices one at a time.
+     * 
+     * @param portID the port ID of the bus
+     * @param cycles the number of cycles to run
+     * @return true if the bus is successfully sampled, false otherwise
+     */
+    public Boolean sampleBus(int portID, int cycles) {
+        OneWire bus = oneWireBus(portID);
+        if (bus == null) return false;
+        if (cycles < 1) {
+            System.out.println("Usage: sample <portID> [cycles]");
+            return false;
+        }
+        int count = bus.getTargetCount();
+        if (count == 0) {
+            System.err.println("No devices on the OneWire bus of port " + portID + ".");
+            return false;
+        }
+
+        long nanos = 0;
+        for (int i = 0; i < cycles; i++) nanos += bus.sampleAll();
+        long single = bus.estimateSingleSampling() * cycles;
+        System.out.printf("Sampled %d devices on port %d in %d cycles: %.3f ms, %.2f samples/s "
+                + "(one at a time %.3f ms, %.2f samples/s)%n",
+                count, portID, cycles, nanos / 1e6, count * cycles * 1e9 / nanos,
+                single / 1e6, count * cycles * 1e9 / single);
+        return true;
+    }
+
+    /**
+     * Gets the OneWire bus of a port.
+     * Prints an error if the port is not a OneWire bus.
+     * 
+     * @param portID the port ID
+     * @return the bus, or null if there is none
+     */
+    private OneWire oneWireBus(int portID) {
+        if (portID < 0 || portID >= ports.size()) {
+            System.err.println("Invalid port ID.");
+            return null;
+        }
+        if (!(ports.get(portID) instanceof OneWire)) {
+            System.err.println("Port " + portID + " is not a OneWire bus.");
+            return null;
+        }
+        return (OneWire) ports.get(portID);
+    }
+
+    /**
+     * Sets the number of worker threads reading the polled sensors.
+     * Takes effect when the poll scheduler is created by the first "poll start".
+     * 
+     * @param workerCount the number of workers
+     */
+    public void setPollWorkers(int workerCount) {
+        this.pollWorkers = Math.max(1, workerCount);
+    }
+
+    /**
+     * Sets the number of raw readings kept in the history of each sensor.
+     * No history is kept until this is called with a positive number.
+     * Must be called before any sensor is read; the previous history is dropped.
+     * 
+     * @param rawPoints the number of raw readings, or 0 to keep no history
+     */
+    public void setHistoryPoints(int rawPoints) {
+        this.history = new TimeSeriesStore(sensors.capacity(), Math.max(0, rawPoints));
+    }
+
+    /**
+     * Starts reading a sensor periodically, replacing its previous polling rate if any.
+     * The reads run on the workers of the poll scheduler, not on the command thread.
+     * 
+     * @param devID the device ID of the sensor
+     * @param hz the number of reads per second, from 1 to {@link #MAX_POLL_HZ}
+     * @return true if the polling is successfully started, false otherwise
+     */
+    public Boolean startPolling(int devID, int hz) {
+        if (simulation != null) {
+            System.err.println("Polling runs in real time; use the every command in simulation mode.");
+            return false;
+        }
+        if (devID < 0 || devID >= sensors.capacity() || sensors.get(devID) == null) {
+            System.err.println("There is no device with devID: " + devID);
+            return false;
+        }
+        if (hz < 1 || hz > MAX_POLL_HZ) {
+            System.err.println("Polling rate must be between 1 and " + MAX_POLL_HZ + " Hz.");
+            return false;
+        }
+
+        if (pollScheduler == null) {
+            pollScheduler = new PollScheduler(pollWorkers, POLL_QUEUE_CAPACITY);
+            pollScheduler.start();
+        }
+        cancelPoll(devID);
+        String name = sensors.get(devID).getName() + " " + devID;
+        sensorPolls.put(devID, pollScheduler.schedule(name, 1_000_000_000L / hz, () -> pollSensor(devID)));
+        System.out.println("Polling sensor " + devID + " at " + hz + " Hz.");
+        return true;
+    }
+
+    /**
+     * Stops reading a sensor periodically.
+     * 
+     * @param devID the device ID of the sensor
+     * @return true if the polling is successfully stopped, false otherwise
+     */
+    public Boolean stopPolling(int devID) {
+        if (!cancelPoll(devID)) {
+            System.err.println("Sensor " + devID + " is not being polled.");
+            return false;
+        }
+        System.out.println("Stopped polling sensor " + devID + ".");
+        return true;
+    }
+
+    /**
+     * Prints the polls run and skipped and their jitter, for all polled sensors and for each.
+     */
+    public void printPollStats() {
+        List<PollTimer> timers = pollScheduler == null ? new ArrayList<>() : pollScheduler.getTimers();
+        long polls = 0;
+        long skipped = 0;
+        double jitter = 0;
+        long maxJitter = 0;
+        for (PollTimer timer : timers) {
+            polls += timer.getPolls();
+            skipped += timer.getSkipped();
+            jitter += timer.getAverageJitterNanos() * timer.getPolls();
+            maxJitter = Math.max(maxJitter, timer.getMaxJitterNanos());
+        }
+
+        System.out.printf("polling %d sensors on %d workers: %d polls, %d skipped, jitter avg %.3f ms max %.3f ms%n",
+                timers.size(), pollScheduler == null ? 0 : pollScheduler.getWorkerCount(), polls, skipped,
+                polls == 0 ? 0 : jitter / polls / 1e6, maxJitter / 1e6);
+        for (PollTimer timer : timers) {
+            System.out.printf("  %s at %.0f Hz: %d polls, %d skipped, jitter avg %.3f ms max %.3f ms%n",
+                    timer.getName(), 1e9 / timer.getPeriodNanos(), timer.getPolls(), timer.getSkipped(),
+                    timer.getAverageJitterNanos() / 1e6, timer.getMaxJitterNanos() / 1e6);
+        }
+    }
+
+    /**
+     * Stops the poll scheduler, waiting for the reads in progress.
+     * Called once the commands are done, before the port logs are written.
+     */
+    public void shutdownPolling() {
+        if (pollScheduler == null) return;
+        pollScheduler.stop();
+        pollScheduler = null;
+        sensorPolls.clear();
+    }
+
+    /**
+     * Cancels the polling of a sensor.
+     * 
+     * @param devID the device ID of the sensor
+     * @return true if the sensor was being polled, false otherwise
+     */
+    private boolean cancelPoll(int devID) {
+        PollTimer timer = sensorPolls.remove(devID);
+        if (timer == null) return false;
+        pollScheduler.cancel(timer);
+        return true;
+    }
+
+    /**
+     * Reads a polled sensor if it is on. Runs on a worker of the poll scheduler.
+     * 
+     * @param devID the device ID of the sensor
+     */
+    private void pollSensor(int devID) {
+        registryLock.readLock().lock();
+        try {
+            Sensor sensor = sensors.get(devID);
+            if (sensor == null || sensor.getState() != State.ON) return;
+            SensorSample sample = samples.get();
+            sensor.readSample(sample);
+            history.record(devID, sample);
+        } finally {
+            registryLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executes a "poll" command: "poll start <devID> <hz>", "poll stop <devID>",
+     * "poll stats" or "poll wait <ms>", which lets the polls run for a while.
+     * 
+     * @param tokenizer the tokenizer holding the command line
+     */
+    private void poll(CommandTokenizer tokenizer) {
+        int argCount = tokenizer.getTokenCount();
+        if (argCount >= 4 && tokenizer.tokenEquals(1, "start")) {
+            startPolling(tokenizer.parseInt(2), tokenizer.parseInt(3));
+        } else if (argCount >= 3 && tokenizer.tokenEquals(1, "stop")) {
+            stopPolling(tokenizer.parseInt(2));
+        } else if (argCount == 2 && tokenizer.tokenEquals(1, "stats")) {
+            printPollStats();
+        } else if (argCount == 3 && tokenizer.tokenEquals(1, "wait")) {
+            try {
+                Thread.sleep(tokenizer.parseInt(2));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            System.out.println("Usage: poll <start|stop> <devID> <hz> | poll stats | poll wait <ms>");
+        }
+    }
+
+    /**
+     * Enables caching of the readings of a sensor: a "readSensor" within the maximum age
+     * of the last reading prints it again without touching the bus.
+     * The cache is invalidated when the sensor is turned off, and dropped when it is removed.
+     * 
+     * @param devID the device ID of the sensor
+     * @param maxAgeMs the maximum age of a cached reading, in milliseconds
+     * @return true if caching is successfully enabled, false otherwise
+     */
+    public Boolean enableSensorCache(int devID, int maxAgeMs) {
+        if (devID < 0 || devID >= sensors.capacity() || sensors.get(devID) == null) {
+            System.err.println("There is no device with devID: " + devID);
+            return false;
+        }
+        if (maxAgeMs <= 0) {
+            System.err.println("The maximum age of a cached reading must be positive.");
+            return false;
+        }
+        sensorCache.enable(devID, maxAgeMs * 1_000_000L);
+        System.out.println("Caching readings of sensor " + devID + " for " + maxAgeMs + " ms.");
+        return true;
+    }
+
+    /**
+     * Disables caching of the readings of a sensor.
+     * 
+     * @param devID the device ID of the sensor
+     * @return true if caching is successfully disabled, false otherwise
+     */
+    public Boolean disableSensorCache(int devID) {
+        if (!sensorCache.disable(devID)) {
+            System.err.println("Readings of sensor " + devID + " are not cached.");
+            return false;
+        }
+        System.out.println("Stopped caching readings of sensor " + devID + ".");
+        return true;
+    }
+
+    /**
+     * Prints the hits, misses and expirations of the read cache, for all cached sensors and for each.
+     * A miss is a read that went to the bus; an expiration is a miss that found a reading too old to serve.
+     */
+    public void printCacheStats() {
+        int cached = 0;
+        long hits = 0;
+        long misses = 0;
+        long expirations = 0;
+        for (int devID = 0; devID < sensorCache.capacity(); devID++) {
+            SensorReadCache.Entry entry = sensorCache.get(devID);
+            if (entry == null) continue;
+            cached++;
+            hits += entry.getHits();
+            misses += entry.getMisses();
+            expirations += entry.getExpirations();
+        }
+
+        long reads = hits + misses;
+        System.out.printf("caching %d sensors: %d reads, %d hits, %d misses, %d expirations, hit rate %.1f%%%n",
+                cached, reads, hits, misses, expirations, reads == 0 ? 0 : 100.0 * hits / reads);
+        for (int devID = 0; devID < sensorCache.capacity(); devID++) {
+            SensorReadCache.Entry entry = sensorCache.get(devID);
+            if (entry == null) continue;
+            System.out.printf("  %s %d max age %.0f ms: %d hits, %d misses, %d expirations%n",
+                    sensors.get(devID).getName(), devID, entry.getMaxAgeNanos() / 1e6,
+                    entry.getHits(), entry.getMisses(), entry.getExpirations());
+        }
+    }
+
+    /**
+     * Executes a "cache" command: "cache <devID> <maxAgeMs>", "cache <devID> off" or "cache stats".
+     * 
+     * @param tokenizer the tokenizer holding the command line
+     */
+    private void cache(CommandTokenizer tokenizer) {
+        int argCount = tokenizer.getTokenCount();
+        if (argCount == 2 && tokenizer.tokenEquals(1, "stats")) {
+            printCacheStats();
+        } else if (argCount == 3 && tokenizer.tokenEquals(2, "off")) {
+            disableSensorCache(tokenizer.parseInt(1));
+        } else if (argCount == 3) {
+            enableSensorCache(tokenizer.parseInt(1), tokenizer.parseInt(2));
+        } else {
+            System.out.println("Usage: cache <devID> <maxAgeMs|off> | cache stats");
+        }
+    }
+
+    /**
+     * Prints the newest records of the log of a port, newest first, in the format of
+     * a port log file. The log must be stored with the indexed layout.
+     * 
+     * @param portID the port ID
+     * @param count the maximum number of records to print
+     * @return true if the log is successfully printed, false otherwise
+     */
+    public Boolean printLog(int portID, long count) {
+        if (portID < 0 || portID >= ports.size() || !(ports.get(portID) instanceof BaseProtocol)) {
+            System.err.println("Invalid port ID.");
+            return false;
+        }
+        if (count < 1) {
+            System.out.println("Usage: log <portID> [count]");
+            return false;
+        }
+        try {
+            if (!((BaseProtocol) ports.get(portID)).getLog().renderNewestFirst(System.out, count)) {
+                System.err.println("The log command needs the indexed log layout (--log-layout indexed).");
+                return false;
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading the log of port " + portID + ": " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prints the readings of a sensor recorded in a time range, from the finest tier of
+     * its history that still holds the whole range, or from a given tier.
+     * 
+     * @param devID the device ID of the sensor
+     * @param fromMs the start of the range, in milliseconds on the clock of the sensor
+     * @param toMs the end of the range, inclusive
+     * @param tierName "raw", "1s" or "1min", or null to choose the tier
+     * @return true if the history is successfully printed, false otherwise
+     */
+    public Boolean printHistory(int devID, long fromMs, long toMs, String tierName) {
+        if (devID < 0 || devID >= sensors.capacity() || sensors.get(devID) == null) {
+            System.err.println("There is no device with devID: " + devID);
+            return false;
+        }
+        if (tierName != null && !TimeSeries.isTierName(tierName)) {
+            System.err.println("Unknown history tier: " + tierName + ". Use raw, 1s or 1min.");
+            return false;
+        }
+        if (!history.isEnabled()) {
+            System.err.println("The history command needs recorded readings (--history-points <n>).");
+            return false;
+        }
+        TimeSeries series = history.get(devID);
+        if (series == null) {
+            System.err.println("Sensor " + devID + " has no recorded readings.");
+            return false;
+        }
+        System.out.print("history of " + sensors.get(devID).getName() + " " + devID
+                + " from " + fromMs + " ms to " + toMs + " ms, "
+                + series.formatRange(fromMs * 1_000_000L, toMs * 1_000_000L, tierName));
+        return true;
+    }
+
+    /**
+     * Prints the readings recorded in the histories, and for each tier the entries it
+     * holds, the memory of its columns and that memory scaled to a million entries.
+     */
+    public void printHistoryStats() {
+        if (!history.isEnabled()) {
+            System.err.println("The history command needs recorded readings (--history-points <n>).");
+            return;
+        }
+        int seriesCount = 0;
+        long recorded = 0;
+        long[] retained = new long[0];
+        long[] capacity = new long[0];
+        long[] bytes = new long[0];
+        String[] tierNames = new String[0];
+        for (int devID = 0; devID < history.capacity(); devID++) {
+            TimeSeries series = history.get(devID);
+            if (series == null) continue;
+            if (seriesCount++ == 0) {
+                int tiers = series.getTierCount();
+                retained = new long[tiers];
+                capacity = new long[tiers];
+                bytes = new long[tiers];
+                tierNames = new String[tiers];
+            }
+            recorded += series.getRecorded();
+            for (int tier = 0; tier < tierNames.length; tier++) {
+                tierNames[tier] = series.getTierName(tier);
+                retained[tier] += series.getRetained(tier);
+                capacity[tier] += series.getCapacity(tier);
+                bytes[tier] += series.getBytes(tier);
+            }
+        }
+
+        long totalBytes = 0;
+        for (long tierBytes : bytes) totalBytes += tierBytes;
+        System.out.printf("history of %d sensors: %d readings recorded, %.1f KB of columns%n",
+                seriesCount, recorded, totalBytes / 1024.0);
+        for (int tier = 0; tier < tierNames.length; tier++) {
+            System.out.printf("  %s: %d of %d entries, %.1f KB, %.1f MB per million entries%n",
+                    tierNames[tier], retained[tier], capacity[tier], bytes[tier] / 1024.0,
+                    (double) bytes[tier] / capacity[tier] * 1e6 / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Executes a "history" command: "history <devID> <fromMs> <toMs> [raw|1s|1min]" or "history stats".
+     * 
+     * @param tokenizer the tokenizer holding the command line
+     */
+    private void history(CommandTokenizer tokenizer) {
+        if (tokenizer.getTokenCount() == 2 && tokenizer.tokenEquals(1, "stats")) {
+            printHistoryStats();
+            return;
+        }
+        // The optional tier follows the end of the range in the last token
+        tokenizer.splitRest();
+        if (tokenizer.getTokenCount() < 4 || !tokenizer.isInt(1) || !tokenizer.isInt(2) || !tokenizer.isInt(3)) {
+            System.out.println("Usage: history <devID> <fromMs> <toMs> [raw|1s|1min] | history stats");
+            return;
+        }
+        printHistory(tokenizer.parseInt(1), tokenizer.parseInt(2), tokenizer.parseInt(3),
+                tokenizer.getTokenCount() > 4 ? tokenizer.tokenString(4) : null);
+    }
+
+    /**
+     * Parses an address of the bus of a port as written in a command.
+     * 
+     * @param portID the port ID of the bus
+     * @param text the address
+     * @return the address
+     * @throws NumberFormatException if the text is not an address
+     */
+    private long parseAddress(int portID, String text) {
+        if (portID >= 0 && portID < ports.size() && ports.get(portID) instanceof BaseProtocol) {
+            return ((BaseProtocol) ports.get(portID)).parseAddress(text);
+        }
+        return Long.decode(text);
+    }
+
+    /**
+     * Finds the device attached at an address of the bus of a port.
+     * Prints an error if there is no such device.
+     * 
+     * @param portID the port ID of the bus
+     * @param address the address of the device on the bus
+     * @return the attached device, or null if there is none
+     */
+    private AttachedDevice findAttached(int portID, long address) {
+        if (portID < 0 || portID >= ports.size()) {
+            System.err.println("Invalid port ID.");
+            return null;
+        }
+        Protocol port = ports.get(portID);
+        if (!(port instanceof BaseProtocol)) {
+            System.err.println("Port " + portID + " can not be shared.");
+            return null;
+        }
+        BaseProtocol bus = (BaseProtocol) port;
+        BusTarget target = bus.getTarget(address);
+        if (target == null) {
+            System.err.println("No device at address " + bus.formatAddress(address) + " of port " + portID + ".");
+            return null;
+        }
+        return attachedDevices.get(target);
+    }
+
     /**
-     * Removes the device from the specified port.
+     * Gets the number of devices sharing the bus of a port by address.
      * 
-     * @param portID the port ID of the device to be removed
-     * @return true if the device is successfully removed, false otherwise
+     * @param portID the port ID
+     * @return the number of attached devices
      */
-    public Boolean rmDev(int portID) {
-        if (devices.get(portID) == null){
-            System.err.println("Port is already empty. Remove Device command can not be executed.");
-            return false;
-        }
-        if (devices.get(portID).getState() == State.ON){
-            System.err.println("Device is active. Remove Device command can not be executed.");
-            return false;
-        }
-
-        //Store to remove instance later
-        Device device = devices.get(portID);
-        devices.set(portID, null); // Remove from the device list
-
-        // Remove from specific type lists
-        if (device instanceof Sensor) sensors.remove(device);
-        else if (device instanceof Display) displays.remove(device);
-        else if (device instanceof WirelessIO) wirelessIOs.remove(device);
-        else if (device instanceof MotorDriver) motorDrivers.remove(device);
-
-        System.out.println("Device removed.");
-        return true;
+    private int sharedDeviceCount(int portID) {
+        Protocol port = ports.get(portID);
+        return port instanceof BaseProtocol ? ((BaseProtocol) port).getTargetCount() : 0;
     }
 
     /**
      * Lists all the ports in the system, showing their protocol and occupancy status.
+     * A port shared by addressed devices is followed by one indented line per device.
      */
     public void listPorts() {
         System.out.println("list of ports:");
 
         for(int i = 0; i < ports.size(); i++){
             System.out.print(i + " " + ports.get(i).getProtocolName());
+            if(devices.get(i) == null && sharedDeviceCount(i) > 0){
+                listSharedPort((BaseProtocol) ports.get(i));
+                continue;
+            }
             if(devices.get(i) == null){
                 System.out.print(" empty");
             }else{
                 String devName = devices.get(i).getName();
                 String devType = devices.get(i).getDevType();
-                int devID = findDevID(devices.get(i));
+                int devID = portIndex.getDevID(i);
                 State devState = devices.get(i).getState();
                 System.out.print(" occupied " + devName + " " + devType + " " + devID + " " + devState);
             }
@@ -333,6 +1004,141 @@ public class HWSystem {
         }
     }
 
+    /**
+     * Prints the rest of the line of a port shared by addressed devices,
+     * followed by a line for each device.
+     * 
+     * @param bus the port of the bus
+     */
+    private void listSharedPort(BaseProtocol bus) {
+        List<BusTarget> targets = bus.getTargets();
+        System.out.println(" shared " + targets.size() + " devices");
+        for (BusTarget target : targets) {
+            AttachedDevice attached = attachedDevices.get(target);
+            Device device = attached.device;
+            System.out.println("  " + target.formatAddress() + " " + device.getName() + " " + device.getDevType()
+                    + " " + attached.devID + " " + device.getState());
+        }
+    }
+
+    /**
+     * Prints the bus statistics of all ports.
+     */
+    public void printStats() {
+        System.out.println("bus statistics:");
+        for(int i = 0; i < ports.size(); i++){
+            printPortStats(i);
+        }
+    }
+
+    /**
+     * Prints the bus statistics of a port: the transfers, the busy time, the utilization
+     * and the queueing delay of the transfers.
+     * 
+     * @param portID the port ID
+     */
+    public void printStats(int portID) {
+        printStats(portID, 0);
+    }
+
+    /**
+     * Prints the bus statistics of a port and how many devices polled at a given rate
+     * its bus can sustain, assuming one transfer of the average duration per poll.
+     * 
+     * @param portID the port ID
+     * @param pollHz the polling rate of a device, or 0 to skip the estimate
+     */
+    public void printStats(int portID, int pollHz) {
+        if (portID < 0 || portID >= ports.size()) {
+            System.err.println("Invalid port ID.");
+            return;
+        }
+        printPortStats(portID);
+        if (pollHz <= 0 || !(ports.get(portID) instanceof BaseProtocol)) return;
+
+        BusStats stats = ((BaseProtocol) ports.get(portID)).getBus().getStats();
+        if (stats.getTransfers() == 0) {
+            System.out.println("  no transfers to estimate the capacity of the bus");
+            return;
+        }
+        double transferNanos = (double) (stats.getBusyNanos() - stats.getHoldNanos()) / stats.getTransfers();
+        long sustained = (long) (1e9 / (transferNanos * pollHz));
+        System.out.printf("  sustains about %d devices polled at %d Hz (%.1f us per transfer)%n",
+                sustained, pollHz, transferNanos / 1e3);
+    }
+
+    /**
+     * Prints the bus statistics of a port, followed by the contention of each
+     * device sharing the bus.
+     * 
+     * @param portID the port ID
+     */
+    private void printPortStats(int portID) {
+        Protocol port = ports.get(portID);
+        if (!(port instanceof BaseProtocol)) {
+            System.out.println(portID + " " + port.getProtocolName() + " no timing model");
+            return;
+        }
+
+        BusModel bus = ((BaseProtocol) port).getBus();
+        BusStats stats = bus.getStats();
+        long overheadNanos = bus.getTiming().overheadNanos();
+        double overheadShare = stats.getBusyNanos() == 0 ? 0 : (double) overheadNanos * stats.getTransfers() / stats.getBusyNanos();
+        System.out.printf("%d %s (%s): %d transfers, %d bytes, busy %.3f ms, utilization %.1f%%, "
+                + "queueing delay avg %.3f ms max %.3f ms, overhead %.1f us per transfer (%.1f%% of busy)%n",
+                portID, port.getProtocolName(), bus.getTiming().describe(),
+                stats.getTransfers(), stats.getBytes(), stats.getBusyNanos() / 1e6,
+                stats.getUtilization(bus.getClock().nanoTime()) * 100,
+                stats.getAverageQueueNanos() / 1e6, stats.getMaxQueueNanos() / 1e6,
+                overheadNanos / 1e3, overheadShare * 100);
+        if (stats.getHolds() > 0) {
+            System.out.printf("  %d holds without data for %.3f ms of the busy time%n",
+                    stats.getHolds(), stats.getHoldNanos() / 1e6);
+        }
+
+        for (BusTarget target : ((BaseProtocol) port).getTargets()) {
+            System.out.printf("  %s %s: %d transfers, %d bytes, wait avg %.3f ms max %.3f ms, "
+                    + "%d arbitration losses, max queue depth %d",
+                    target.formatAddress(), attachedDevices.get(target).device.getName(),
+                    target.getTransfers(), target.getBytes(), target.getAverageWaitNanos() / 1e6,
+                    target.getMaxWaitNanos() / 1e6, target.getArbitrationLosses(), target.getMaxQueueDepth());
+            if (target.getBursts() > 0) {
+                // Every batched write but the first of its burst saved one transfer overhead
+                long saved = (target.getBurstWrites() - target.getBursts()) * overheadNanos;
+                System.out.printf(", %d writes in %d bursts saved %.3f ms", target.getBurstWrites(),
+                        target.getBursts(), saved / 1e6);
+            }
+            System.out.println();
+        }
+
+        if (port instanceof OneWire && ((OneWire) port).getSampleCycles() > 0) {
+            OneWire oneWire = (OneWire) port;
+            System.out.printf("  %d sampling cycles, %d samples, %.2f samples/s%n",
+                    oneWire.getSampleCycles(), oneWire.getSamples(), oneWire.getSamplesPerSecond());
+        }
+
+        if (port instanceof UART) {
+            UART uart = (UART) port;
+            printBufferStats("TX", uart.getTxBuffer());
+            printBufferStats("RX", uart.getRxBuffer());
+        }
+    }
+
+    /**
+     * Prints the statistics of a buffer of a serial port.
+     * 
+     * @param direction "TX" or "RX"
+     * @param buffer the buffer, or null if the port does not model it
+     */
+    private void printBufferStats(String direction, SerialBuffer buffer) {
+        if (buffer == null) return;
+        System.out.printf("  %s buffer %d bytes: high-water %d, %d overflows (%d bytes), "
+                + "%d blocked writes for %.3f ms, %d pending writes (%d held)%n",
+                direction, buffer.getCapacity(), buffer.getHighWater(), buffer.getOverflows(),
+                buffer.getOverflowBytes(), buffer.getBlockedWrites(), buffer.getBlockedNanos() / 1e6,
+                buffer.getPendingWrites(), buffer.getHeldWrites());
+    }
+
     /**
      * Lists all devices of a specific type in the system.
      * 
@@ -341,32 +1147,21 @@ public class HWSystem {
     public void listDevType(String devType) {
         System.out.println("list of " + devType + ":");
     
-        ArrayList<? extends Device> list;
-        switch (devType) {
-            case "Sensor":
-                list = sensors;
-                break;
-            case "Display":
-                list = displays;
-                break;
-            case "WirelessIO":
-                list = wirelessIOs;
-                break;
-            case "MotorDriver":
-                list = motorDrivers;
-                break;
-            default:
-                list = null;
+        DeviceCategory category = null;
+        for (DeviceCategory candidate : DeviceCategory.values()) {
+            if (candidate.getTypeName().equals(devType)) category = candidate;
         }
 
-        if (list == null) {
+        if (category == null) {
             System.err.println("Invalid device type to list or no device in this type to list.");
             return;
         }
     
-        for (int devID = 0; devID < list.size(); devID++) {
+        DeviceSlotTable<?> list = slotTable(category);
+        for (int devID = 0; devID < list.capacity(); devID++) {
             Device device = list.get(devID);
-            int portID = devices.indexOf(device); // Find portID dynamically
+            if (device == null) continue; // Free device ID
+            int portID = portIndex.getPort(category, devID);
             Protocol protocol = device.getProtocol();
     
             System.out.println(device.getName() + " " + devID + " " + portID + " " + protocol.getProtocolName());
@@ -375,13 +1170,15 @@ public class HWSystem {
     
     /**
      * Reads data from the sensor at the specified device ID.
+     * If caching is enabled for the sensor, a reading that is not older than the
+     * maximum age of the cache is printed again without reading the sensor.
      * 
      * @param devID the device ID of the sensor to read from
      * @return true if the sensor data is successfully read, false otherwise
      */
     public Boolean readSensor(int devID) {
-        if (sensors.size() <= devID){
-            System.err.println("Device number: " + devID + "is out of bounds. There is only " + sensors.size() + "in this type");
+        if (sensors.capacity() <= devID){
+            System.err.println("Device number: " + devID + "is out of bounds. There is only " + sensors.capacity() + "in this type");
             return false;
         }
         if (sensors.get(devID) == null) {
@@ -392,7 +1189,16 @@ public class HWSystem {
             System.err.println("Device is not active. Read Sensor command can not be executed.");
             return false;
         }
-        System.out.println(sensors.get(devID).data2String());
+        Sensor sensor = sensors.get(devID);
+        String cached = sensorCache.read(devID, sensor, history);
+        if (cached != null) {
+            System.out.println(cached);
+            return true;
+        }
+        SensorSample sample = samples.get();
+        sensor.readSample(sample);
+        history.record(devID, sample);
+        System.out.println(sensor.format(sample));
         return true;
     }
 
@@ -404,8 +1210,8 @@ public class HWSystem {
      * @return true if the data is successfully printed, false otherwise
      */
     public Boolean printDisplay(int devID, String data) {
-        if (displays.size() <= devID){
-            System.err.println("Device number: " + devID + "is out of bounds. There is only " + displays.size() + "in this type");
+        if (displays.capacity() <= devID){
+            System.err.println("Device number: " + devID + "is out of bounds. There is only " + displays.capacity() + "in this type");
             return false;
         }
         if (displays.get(devID) == null) {
@@ -415,7 +1221,7 @@ public class HWSystem {
         if (displays.get(devID).getState() == State.OFF){
             System.err.println("Device is not active. Print Display command can not be executed.");
         }
-        displays.get(devID).printData(data);;
+        displays.get(devID).printData(data);
         return true;
     }
 
@@ -426,8 +1232,8 @@ public class HWSystem {
      * @return true if data is successfully read from the wireless I/O device, false otherwise
      */
     public Boolean readWireless(int devID) {
-        if (wirelessIOs.size() <= devID){
-            System.err.println("Device number: " + devID + "is out of bounds. There is only " + wirelessIOs.size() + "in this type");
+        if (wirelessIOs.capacity() <= devID){
+            System.err.println("Device number: " + devID + "is out of bounds. There is only " + wirelessIOs.capacity() + "in this type");
             return false;
         }
         if (wirelessIOs.get(devID) == null) {
@@ -449,8 +1255,8 @@ public class HWSystem {
      * @return true if the data is successfully written, false otherwise
      */
     public Boolean writeWireless(int devID, String data) {
-        if (wirelessIOs.size() <= devID){
-            System.err.println("Device number: " + devID + "is out of bounds. There is only " + wirelessIOs.size() + "in this type");
+        if (wirelessIOs.capacity() <= devID){
+            System.err.println("Device number: " + devID + "is out of bounds. There is only " + wirelessIOs.capacity() + "in this type");
             return false;
         }
         if (wirelessIOs.get(devID) == null) {
@@ -473,8 +1279,8 @@ public class HWSystem {
      * @return true if the motor speed is successfully set, false otherwise
      */
     public Boolean setMotorSpeed(int devID, int speed) {
-        if (motorDrivers.size() < devID){
-            System.err.println("Device number: " + devID + "is out of bounds. There is only " + motorDrivers.size() + "in this type");
+        if (motorDrivers.capacity() < devID){
+            System.err.println("Device number: " + devID + "is out of bounds. There is only " + motorDrivers.capacity() + "in this type");
             return false;
         }
         if (motorDrivers.get(devID) == null) {
@@ -490,17 +1296,57 @@ public class HWSystem {
     }
 
     /**
-     * Finds the device ID of the specified device in the list of devices.
+     * Gets the device table of a category.
+     * 
+     * @param category the device category
+     * @return the table holding the devices of the category
+     */
+    private DeviceSlotTable<?> slotTable(DeviceCategory category) {
+        switch (category) {
+            case SENSOR:
+                return sensors;
+            case DISPLAY:
+                return displays;
+            case WIRELESS_IO:
+                return wirelessIOs;
+            default:
+                return motorDrivers;
+        }
+    }
+
+    /**
+     * Finds the port of the device that a devID-targeted command operates on.
      * 
-     * @param device the device whose ID is to be found
-     * @return the device ID if the device is found, otherwise -1
+     * @param opcode the opcode of the command, which selects the device type
+     * @param devID the device ID given to the command
+     * @return the port ID of the device, or -1 if there is no such device
      */
-    private int findDevID(Device device) {
-        if (device instanceof Sensor) return sensors.indexOf(device);
-        if (device instanceof Display) return displays.indexOf(device);
-        if (device instanceof WirelessIO) return wirelessIOs.indexOf(device);
-        if (device instanceof MotorDriver) return motorDrivers.indexOf(device);
-        return -1; // Should not happen
+    int findPort(Opcode opcode, int devID) {
+        DeviceCategory category;
+        switch (opcode) {
+            case READ_SENSOR:
+                category = DeviceCategory.SENSOR;
+                break;
+            case PRINT_DISPLAY:
+                category = DeviceCategory.DISPLAY;
+                break;
+            case READ_WIRELESS:
+            case WRITE_WIRELESS:
+                category = DeviceCategory.WIRELESS_IO;
+                break;
+            case SET_MOTOR_SPEED:
+                category = DeviceCategory.MOTOR_DRIVER;
+                break;
+            default:
+                return -1;
+        }
+
+        registryLock.readLock().lock();
+        try {
+            return portIndex.getPort(category, devID);
+        } finally {
+            registryLock.readLock().unlock();
+        }
     }
 
     /**
@@ -530,152 +1376,577 @@ public class HWSystem {
      * The command format is as follows:
      * - "exit": Terminates the command loop.
      * - "list <type>": Lists available ports or devices (e.g., "list ports", "list Sensor").
-     * - "turnON <portID>": Turns on the device connected to the specified port.
-     * - "turnOFF <portID>": Turns off the device connected to the specified port.
-     * - "addDev <devName> <portID> <devID>": Adds a new device with the specified name, port, and device ID.
+     * - "turnON <portID> [address]": Turns on the device connected to the specified port,
+     *   or the device attached at the address of its bus.
+     * - "turnOFF <portID> [address]": Turns off the device connected to the specified port,
+     *   or the device attached at the address of its bus.
+     * - "addDev <devName> <portID> [devID]": Adds a new device with the specified name, port, and device ID.
+     *   Without a device ID, a free device ID of the device type is assigned.
      * - "rmDev <portID>": Removes a device from the specified port.
      * - "readSensor <devID>": Reads the sensor data from the specified device.
      * - "printDisplay <devID> <data>": Prints the specified data to the specified display device.
      * - "readWireless <devID>": Reads data from the specified wireless I/O device.
      * - "writeWireless <devID> <data>": Writes data to the specified wireless I/O device.
      * - "setMotorSpeed <devID> <speed>": Sets the motor speed for the specified motor driver.
+     * - "stats [portID] [hz]": Prints the bus statistics of all ports or of the specified port,
+     *   and how many devices polled at hz the bus of the port sustains.
+     * - "every <periodMs> <count> <command>": In simulation mode, runs the command count times,
+     *   every periodMs milliseconds of simulated time.
+     * - "attach <devName> <portID> <address>": Attaches a new device at an address of the bus
+     *   of the specified port, which it shares with the other attached devices.
+     * - "detach <portID> <address>": Detaches the device at an address of the bus of the specified port.
+     * - "burst <portID> <address> <begin|end>": Starts queueing the writes of the device at an
+     *   address of the bus of the specified port, or sends the queued writes in one transfer.
+     * - "search <portID>": Enumerates the devices on the OneWire bus of the specified port.
+     * - "sample <portID> [cycles]": Samples every device on the OneWire bus of the specified port
+     *   with bulk conversions, cycles times, and prints the achieved rate.
+     * - "poll start <devID> <hz>": Reads the specified sensor hz times per second in the background.
+     * - "poll stop <devID>": Stops polling the specified sensor.
+     * - "poll stats": Prints the polls, skipped polls and jitter of the polled sensors.
+     * - "poll wait <ms>": Lets the polls run for the given number of milliseconds.
+     * - "cache <devID> <maxAgeMs|off>": Serves reads of the specified sensor from a cached reading
+     *   younger than maxAgeMs milliseconds, or stops caching them.
+     * - "cache stats": Prints the hits, misses and expirations of the cached sensors.
+     * - "history <devID> <fromMs> <toMs> [raw|1s|1min]": Prints the recorded readings of the
+     *   specified sensor in the time range, from the given tier or the finest one covering it.
+     * - "history stats": Prints the readings recorded in the histories and their memory.
+     * - "log <portID> [count]": Prints the records of the log of the specified port newest first,
+     *   all or the newest count of them, with the indexed log layout.
      * 
      * If an invalid command or insufficient arguments are provided, an error message is displayed.
      */
     public void exeCommands(){
         while(!commandList.isEmpty()){
-            String[] parts = commandList.pollFirst().split(" ", 4);
+            exeCommand(commandList.pollFirst());
+        }
+    }
+
+    /**
+     * Executes the commands stored in the commandList concurrently, one lane per group of ports.
+     * Each command that targets a single port (directly or through its devID) runs on the lane
+     * of that port, so commands on different ports run concurrently while commands on the same
+     * port keep their order. "addDev", "rmDev", "list", "exit" and commands that can not be
+     * mapped to a port wait for all lanes to finish and then run alone.
+     * 
+     * @param laneCount the number of lanes executing commands
+     */
+    public void exeCommandsParallel(int laneCount){
+        PortParallelExecutor executor = new PortParallelExecutor(this, ports.size(), laneCount);
+        try {
+            while(!commandList.isEmpty()){
+                executor.execute(commandList.pollFirst());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Executes the commands stored in the commandList as events of a discrete-event simulation.
+     * Commands run in simulated time: each one the given interval after the previous one, or at 
+     * the time given by an "@<ms>" prefix, e.g., "@1500 readSensor 0". Bus transfers are timed
+     * on the simulated clock, and "every" commands schedule periodic commands, so hours of
+     * activity are simulated as fast as the events can be processed. "exit" runs once no event 
+     * is left.
+     * 
+     * @param commandIntervalNanos the simulated time between commands without a time prefix, 
+     *                             in nanoseconds
+     * @return the report of the simulated time and the wall time taken
+     */
+    public SimulationReport simulate(long commandIntervalNanos){
+        Simulator simulator = new Simulator();
+        for(Protocol port : ports){
+            if (port instanceof BaseProtocol) ((BaseProtocol) port).getBus().setClock(simulator);
+        }
+        simulation = new CommandSimulation(this, simulator);
+
+        long time = -commandIntervalNanos;
+        String exit = null;
+        while(!commandList.isEmpty()){
+            String line = commandList.pollFirst();
+            if (line.equals("exit")) {
+                exit = line;
+                break;
+            }
+            long prefixTime = line.startsWith("@") ? parseTimePrefix(line) : -1;
+            if (prefixTime >= 0) {
+                int space = line.indexOf(' ');
+                time = prefixTime;
+                line = space < 0 ? "" : line.substring(space + 1);
+            } else {
+                // A malformed prefix is kept, so the line is reported as an invalid command in its turn
+                time += commandIntervalNanos;
+            }
+            simulation.scheduleCommand(Math.max(time, 0), line);
+        }
 
-            String command = parts[0];
-            switch (command) {
-                case "exit":
-                    System.out.println("Exitting ...");
+        long wallStart = System.nanoTime();
+        simulator.run();
+        long wallNanos = System.nanoTime() - wallStart;
+        if (exit != null) exeCommand(exit);
+
+        simulation = null;
+        return new SimulationReport(simulator.nanoTime(), wallNanos, simulator.getProcessedCount());
+    }
+
+    /**
+     * Parses the "@<ms>" time prefix of a simulated command line.
+     * 
+     * @param line the command line, starting with '@'
+     * @return the time of the command in nanoseconds, or -1 if the prefix is not a valid time
+     */
+    private static long parseTimePrefix(String line) {
+        int space = line.indexOf(' ');
+        try {
+            long millis = Long.parseLong(line.substring(1, space < 0 ? line.length() : space));
+            if (millis > Long.MAX_VALUE / 1_000_000L) return -1;
+            return Math.max(millis, 0) * 1_000_000L; // Times before the start run at the start
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads commands from the user input and executes them while the input is still being read.
+     * A reader thread feeds each line into a bounded queue, and the calling thread drains the
+     * queue and executes the commands in input order. Memory use is bounded by the queue capacity,
+     * and the first command runs as soon as it is read instead of after the whole input.
+     * 
+     * The method returns after the "exit" command is executed or the input ends.
+     * 
+     * @param queueCapacity the maximum number of read but not yet executed commands
+     */
+    public void streamCommands(int queueCapacity){
+        streamCommands(queueCapacity, 1);
+    }
+
+    /**
+     * Reads commands from the user input and executes them while the input is still being read,
+     * spreading the commands over per-port lanes as in {@link #exeCommandsParallel(int)}.
+     * 
+     * @param queueCapacity the maximum number of read but not yet executed commands
+     * @param laneCount the number of lanes; 1 executes every command on the calling thread
+     */
+    public void streamCommands(int queueCapacity, int laneCount){
+        BlockingQueue<String> queue = new ArrayBlockingQueue<>(queueCapacity);
+        PortParallelExecutor executor = laneCount > 1 ? new PortParallelExecutor(this, ports.size(), laneCount) : null;
+
+        Thread reader = new Thread(() -> readCommands(queue), "command-reader");
+        reader.setDaemon(true); // Must not keep the JVM alive if execution stops first
+        reader.start();
+
+        try {
+            while(true){
+                String command = queue.take();
+                if (command == END_OF_INPUT) break;
+                if (executor != null) executor.execute(command);
+                else exeCommand(command);
+                if (command.equals("exit")) break;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (executor != null) executor.shutdown();
+        }
+    }
+
+    /**
+     * Reads commands from the standard input into the given queue until the command "exit"
+     * or the end of the input. Blocks whenever the queue is full.
+     * 
+     * @param queue the queue shared with the executing thread
+     */
+    private void readCommands(BlockingQueue<String> queue){
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
+        try {
+            String line;
+            while((line = reader.readLine()) != null){
+                String input = line.trim();
+                queue.put(input);
+                if (input.equals("exit")) return;
+            }
+            queue.put(END_OF_INPUT);
+        } catch (IOException e) {
+            e.printStackTrace();
+            queue.offer(END_OF_INPUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Executes a single command line.
+     * See {@link #exeCommands()} for the supported command format.
+     * 
+     * @param line the command line to execute
+     */
+    public void exeCommand(String line){
+        exeCommand(line, tokenizer);
+    }
+
+    /**
+     * Executes a single command line using the given tokenizer.
+     * Commands hold the registry lock while they run: "addDev", "rmDev", "attach" and "detach" exclusively and
+     * all other commands shared, so that commands on different ports can run concurrently.
+     * 
+     * @param line the command line to execute
+     * @param tokenizer the tokenizer owned by the calling thread
+     */
+    void exeCommand(String line, CommandTokenizer tokenizer){
+        tokenizer.reset(line);
+        Opcode opcode = tokenizer.opcode();
+
+        boolean changesTopology = opcode == Opcode.ADD_DEV || opcode == Opcode.RM_DEV
+                || opcode == Opcode.ATTACH || opcode == Opcode.DETACH;
+        Lock lock = changesTopology ? registryLock.writeLock() : registryLock.readLock();
+        lock.lock();
+        try {
+            dispatch(opcode, tokenizer);
+        } catch (WriteRejectedException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Executes the tokenized command selected by the given opcode.
+     * 
+     * @param opcode the opcode of the command
+     * @param tokenizer the tokenizer holding the command line
+     */
+    private void dispatch(Opcode opcode, CommandTokenizer tokenizer){
+        int argCount = tokenizer.getTokenCount();
+
+        switch (opcode) {
+            case EXIT:
+                System.out.println("Exitting ...");
+                break;
+            case LIST:
+                if (argCount < 2) {
+                    System.out.println("Usage: list <ports|Sensor|Display|MotorDriver|WirelessIO>");
+                    return;
+                }
+
+                list(tokenizer.name(1, LIST_TYPES));
+                break;
+            case TURN_ON :
+                if (argCount < 2) {
+                    System.out.println("Usage: turnON <portID>");
+                    return;
+                }
+                if (argCount > 2) {
+                    int onPort = tokenizer.parseInt(1);
+                    turnOnDevice(onPort, parseAddress(onPort, tokenizer.tokenString(2)));
+                    break;
+                }
+                turnOnDevice(tokenizer.parseInt(1));
+                break;
+            case TURN_OFF :
+                if (argCount < 2) {
+                    System.out.println("Usage: tunrOFF <portID>");
+                    return;
+                }
+                if (argCount > 2) {
+                    int offPort = tokenizer.parseInt(1);
+                    turnOffDevice(offPort, parseAddress(offPort, tokenizer.tokenString(2)));
+                    break;
+                }
+                turnOffDevice(tokenizer.parseInt(1));
+                break;
+            case ADD_DEV :
+                if (argCount < 3) {
+                    System.out.println("Usage: addDev <devName> <portID> [devID]");
+                    return;
+                }
+                String devName = tokenizer.name(1, deviceNames);
+                int portID = tokenizer.parseInt(2);
+                if (argCount == 3) {
+                    addDev(devName, portID);
+                    break;
+                }
+                int devID = tokenizer.parseInt(3);
+                addDev(devName, portID, devID);
+                break;
+            case RM_DEV :
+                if (argCount < 2) {
+                    System.out.println("Usage: rnDev <portID>");
+                    return;
+                }
+                rmDev(tokenizer.parseInt(1));
+                break;
+            case READ_SENSOR :
+                if (argCount < 2) {
+                    System.out.println("Usage: readSensor <devID>");
+                    return;
+                }
+                readSensor(tokenizer.parseInt(1));
+                break;
+            case PRINT_DISPLAY :
+                if (argCount < 3) {
+                    System.out.println("Usage: printDisplay <devID> <data>");
+                    return;
+                }
+                int displayID = tokenizer.parseInt(1);
+                printDisplay(displayID, tokenizer.tokenString(2));
+                break;
+            case READ_WIRELESS :
+                if (argCount < 2) {
+                    System.out.println("Usage: readWireless <devID>");
+                    return;
+                }
+                readWireless(tokenizer.parseInt(1));
+                break;
+            case WRITE_WIRELESS :
+                if (argCount < 3) {
+                    System.out.println("Usage: writeWireless <devID> <data>");
+                    return;
+                }
+                int writeID = tokenizer.parseInt(1);
+                writeWireless(writeID, tokenizer.tokenString(2));
+                break;
+            case SET_MOTOR_SPEED :
+                if (argCount < 3) {
+                    System.out.println("Usage: setMotorSpeed <devID> <speed>");
+                    return;
+                }
+                int motorID = tokenizer.parseInt(1);
+                int speed = tokenizer.parseInt(2);
+                setMotorSpeed(motorID, speed);
+                break;
+            case EVERY :
+                if (argCount < 4) {
+                    System.out.println("Usage: every <periodMs> <count> <command>");
+                    return;
+                }
+                if (simulation == null) {
+                    System.err.println("The every command is only available in simulation mode.");
+                    return;
+                }
+                long periodMs = tokenizer.parseInt(1);
+                int count = tokenizer.parseInt(2);
+                simulation.every(periodMs * 1_000_000L, count, tokenizer.tokenString(3));
+                break;
+            case STATS :
+                if (argCount < 2) {
+                    printStats();
                     break;
-                case "list":
-                    if (parts.length < 2) {
-                        System.out.println("Usage: list <ports|Sensor|Display|MotorDriver|WirelessIO>");
-                        continue;
-                    }
-
-                    String listType = parts[1];
-                    switch (listType) {
-                        case "ports":
-                            listPorts();
-                            break;
-                    
-                        case "Sensor":
-                        case "Display":
-                        case "MotorDriver":
-                        case "WirelessIO":
-                            listDevType(listType);
-                            break;
-
-                        default:
-                            System.out.println("Invalid list type. Usage: list <ports|Sensor|Display|MotorDriver|WirelessIO>");
-                            break;
-                    }
+                }
+                if (argCount > 2) {
+                    printStats(tokenizer.parseInt(1), tokenizer.parseInt(2));
                     break;
-                case "turnON" :
-                    if (parts.length < 2) {
-                        System.out.println("Usage: turnON <portID>");
-                        continue;
-                    }
-                    int portOn = Integer.parseInt(parts[1]);
-                    turnOnDevice(portOn);
+                }
+                printStats(tokenizer.parseInt(1));
+                break;
+            case ATTACH :
+                if (argCount < 4) {
+                    System.out.println("Usage: attach <devName> <portID> <address>");
+                    return;
+                }
+                String attachName = tokenizer.name(1, deviceNames);
+                int busID = tokenizer.parseInt(2);
+                attachDev(attachName, busID, parseAddress(busID, tokenizer.tokenString(3)));
+                break;
+            case DETACH :
+                if (argCount < 3) {
+                    System.out.println("Usage: detach <portID> <address>");
+                    return;
+                }
+                int detachPort = tokenizer.parseInt(1);
+                detachDev(detachPort, parseAddress(detachPort, tokenizer.tokenString(2)));
+                break;
+            case POLL :
+                poll(tokenizer);
+                break;
+            case CACHE :
+                cache(tokenizer);
+                break;
+            case HISTORY :
+                history(tokenizer);
+                break;
+            case LOG :
+                if (argCount < 2) {
+                    System.out.println("Usage: log <portID> [count]");
+                    return;
+                }
+                printLog(tokenizer.parseInt(1), argCount > 2 ? tokenizer.parseInt(2) : Long.MAX_VALUE);
+                break;
+            case SEARCH :
+                if (argCount < 2) {
+                    System.out.println("Usage: search <portID>");
+                    return;
+                }
+                searchBus(tokenizer.parseInt(1));
+                break;
+            case SAMPLE :
+                if (argCount < 2) {
+                    System.out.println("Usage: sample <portID> [cycles]");
+                    return;
+                }
+                sampleBus(tokenizer.parseInt(1), argCount > 2 ? tokenizer.parseInt(2) : 1);
                 break;
-                case "turnOFF" :
-                    if (parts.length < 2) {
-                        System.out.println("Usage: tunrOFF <portID>");
-                        continue;
-                    }
-                    int portOff = Integer.parseInt(parts[1]);
-                    turnOffDevice(portOff);
+            case BURST :
+                if (argCount < 4 || !(tokenizer.tokenEquals(3, "begin") || tokenizer.tokenEquals(3, "end"))) {
+                    System.out.println("Usage: burst <portID> <address> <begin|end>");
+                    return;
+                }
+                int burstPort = tokenizer.parseInt(1);
+                burst(burstPort, parseAddress(burstPort, tokenizer.tokenString(2)), tokenizer.tokenEquals(3, "begin"));
+                break;
+            default:
+                System.err.println("Invalid command: " + tokenizer.tokenString(0));
+        }
+    }
+
+    /**
+     * Executes a compiled command script.
+     * The instructions are decoded directly into calls, without parsing any text.
+     * The output is the same as executing the text script the compiled script was created from.
+     * 
+     * @param script the compiled script to execute
+     * @see HWSystem.Commands.ScriptCompiler
+     */
+    public void replay(CompiledScript script){
+        CompiledScript.Cursor cursor = script.cursor();
+        while(cursor.hasNext()){
+            if (!replayNext(cursor)) return;
+        }
+    }
+
+    /**
+     * Executes the next instruction of a compiled command script.
+     * A write rejected by a port is reported and the script goes on.
+     * 
+     * @param cursor the cursor of the script, before the opcode of the instruction
+     * @return false if the instruction is "exit", true otherwise
+     */
+    private boolean replayNext(CompiledScript.Cursor cursor){
+        try {
+            switch (cursor.nextOpcode()) {
+                case EXIT:
+                    System.out.println("Exitting ...");
+                    return false;
+                case LIST:
+                    list(cursor.nextString());
+                    break;
+                case TURN_ON:
+                    turnOnDevice(cursor.nextInt());
                     break;
-                case "addDev" :
-                    if (parts.length < 4) {
-                        System.out.println("Usage: addDev <devName> <portID> <devID>");
-                        continue;
-                    }
-                    String devName = parts[1];
-                    int portID = Integer.parseInt(parts[2]);
-                    int devID = Integer.parseInt(parts[3]);
-                    addDev(devName, portID, devID);
+                case TURN_OFF:
+                    turnOffDevice(cursor.nextInt());
                     break;
-                case "rmDev" :
-                    if (parts.length < 2) {
-                        System.out.println("Usage: rnDev <portID>");
-                        continue;
-                    }
-                    int rmPort = Integer.parseInt(parts[1]);
-                    rmDev(rmPort);
+                case ADD_DEV:
+                    String devName = cursor.nextString();
+                    int portID = cursor.nextInt();
+                    addDev(devName, portID, cursor.nextInt());
                     break;
-                case "readSensor" :
-                    if (parts.length < 2) {
-                        System.out.println("Usage: readSensor <devID>");
-                        continue;
-                    }
-                    int sensorID = Integer.parseInt(parts[1]);
-                    readSensor(sensorID);
+                case RM_DEV:
+                    rmDev(cursor.nextInt());
                     break;
-                case "printDisplay" :
-                    if (parts.length < 3) {
-                        System.out.println("Usage: printDisplay <devID> <data>");
-                        continue;
-                    }
-                    int displayID = Integer.parseInt(parts[1]);
-                    String displayData = parts[2];
-                    printDisplay(displayID, displayData);
+                case READ_SENSOR:
+                    readSensor(cursor.nextInt());
                     break;
-                case "readWireless" :
-                    if (parts.length < 2) {
-                        System.out.println("Usage: readWireless <devID>");
-                        continue;
-                    }
-                    int wirelessID = Integer.parseInt(parts[1]);
-                    readWireless(wirelessID);
+                case PRINT_DISPLAY:
+                    int displayID = cursor.nextInt();
+                    printDisplay(displayID, cursor.nextString());
                     break;
-                case "writeWireless" :
-                    if (parts.length < 3) {
-                        System.out.println("Usage: writeWireless <devID> <data>");
-                        continue;
-                    }
-                    int writeID = Integer.parseInt(parts[1]);
-                    String writeData = parts[2];
-                    writeWireless(writeID, writeData);
+                case READ_WIRELESS:
+                    readWireless(cursor.nextInt());
                     break;
-                case "setMotorSpeed" :
-                    if (parts.length < 3) {
-                        System.out.println("Usage: setMotorSpeed <devID> <speed>");
-                        continue;
-                    }
-                    int motorID = Integer.parseInt(parts[1]);
-                    int speed = Integer.parseInt(parts[2]);
-                    setMotorSpeed(motorID, speed);
+                case WRITE_WIRELESS:
+                    int writeID = cursor.nextInt();
+                    writeWireless(writeID, cursor.nextString());
+                    break;
+                case SET_MOTOR_SPEED:
+                    int motorID = cursor.nextInt();
+                    setMotorSpeed(motorID, cursor.nextInt());
                     break;
                 default:
-                    System.err.println("Invalid command: " + command);
+                    // Commands kept as text by the compiler
+                    exeCommand(cursor.nextString());
             }
+        } catch (WriteRejectedException e) {
+            System.err.println(e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Executes the "list" command for the given list type.
+     * 
+     * @param listType "ports" or the type of devices to list
+     */
+    private void list(String listType){
+        switch (listType) {
+            case "ports":
+                listPorts();
+                break;
+        
+            case "Sensor":
+            case "Display":
+            case "MotorDriver":
+            case "WirelessIO":
+                listDevType(listType);
+                break;
+
+            default:
+                System.out.println("Invalid list type. Usage: list <ports|Sensor|Display|MotorDriver|WirelessIO>");
+                break;
         }
     }
 
     /**
      * Logs the current state of the ports to the specified directory.
      * For each port in the system, it calls the close method of the protocol 
-     * associated with the port to log its data to the directory.
+     * associated with the port to log its data to the directory. The ports are 
+     * closed in parallel, using one thread per available processor.
+     * 
+     * If the specified directory does not exist, it is created.
+     * 
+     * @param logDirectory the directory where the port logs will be stored
+     * @return the report of the written logs
+     */
+    public LogExportReport logPorts(String logDirectory){
+        return logPorts(logDirectory, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Logs the current state of the ports to the specified directory, closing
+     * the ports in parallel on a fork-join pool.
      * 
      * If the specified directory does not exist, it is created.
      * 
      * @param logDirectory the directory where the port logs will be stored
+     * @param parallelism the number of threads closing ports
+     * @return the report of the written logs
      */
-    public void logPorts(String logDirectory){
+    public LogExportReport logPorts(String logDirectory, int parallelism){
         File directory = new File(logDirectory);
 
         if(!directory.exists()){
             directory.mkdirs();
         }
 
-        for(int i = 0; i < ports.size(); i++){
-            ports.get(i).close(logDirectory);
+        long start = System.nanoTime();
+        AtomicInteger failures = new AtomicInteger();
+        long bytesWritten;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            bytesWritten = pool.invoke(new PortLogExportTask(ports, 0, ports.size(), logDirectory, failures));
+        } finally {
+            pool.shutdown();
         }
+        long elapsed = System.nanoTime() - start;
+
+        for (Protocol port : ports) {
+            if (!(port instanceof BaseProtocol)) continue;
+            long dropped = ((BaseProtocol) port).getDroppedLogCount();
+            if (dropped > 0) {
+                System.err.println("Warning: " + dropped + " log records of port " + ((BaseProtocol) port).getPortID()
+                        + " were dropped because its log was full.");
+            }
+        }
+
+        return new LogExportReport(ports.size() - failures.get(), failures.get(), bytesWritten, elapsed, parallelism);
     }
 }
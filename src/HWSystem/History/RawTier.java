@@ -0,0 +1,91 @@
+package HWSystem.History;
+
+/**
+ * The tier of a {@link TimeSeries} keeping the readings themselves:
+ * a time column and one value column per channel.
+ */
+class RawTier extends Tier {
+    // Indexed by channel, then by slot
+    private final double[][] values;
+
+    /**
+     * Constructs an empty raw tier.
+     * 
+     * @param channels the number of channels
+     * @param capacity the number of readings the tier retains
+     */
+    RawTier(int channels, int capacity) {
+        super("raw", 0, capacity);
+        this.values = new double[channels][capacity];
+    }
+
+    /**
+     * Appends a reading, replacing the oldest one if the tier is full.
+     * 
+     * @param time the time of the reading, in nanoseconds
+     * @param reading the value of each channel
+     */
+    void add(long time, double[] reading) {
+        int slot = push(time);
+        for (int channel = 0; channel < values.length; channel++) {
+            values[channel][slot] = reading[channel];
+        }
+    }
+
+    /**
+     * Gets the number of readings of an entry, which is always one.
+     * 
+     * @param index the position of the reading from the oldest one
+     * @return 1
+     */
+    @Override
+    int getCount(int index) {
+        return 1;
+    }
+
+    /**
+     * Gets the value of a channel in a reading.
+     * 
+     * @param channel the channel
+     * @param index the position of the reading from the oldest one
+     * @return the value
+     */
+    @Override
+    double getMin(int channel, int index) {
+        return values[channel][slot(index)];
+    }
+
+    /**
+     * Gets the value of a channel in a reading.
+     * 
+     * @param channel the channel
+     * @param index the position of the reading from the oldest one
+     * @return the value
+     */
+    @Override
+    double getMax(int channel, int index) {
+        return values[channel][slot(index)];
+    }
+
+    /**
+     * Gets the value of a channel in a reading.
+     * 
+     * @param channel the channel
+     * @param index the position of the reading from the oldest one
+     * @return the value
+     */
+    @Override
+    double getAverage(int channel, int index) {
+        return values[channel][slot(index)];
+    }
+
+    /**
+     * Gets the memory of the time and value columns.
+     * 
+     * @return the size of the columns, in bytes
+     */
+    @Override
+    long getBytes() {
+        return (long) getCapacity() * (Long.BYTES + values.length * Double.BYTES);
+    }
+}
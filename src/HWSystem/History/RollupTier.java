@@ -0,0 +1,157 @@
+package HWSystem.History;
+
+/**
+ * A tier of a {@link TimeSeries} summarizing the readings of fixed time buckets:
+ * a column of bucket starts, a column of reading counts, and min, max and sum columns
+ * per channel. The bucket of the newest reading stays open and is only stored when a
+ * reading falls into a later bucket; it can be queried as the newest entry meanwhile.
+ * Buckets without readings are not stored.
+ */
+class RollupTier extends Tier {
+    private final int[] counts;
+
+    // Indexed by channel, then by slot
+    private final double[][] mins;
+    private final double[][] maxs;
+    private final double[][] sums;
+
+    // The open bucket; openCount is 0 before the first reading
+    private long openStart;
+    private int openCount;
+    private final double[] openMin;
+    private final double[] openMax;
+    private final double[] openSum;
+
+    /**
+     * Constructs an empty rollup tier.
+     * 
+     * @param name the name of the tier, e.g., "1s"
+     * @param widthNanos the time covered by a bucket, in nanoseconds
+     * @param channels the number of channels
+     * @param capacity the number of buckets the tier retains
+     */
+    RollupTier(String name, long widthNanos, int channels, int capacity) {
+        super(name, widthNanos, capacity);
+        this.counts = new int[capacity];
+        this.mins = new double[channels][capacity];
+        this.maxs = new double[channels][capacity];
+        this.sums = new double[channels][capacity];
+        this.openMin = new double[channels];
+        this.openMax = new double[channels];
+        this.openSum = new double[channels];
+    }
+
+    /**
+     * Adds a reading to its bucket, storing the open bucket first if the reading is past it.
+     * 
+     * @param time the time of the reading, not before the time of the previous reading
+     * @param reading the value of each channel
+     */
+    void add(long time, double[] reading) {
+        long start = time - Math.floorMod(time, getWidthNanos());
+        if (openCount > 0 && start != openStart) {
+            int slot = push(openStart);
+            counts[slot] = openCount;
+            for (int channel = 0; channel < openSum.length; channel++) {
+                mins[channel][slot] = openMin[channel];
+                maxs[channel][slot] = openMax[channel];
+                sums[channel][slot] = openSum[channel];
+            }
+            openCount = 0;
+        }
+        if (openCount == 0) {
+            openStart = start;
+            for (int channel = 0; channel < openSum.length; channel++) {
+                openMin[channel] = reading[channel];
+                openMax[channel] = reading[channel];
+                openSum[channel] = reading[channel];
+            }
+        } else {
+            for (int channel = 0; channel < openSum.length; channel++) {
+                openMin[channel] = Math.min(openMin[channel], reading[channel]);
+                openMax[channel] = Math.max(openMax[channel], reading[channel]);
+                openSum[channel] += reading[channel];
+            }
+        }
+        openCount++;
+    }
+
+    /**
+     * Gets the number of buckets that can be queried, including the open one.
+     * 
+     * @return the bucket count
+     */
+    @Override
+    int getEntryCount() {
+        return storedCount() + (openCount > 0 ? 1 : 0);
+    }
+
+    /**
+     * Gets the start of a bucket.
+     * 
+     * @param index the position of the bucket from the oldest one
+     * @return the start, in nanoseconds
+     */
+    @Override
+    long getTime(int index) {
+        return index == storedCount() ? openStart : super.getTime(index);
+    }
+
+    /**
+     * Gets the number of readings in a bucket.
+     * 
+     * @param index the position of the bucket from the oldest one
+     * @return the reading count
+     */
+    @Override
+    int getCount(int index) {
+        return index == storedCount() ? openCount : counts[slot(index)];
+    }
+
+    /**
+     * Gets the smallest value of a channel in a bucket.
+     * 
+     * @param channel the channel
+     * @param index the position of the bucket from the oldest one
+     * @return the smallest value
+     */
+    @Override
+    double getMin(int channel, int index) {
+        return index == storedCount() ? openMin[channel] : mins[channel][slot(index)];
+    }
+
+    /**
+     * Gets the largest value of a channel in a bucket.
+     * 
+     * @param channel the channel
+     * @param index the position of the bucket from the oldest one
+     * @return the largest value
+     */
+    @Override
+    double getMax(int channel, int index) {
+        return index == storedCount() ? openMax[channel] : maxs[channel][slot(index)];
+    }
+
+    /**
+     * Gets the average value of a channel in a bucket.
+     * 
+     * @param channel the channel
+     * @param index the position of the bucket from the oldest one
+     * @return the average value
+     */
+    @Override
+    double getAverage(int channel, int index) {
+        double sum = index == storedCount() ? openSum[channel] : sums[channel][slot(index)];
+        return sum / getCount(index);
+    }
+
+    /**
+     * Gets the memory of the start, count, min, max and sum columns.
+     * 
+     * @return the size of the columns, in bytes
+     */
+    @Override
+    long getBytes() {
+        return (long) getCapacity() * (Long.BYTES + Integer.BYTES + 3 * sums.length * Double.BYTES);
+    }
+}
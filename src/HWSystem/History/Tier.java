@@ -0,0 +1,188 @@
+package HWSystem.History;
+
+/**
+ * One resolution of a {@link TimeSeries}: a ring of entries ordered by time, kept as
+ * primitive columns. The time column is shared by the subclasses; each adds the value
+ * columns of its channels. When the ring is full, a new entry replaces the oldest one,
+ * so the memory of a tier is fixed when it is created.
+ * Entries are addressed by their position from the oldest one.
+ */
+abstract class Tier {
+    private final String name;
+    private final long widthNanos;
+
+    // Time of each entry: the time of a raw point, or the start of a rollup bucket
+    protected final long[] times;
+    private int head;
+    private int size;
+    private long evicted;
+
+    /**
+     * Constructs an empty tier.
+     * 
+     * @param name the name of the tier, e.g., "1s"
+     * @param widthNanos the time covered by an entry, or 0 for raw points
+     * @param capacity the number of entries the tier retains
+     */
+    Tier(String name, long widthNanos, int capacity) {
+        this.name = name;
+        this.widthNanos = widthNanos;
+        this.times = new long[capacity];
+    }
+
+    /**
+     * Appends an entry, replacing the oldest one if the tier is full.
+     * 
+     * @param time the time of the entry, not before the time of the newest entry
+     * @return the slot of the entry in the columns
+     */
+    protected int push(long time) {
+        int slot;
+        if (size == times.length) {
+            slot = head;
+            head = (head + 1) % times.length;
+            evicted++;
+        } else {
+            slot = (head + size) % times.length;
+            size++;
+        }
+        times[slot] = time;
+        return slot;
+    }
+
+    /**
+     * Gets the slot in the columns of an entry.
+     * 
+     * @param index the position of the entry from the oldest one
+     * @return the slot
+     */
+    protected int slot(int index) {
+        return (head + index) % times.length;
+    }
+
+    /**
+     * Gets the number of entries in the ring.
+     * 
+     * @return the number of stored entries
+     */
+    protected int storedCount() {
+        return size;
+    }
+
+    /**
+     * Gets the number of entries that can be queried.
+     * 
+     * @return the entry count
+     */
+    int getEntryCount() {
+        return size;
+    }
+
+    /**
+     * Gets the time of an entry.
+     * 
+     * @param index the position of the entry from the oldest one
+     * @return the time, in nanoseconds
+     */
+    long getTime(int index) {
+        return times[slot(index)];
+    }
+
+    /**
+     * Finds the first entry not before a time.
+     * A rollup entry is found if its bucket ends after the time.
+     * 
+     * @param time the time, in nanoseconds
+     * @return the position of the entry, or the entry count if there is none
+     */
+    int lowerBound(long time) {
+        int low = 0;
+        int high = getEntryCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            long end = getTime(middle) + widthNanos;
+            if (widthNanos > 0 ? end <= time : end < time) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * Checks whether the tier still holds every entry from a time on.
+     * 
+     * @param time the time, in nanoseconds
+     * @return true if no entry after the time was replaced, false otherwise
+     */
+    boolean covers(long time) {
+        return evicted == 0 || (size > 0 && times[head] <= time);
+    }
+
+    /**
+     * Gets the number of readings summarized by an entry.
+     * 
+     * @param index the position of the entry from the oldest one
+     * @return the reading count
+     */
+    abstract int getCount(int index);
+
+    /**
+     * Gets the smallest value of a channel in an entry.
+     * 
+     * @param channel the channel
+     * @param index the position of the entry from the oldest one
+     * @return the smallest value
+     */
+    abstract double getMin(int channel, int index);
+
+    /**
+     * Gets the largest value of a channel in an entry.
+     * 
+     * @param channel the channel
+     * @param index the position of the entry from the oldest one
+     * @return the largest value
+     */
+    abstract double getMax(int channel, int index);
+
+    /**
+     * Gets the average value of a channel in an entry.
+     * 
+     * @param channel the channel
+     * @param index the position of the entry from the oldest one
+     * @return the average value
+     */
+    abstract double getAverage(int channel, int index);
+
+    /**
+     * Gets the memory of the columns of the tier.
+     * 
+     * @return the size of the columns, in bytes
+     */
+    abstract long getBytes();
+
+    /**
+     * Gets the name of the tier.
+     * 
+     * @return the name, e.g., "raw"
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the time covered by an entry.
+     * 
+     * @return the width, in nanoseconds, or 0 for raw points
+     */
+    long getWidthNanos() {
+        return widthNanos;
+    }
+
+    /**
+     * Gets the number of entries the tier retains.
+     * 
+     * @return the capacity
+     */
+    int getCapacity() {
+        return times.length;
+    }
+}
@@ -0,0 +1,216 @@
+package HWSystem.History;
+
+import HWSystem.Devices.Sensors.SensorSample;
+
+/**
+ * The history of the readings of one sensor, in three tiers: the raw readings,
+ * and rollups of their minimum, maximum and average per second and per minute.
+ * Each tier is a ring of primitive columns, so the memory of a series is fixed when
+ * it is created and recording a reading allocates nothing. The raw tier keeps the
+ * most recent readings, and the coarser tiers reach further back.
+ * The channels of the series are the quantities of its first reading; a quantity
+ * missing from a later reading is recorded as NaN.
+ */
+public class TimeSeries {
+    private static final long SECOND_NANOS = 1_000_000_000L;
+    private static final long MINUTE_NANOS = 60 * SECOND_NANOS;
+
+    private static final int[] QUANTITIES = {SensorSample.TEMPERATURE, SensorSample.HUMIDITY,
+            SensorSample.PRESSURE, SensorSample.ACCELERATION, SensorSample.ROTATION};
+    private static final String[] QUANTITY_NAMES = {"Temperature", "Humidity", "Pressure", "Acceleration", "Rotation"};
+
+    // Flag of the quantity of each channel
+    private final int[] channels;
+    private final RawTier raw;
+    private final Tier[] tiers;
+
+    // Reused by record(), which runs under the lock of the series
+    private final double[] reading;
+    private long recorded;
+    private long lastTime = Long.MIN_VALUE;
+
+    /**
+     * Constructs an empty series.
+     * 
+     * @param quantities the flags of the quantities recorded, e.g., {@code TEMPERATURE | HUMIDITY}
+     * @param rawPoints the number of raw readings retained
+     * @param secondBuckets the number of one-second rollups retained
+     * @param minuteBuckets the number of one-minute rollups retained
+     */
+    TimeSeries(int quantities, int rawPoints, int secondBuckets, int minuteBuckets) {
+        this.channels = new int[Integer.bitCount(quantities)];
+        int channel = 0;
+        for (int quantity : QUANTITIES) {
+            if ((quantities & quantity) != 0) channels[channel++] = quantity;
+        }
+        this.reading = new double[channels.length];
+        this.raw = new RawTier(channels.length, rawPoints);
+        this.tiers = new Tier[] {raw,
+                new RollupTier("1s", SECOND_NANOS, channels.length, secondBuckets),
+                new RollupTier("1min", MINUTE_NANOS, channels.length, minuteBuckets)};
+    }
+
+    /**
+     * Records a reading in every tier.
+     * A reading stamped before the previous one, e.g., by a concurrent poll, is recorded
+     * at the time of the previous one, so the tiers stay ordered by time.
+     * 
+     * @param sample the reading
+     */
+    synchronized void record(SensorSample sample) {
+        long time = Math.max(sample.getTimestamp(), lastTime);
+        lastTime = time;
+        for (int channel = 0; channel < channels.length; channel++) {
+            reading[channel] = sample.get(channels[channel]);
+        }
+        raw.add(time, reading);
+        for (int i = 1; i < tiers.length; i++) {
+            ((RollupTier) tiers[i]).add(time, reading);
+        }
+        recorded++;
+    }
+
+    /**
+     * Checks whether a tier name is the name of a tier of the series.
+     * 
+     * @param name the name, e.g., "1s"
+     * @return true if the name is "raw", "1s" or "1min", false otherwise
+     */
+    public static boolean isTierName(String name) {
+        return name.equals("raw") || name.equals("1s") || name.equals("1min");
+    }
+
+    /**
+     * Formats the entries of a tier in a time range, one line per entry after a line
+     * naming the tier. Raw readings are printed with their values, rollups with the
+     * number of readings and the minimum, average and maximum of each channel.
+     * 
+     * @param fromNanos the start of the range, in nanoseconds on the clock of the sensor
+     * @param toNanos the end of the range, inclusive
+     * @param tierName the name of the tier, or null for the finest tier still holding the whole range
+     * @return the formatted entries
+     */
+    public synchronized String formatRange(long fromNanos, long toNanos, String tierName) {
+        Tier tier = tierName == null ? finestTier(fromNanos) : tier(tierName);
+        int first = tier.lowerBound(fromNanos);
+        int last = first;
+        while (last < tier.getEntryCount() && tier.getTime(last) <= toNanos) last++;
+
+        StringBuilder text = new StringBuilder();
+        text.append(tier.getName()).append(": ").append(last - first).append(" entries").append(System.lineSeparator());
+        for (int i = first; i < last; i++) {
+            text.append(String.format("  %.3f ms", tier.getTime(i) / 1e6));
+            if (tier == raw) {
+                text.append(':');
+                for (int channel = 0; channel < channels.length; channel++) {
+                    text.append(channel == 0 ? " " : ", ").append(QUANTITY_NAMES[quantityIndex(channel)])
+                            .append(String.format(" %.2f", tier.getAverage(channel, i)));
+                }
+            } else {
+                text.append(", ").append(tier.getCount(i)).append(" readings:");
+                for (int channel = 0; channel < channels.length; channel++) {
+                    text.append(channel == 0 ? " " : ", ").append(QUANTITY_NAMES[quantityIndex(channel)])
+                            .append(String.format(" min %.2f avg %.2f max %.2f", tier.getMin(channel, i),
+                                    tier.getAverage(channel, i), tier.getMax(channel, i)));
+                }
+            }
+            text.append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Finds the finest tier that still holds every entry from a time on.
+     * 
+     * @param fromNanos the time, in nanoseconds
+     * @return the tier, or the coarsest tier if none holds the whole range
+     */
+    private Tier finestTier(long fromNanos) {
+        for (Tier tier : tiers) {
+            if (tier.covers(fromNanos)) return tier;
+        }
+        return tiers[tiers.length - 1];
+    }
+
+    /**
+     * Finds a tier by name.
+     * 
+     * @param name the name of the tier
+     * @return the tier
+     * @throws IllegalArgumentException if there is no tier of that name
+     */
+    private Tier tier(String name) {
+        for (Tier tier : tiers) {
+            if (tier.getName().equals(name)) return tier;
+        }
+        throw new IllegalArgumentException("Unknown history tier: " + name);
+    }
+
+    /**
+     * Gets the position of the quantity of a channel in QUANTITIES.
+     * 
+     * @param channel the channel
+     * @return the position of its quantity
+     */
+    private int quantityIndex(int channel) {
+        return Integer.numberOfTrailingZeros(channels[channel]);
+    }
+
+    /**
+     * Gets the number of readings recorded, including those no longer retained as raw readings.
+     * 
+     * @return the reading count
+     */
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    /**
+     * Gets the number of tiers of the series.
+     * 
+     * @return the tier count
+     */
+    public int getTierCount() {
+        return tiers.length;
+    }
+
+    /**
+     * Gets the name of a tier.
+     * 
+     * @param tier the position of the tier, from the finest
+     * @return the name, e.g., "raw"
+     */
+    public String getTierName(int tier) {
+        return tiers[tier].getName();
+    }
+
+    /**
+     * Gets the number of entries a tier holds.
+     * 
+     * @param tier the position of the tier, from the finest
+     * @return the entry count
+     */
+    public synchronized int getRetained(int tier) {
+        return tiers[tier].getEntryCount();
+    }
+
+    /**
+     * Gets the number of entries a tier can hold.
+     * 
+     * @param tier the position of the tier, from the finest
+     * @return the capacity
+     */
+    public int getCapacity(int tier) {
+        return tiers[tier].getCapacity();
+    }
+
+    /**
+     * Gets the memory of the columns of a tier.
+     * 
+     * @param tier the position of the tier, from the finest
+     * @return the size of the columns, in bytes
+     */
+    public long getBytes(int tier) {
+        return tiers[tier].getBytes();
+    }
+}
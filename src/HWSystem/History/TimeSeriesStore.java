@@ -0,0 +1,88 @@
+package HWSystem.History;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import HWSystem.Devices.Sensors.SensorSample;
+
+/**
+ * The histories of the sensors of a system, addressed by device ID.
+ * The series of a sensor is created with its first reading, with the channels of that
+ * reading, and keeps a fixed number of entries in each tier: the most recent raw
+ * readings, and one-second and one-minute rollups further back.
+ * Readings of different sensors are recorded concurrently; the readings of a sensor are
+ * serialized by its series.
+ */
+public class TimeSeriesStore {
+    /** Number of one-second rollups retained per sensor: 15 minutes. */
+    public static final int SECOND_BUCKETS = 900;
+
+    /** Number of one-minute rollups retained per sensor: 24 hours. */
+    public static final int MINUTE_BUCKETS = 1440;
+
+    private final AtomicReferenceArray<TimeSeries> series;
+    private final int rawPoints;
+
+    /**
+     * Constructs an empty store.
+     * 
+     * @param capacity the number of sensor device IDs
+     * @param rawPoints the number of raw readings retained per sensor, or 0 to record nothing
+     */
+    public TimeSeriesStore(int capacity, int rawPoints) {
+        this.series = new AtomicReferenceArray<>(capacity);
+        this.rawPoints = rawPoints;
+    }
+
+    /**
+     * Records a reading of a sensor, creating its series with its first reading.
+     * 
+     * @param devID the device ID of the sensor
+     * @param sample the reading
+     */
+    public void record(int devID, SensorSample sample) {
+        if (rawPoints == 0) return;
+        TimeSeries history = series.get(devID);
+        if (history == null) {
+            history = new TimeSeries(sample.getQuantities(), rawPoints, SECOND_BUCKETS, MINUTE_BUCKETS);
+            if (!series.compareAndSet(devID, null, history)) history = series.get(devID);
+        }
+        history.record(sample);
+    }
+
+    /**
+     * Gets the series of a sensor.
+     * 
+     * @param devID the device ID of the sensor
+     * @return the series, or null if the sensor has no recorded reading
+     */
+    public TimeSeries get(int devID) {
+        return series.get(devID);
+    }
+
+    /**
+     * Drops the series of a sensor, whose device ID may be reused by another sensor.
+     * 
+     * @param devID the device ID of the sensor
+     */
+    public void remove(int devID) {
+        series.set(devID, null);
+    }
+
+    /**
+     * Checks whether readings are recorded.
+     * 
+     * @return true if the store retains raw readings, false otherwise
+     */
+    public boolean isEnabled() {
+        return rawPoints > 0;
+    }
+
+    /**
+     * Gets the number of sensor device IDs of the store.
+     * 
+     * @return the capacity
+     */
+    public int capacity() {
+        return series.length();
+    }
+}
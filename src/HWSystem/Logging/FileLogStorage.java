@@ -0,0 +1,47 @@
+package HWSystem.Logging;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Log storage writing each port log to a single {@code <name>.log} file.
+ */
+class FileLogStorage implements LogStorage {
+    /**
+     * Gets the path of the log file of a port.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the path of {@code <name>.log}
+     */
+    public Path locate(Path directory, String name) {
+        return directory.resolve(name + ".log");
+    }
+
+    /**
+     * Opens the log file of a port for writing.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the stream writing the file
+     * @throws IOException if the file cannot be created
+     */
+    public OutputStream open(Path directory, String name) throws IOException {
+        return new FileOutputStream(locate(directory, name).toFile());
+    }
+
+    /**
+     * Gets the size of the log file of a port.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the size of the file in bytes
+     * @throws IOException if the file cannot be accessed
+     */
+    public long sizeOf(Path directory, String name) throws IOException {
+        return Files.size(locate(directory, name));
+    }
+}
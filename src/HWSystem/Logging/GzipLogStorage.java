@@ -0,0 +1,51 @@
+package HWSystem.Logging;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log storage writing each port log to a single GZIP-compressed {@code <name>.log.gz} file.
+ * Port logs repeat a handful of lines, so they compress well and far fewer bytes reach the disk.
+ */
+public class GzipLogStorage implements LogStorage {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Gets the path of the compressed log file of a port.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the path of {@code <name>.log.gz}
+     */
+    public Path locate(Path directory, String name) {
+        return directory.resolve(name + ".log.gz");
+    }
+
+    /**
+     * Opens the compressed log file of a port for writing.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the stream compressing into the file
+     * @throws IOException if the file cannot be created
+     */
+    public OutputStream open(Path directory, String name) throws IOException {
+        return new GZIPOutputStream(new FileOutputStream(locate(directory, name).toFile()), BUFFER_SIZE);
+    }
+
+    /**
+     * Gets the compressed size of the log file of a port.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the size of the file in bytes
+     * @throws IOException if the file cannot be accessed
+     */
+    public long sizeOf(Path directory, String name) throws IOException {
+        return Files.size(locate(directory, name));
+    }
+}
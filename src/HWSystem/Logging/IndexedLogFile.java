@@ -0,0 +1,134 @@
+package HWSystem.Logging;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * A port log stored as structured records appended in the order they happened.
+ * Nothing has to be kept in memory or reversed: the file is read back newest first
+ * by {@link IndexedLogReader}, using an offset index written when the log is finished.
+ * 
+ * <p>The file {@code <name>.hlog} consists of:</p>
+ * <ul>
+ *     <li>a header: the magic number "HWLG" and the format version</li>
+ *     <li>the records, oldest first: sequence number (long), operation (byte),
+ *         payload length (int, -1 for none) and payload in UTF-8</li>
+ *     <li>the index: the offset of every {@code indexInterval}-th record (long each)</li>
+ *     <li>a fixed-size trailer: index offset (long), record count (long),
+ *         index interval (int) and the magic number "HWLT"</li>
+ * </ul>
+ */
+class IndexedLogFile implements PortLogFile {
+    static final String EXTENSION = ".hlog";
+    static final int MAGIC = 0x48574C47; // "HWLG"
+    static final int TRAILER_MAGIC = 0x48574C54; // "HWLT"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int TRAILER_SIZE = 24;
+    static final int INDEX_INTERVAL = 1024;
+
+    private final Path path;
+    private final String name;
+    private final DataOutputStream out;
+
+    private long offset = HEADER_SIZE;
+    private long recordCount;
+    private long[] index = new long[16];
+    private int indexSize;
+
+    /**
+     * Creates the record file of a port log.
+     * 
+     * @param directory the directory of the file
+     * @param name the name of the log without extension
+     * @throws IOException if the file cannot be created
+     */
+    IndexedLogFile(Path directory, String name) throws IOException {
+        this.path = directory.resolve(name + EXTENSION);
+        this.name = name;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path.toFile())));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    /**
+     * Appends records to the file, indexing every {@value #INDEX_INTERVAL}-th one.
+     * 
+     * @param records the records, oldest first
+     * @throws IOException if writing fails
+     */
+    public void write(LogBatch<Object> records) throws IOException {
+        for (int i = 0; i < records.size(); i++) {
+            if (recordCount % INDEX_INTERVAL == 0) {
+                if (indexSize == index.length) index = Arrays.copyOf(index, indexSize * 2);
+                index[indexSize++] = offset;
+            }
+
+            out.writeLong(records.getSequence(i));
+            out.writeByte(records.getOperation(i).ordinal());
+            Object payload = records.getPayload(i);
+            if (payload == null) {
+                out.writeInt(-1);
+                offset += 13;
+            } else {
+                byte[] bytes = payload instanceof byte[] ? (byte[]) payload
+                        : payload.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                offset += 13 + bytes.length;
+            }
+            recordCount++;
+        }
+    }
+
+    /**
+     * Pushes the buffered records to the file.
+     * 
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Opens a reader of the records written so far, while the file is still being appended.
+     * The reader uses the index held in memory, since the index and trailer are only
+     * written when the file is finished.
+     * 
+     * @return the reader
+     * @throws IOException if the file cannot be read
+     */
+    IndexedLogReader openReader() throws IOException {
+        out.flush();
+        return new IndexedLogReader(path, Arrays.copyOf(index, indexSize), recordCount, offset, INDEX_INTERVAL);
+    }
+
+    /**
+     * Writes the index and the trailer, closes the file and moves it to the log directory.
+     * 
+     * @param logDirectory the directory where the finished log must be
+     * @return the size of the finished file in bytes
+     * @throws IOException if writing the file fails
+     */
+    public long finish(Path logDirectory) throws IOException {
+        for (int i = 0; i < indexSize; i++) out.writeLong(index[i]);
+        out.writeLong(offset);
+        out.writeLong(recordCount);
+        out.writeInt(INDEX_INTERVAL);
+        out.writeInt(TRAILER_MAGIC);
+        out.close();
+
+        Path target = logDirectory.resolve(name + EXTENSION);
+        if (!Files.isSameFile(path.getParent(), logDirectory)) {
+            Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return Files.size(target);
+    }
+}
@@ -0,0 +1,238 @@
+package HWSystem.Logging;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reader of a port log stored by {@link IndexedLogFile}.
+ * The records are read in blocks located through the offset index, so a log of any size
+ * can be streamed newest first while only one block is held in memory.
+ */
+public class IndexedLogReader implements Closeable {
+    private final FileChannel channel;
+    private final long indexOffset;
+    private final long recordCount;
+    private final int indexInterval;
+    private final long[] index;
+
+    private ByteBuffer block = ByteBuffer.allocate(1 << 16);
+
+    /**
+     * Opens a record file and reads its index.
+     * 
+     * @param path the path of the {@code .hlog} file
+     * @throws IOException if the file cannot be read or is not a complete record file
+     */
+    public IndexedLogReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < IndexedLogFile.HEADER_SIZE + IndexedLogFile.TRAILER_SIZE) {
+                throw new IOException("Not a complete log record file: " + path);
+            }
+
+            ByteBuffer header = readFully(0, IndexedLogFile.HEADER_SIZE);
+            if (header.getInt() != IndexedLogFile.MAGIC) throw new IOException("Not a log record file: " + path);
+            int version = header.getInt();
+            if (version != IndexedLogFile.VERSION) throw new IOException("Unsupported log record version " + version);
+
+            ByteBuffer trailer = readFully(size - IndexedLogFile.TRAILER_SIZE, IndexedLogFile.TRAILER_SIZE);
+            this.indexOffset = trailer.getLong();
+            this.recordCount = trailer.getLong();
+            this.indexInterval = trailer.getInt();
+            if (trailer.getInt() != IndexedLogFile.TRAILER_MAGIC) {
+                throw new IOException("Log record file was not closed: " + path);
+            }
+
+            int blocks = (int) ((recordCount + indexInterval - 1) / indexInterval);
+            ByteBuffer entries = readFully(indexOffset, blocks * 8);
+            this.index = new long[blocks];
+            for (int i = 0; i < blocks; i++) index[i] = entries.getLong();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a record file that is still being written, with the index of its writer.
+     * 
+     * @param path the path of the {@code .hlog} file
+     * @param index the offset of the first record of each block
+     * @param recordCount the number of records written
+     * @param endOffset the offset after the last record written
+     * @param indexInterval the number of records per block
+     * @throws IOException if the file cannot be opened
+     */
+    IndexedLogReader(Path path, long[] index, long recordCount, long endOffset, int indexInterval) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.index = index;
+        this.recordCount = recordCount;
+        this.indexOffset = endOffset;
+        this.indexInterval = indexInterval;
+    }
+
+    /**
+     * Gets the number of records in the log.
+     * 
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the number of blocks the records are read in.
+     * 
+     * @return the block count
+     */
+    public int getBlockCount() {
+        return index.length;
+    }
+
+    /**
+     * Gets the number of records in every block but the last.
+     * 
+     * @return the index interval
+     */
+    public int getBlockSize() {
+        return indexInterval;
+    }
+
+    /**
+     * Reads the records of a block, oldest first, into a batch.
+     * 
+     * @param blockIndex the index of the block, from 0 to {@link #getBlockCount()} - 1
+     * @param batch the batch receiving the records
+     * @return the number of records read
+     * @throws IOException if the file cannot be read
+     */
+    public int readBlock(int blockIndex, LogBatch<String> batch) throws IOException {
+        long start = index[blockIndex];
+        long end = blockIndex + 1 < index.length ? index[blockIndex + 1] : indexOffset;
+        int length = (int) (end - start);
+        if (block.capacity() < length) block = ByteBuffer.allocate(length);
+
+        block.clear().limit(length);
+        while (block.hasRemaining()) {
+            if (channel.read(block, start + block.position()) < 0) throw new IOException("Truncated log record file");
+        }
+        block.flip();
+
+        int count = 0;
+        while (block.hasRemaining()) {
+            long sequence = block.getLong();
+            byte operation = block.get();
+            int payloadLength = block.getInt();
+            String payload = null;
+            if (payloadLength >= 0) {
+                payload = new String(block.array(), block.position(), payloadLength, StandardCharsets.UTF_8);
+                block.position(block.position() + payloadLength);
+            }
+            batch.add(sequence, operation, payload);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the log newest first, followed by "Port Opened.", in the format of a port log file.
+     * 
+     * @param out where the log is written
+     * @throws IOException if the file cannot be read or writing fails
+     */
+    public void renderNewestFirst(Appendable out) throws IOException {
+        renderNewestFirst(out, recordCount);
+    }
+
+    /**
+     * Writes the newest records of the log, newest first. "Port Opened." follows
+     * only if all records were written.
+     * 
+     * @param out where the records are written
+     * @param limit the maximum number of records to write
+     * @throws IOException if the file cannot be read or writing fails
+     */
+    public void renderNewestFirst(Appendable out, long limit) throws IOException {
+        LogBatch<String> batch = new LogBatch<>(indexInterval);
+        StringBuilder text = new StringBuilder();
+        long remaining = limit;
+        for (int b = index.length - 1; b >= 0 && remaining > 0; b--) {
+            readBlock(b, batch);
+            for (int i = batch.size() - 1; i >= 0 && remaining > 0; i--, remaining--) {
+                text.setLength(0);
+                batch.render(i, text);
+                text.append('\n');
+                out.append(text);
+            }
+            batch.clear();
+        }
+        if (limit >= recordCount) out.append(PortLog.OPENED_LINE).append('\n');
+    }
+
+    /**
+     * Finds the records of the log matching a query, newest first.
+     * Blocks that are too new for the sequence range of the query are not read, and
+     * reading stops at the first record older than the range. Sequence numbers of a
+     * record file count every record appended to the port, including dropped ones.
+     * 
+     * @param query the query
+     * @param results the batch receiving the matching records
+     * @return the number of blocks read
+     * @throws IOException if the file cannot be read
+     */
+    public int query(LogQuery query, LogBatch<String> results) throws IOException {
+        LogBatch<String> batch = new LogBatch<>(indexInterval);
+        int blocksRead = 0;
+        for (int b = index.length - 1; b >= 0 && results.size() < query.getLimit(); b--) {
+            // Sequence numbers only skip ahead, so a block never starts below its record position
+            if ((long) b * indexInterval > query.getToSequence()) continue;
+
+            readBlock(b, batch);
+            blocksRead++;
+            for (int i = batch.size() - 1; i >= 0 && results.size() < query.getLimit(); i--) {
+                long sequence = batch.getSequence(i);
+                if (sequence < query.getFromSequence()) {
+                    batch.clear();
+                    return blocksRead;
+                }
+                if (query.matches(sequence, batch.getOperation(i), batch.getPayload(i))) {
+                    results.add(sequence, (byte) batch.getOperation(i).ordinal(), batch.getPayload(i));
+                }
+            }
+            batch.clear();
+        }
+        return blocksRead;
+    }
+
+    /**
+     * Closes the file.
+     * 
+     * @throws IOException if closing fails
+     */
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads a range of the file.
+     * 
+     * @param position the offset of the range
+     * @param length the length of the range
+     * @return a buffer holding the range, ready to be read
+     * @throws IOException if the range cannot be read
+     */
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Truncated log record file");
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
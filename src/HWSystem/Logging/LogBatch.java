@@ -0,0 +1,108 @@
+package HWSystem.Logging;
+
+import java.util.Arrays;
+
+/**
+ * Reusable buffer of log records drained from a {@link RingLog}.
+ * Records are stored in parallel arrays of sequence numbers, operations and payloads,
+ * oldest first, so draining and rendering a log does not create an object per record.
+ * 
+ * @param <E> the type of the record payloads
+ */
+public class LogBatch<E> {
+    private long[] sequences;
+    private byte[] operations;
+    private Object[] payloads;
+    private int size;
+
+    /**
+     * Constructs an empty batch.
+     * 
+     * @param initialCapacity the number of records the batch holds before growing
+     */
+    public LogBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.sequences = new long[capacity];
+        this.operations = new byte[capacity];
+        this.payloads = new Object[capacity];
+    }
+
+    /**
+     * Appends a record.
+     * 
+     * @param sequence the sequence number of the record
+     * @param operation the operation of the record
+     * @param payload the payload of the record
+     */
+    void add(long sequence, byte operation, E payload) {
+        if (size == sequences.length) {
+            int capacity = size * 2;
+            sequences = Arrays.copyOf(sequences, capacity);
+            operations = Arrays.copyOf(operations, capacity);
+            payloads = Arrays.copyOf(payloads, capacity);
+        }
+        sequences[size] = sequence;
+        operations[size] = operation;
+        payloads[size] = payload;
+        size++;
+    }
+
+    /**
+     * Gets the number of records in the batch.
+     * 
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the sequence number of a record.
+     * Sequence numbers count all records appended to the log, starting at 0.
+     * 
+     * @param index the index of the record in the batch
+     * @return the sequence number
+     */
+    public long getSequence(int index) {
+        return sequences[index];
+    }
+
+    /**
+     * Gets the operation of a record.
+     * 
+     * @param index the index of the record in the batch
+     * @return the operation
+     */
+    public LogOperation getOperation(int index) {
+        return LogOperation.fromOrdinal(operations[index]);
+    }
+
+    /**
+     * Gets the payload of a record.
+     * 
+     * @param index the index of the record in the batch
+     * @return the payload, or null if the operation has none
+     */
+    @SuppressWarnings("unchecked")
+    public E getPayload(int index) {
+        return (E) payloads[index];
+    }
+
+    /**
+     * Appends the text of a record.
+     * 
+     * @param index the index of the record in the batch
+     * @param text the builder to append to
+     */
+    public void render(int index, StringBuilder text) {
+        getOperation(index).render(text, payloads[index]);
+    }
+
+    /**
+     * Removes all records, releasing their payloads.
+     */
+    public void clear() {
+        Arrays.fill(payloads, 0, size, null);
+        size = 0;
+    }
+}
@@ -0,0 +1,87 @@
+package HWSystem.Logging;
+
+/**
+ * Summary of writing the logs of all ports at the end of a run.
+ */
+public class LogExportReport {
+    private final int portCount;
+    private final int failedCount;
+    private final long bytesWritten;
+    private final long elapsedNanos;
+    private final int parallelism;
+
+    /**
+     * Constructs a report.
+     * 
+     * @param portCount the number of ports whose log was written
+     * @param failedCount the number of ports whose log could not be written
+     * @param bytesWritten the total size of the written logs in bytes
+     * @param elapsedNanos the time taken to write the logs, in nanoseconds
+     * @param parallelism the number of threads writing the logs
+     */
+    public LogExportReport(int portCount, int failedCount, long bytesWritten, long elapsedNanos, int parallelism) {
+        this.portCount = portCount;
+        this.failedCount = failedCount;
+        this.bytesWritten = bytesWritten;
+        this.elapsedNanos = elapsedNanos;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Gets the number of ports whose log was written.
+     * 
+     * @return the port count
+     */
+    public int getPortCount() {
+        return portCount;
+    }
+
+    /**
+     * Gets the number of ports whose log could not be written.
+     * 
+     * @return the failed port count
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Gets the total size of the written logs.
+     * 
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Gets the time taken to write the logs.
+     * 
+     * @return the elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of threads writing the logs.
+     * 
+     * @return the parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Formats the report as a single line.
+     * 
+     * @return the report, e.g., "Exported 11 port logs (3210 bytes) in 4.2 ms with 4 threads."
+     */
+    @Override
+    public String toString() {
+        String text = String.format("Exported %d port logs (%d bytes) in %.1f ms with %d %s.",
+                portCount, bytesWritten, elapsedNanos / 1e6, parallelism, parallelism == 1 ? "thread" : "threads");
+        if (failedCount > 0) text += " " + failedCount + " failed.";
+        return text;
+    }
+}
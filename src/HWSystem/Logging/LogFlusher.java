@@ -0,0 +1,114 @@
+package HWSystem.Logging;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer moving the records of port logs to their files while the system runs.
+ * A single daemon thread wakes up at a fixed interval and flushes every registered log in
+ * batches until it is empty, so the memory of a log is released long before it is closed
+ * and closing a port only has to write the records appended since the last flush.
+ */
+public class LogFlusher {
+    /** The default number of records written per log before moving to the next one. */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /**
+     * The flush interval used for indexed logs when none is given, in milliseconds.
+     * Indexed records only reach their file when flushed, so without flushes a long run
+     * would overflow the bounded memory of the logs.
+     */
+    public static final long DEFAULT_INDEXED_INTERVAL = 100;
+
+    private final Path directory;
+    private final LogLayout layout;
+    private final long intervalMillis;
+    private final int batchSize;
+    private final List<PortLog> logs = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Constructs a flusher. No log is flushed until it is registered and the flusher is started.
+     * 
+     * @param logDirectory the directory where the log files are written
+     * @param layout the order of the records in the finished log files
+     * @param intervalMillis the time between two flushes, in milliseconds
+     * @param batchSize the maximum number of records written per log at a time
+     */
+    public LogFlusher(String logDirectory, LogLayout layout, long intervalMillis, int batchSize) {
+        this.directory = Paths.get(logDirectory);
+        this.layout = layout;
+        this.intervalMillis = intervalMillis;
+        this.batchSize = batchSize;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "log-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the file of a port log and flushes the log from now on.
+     * 
+     * @param log the port log
+     * @return true if the log was registered, false if its file could not be created
+     */
+    public Boolean register(PortLog log) {
+        try {
+            Files.createDirectories(directory);
+            if (layout == LogLayout.INDEXED) {
+                log.attach(new IndexedLogFile(directory, log.getName()));
+            } else {
+                log.attach(new TextLogFile(directory, log.getName(), layout, log.getStorage()));
+            }
+        } catch (IOException e) {
+            System.err.println("Error creating the log file of " + log.getName() + ": " + e.getMessage());
+            return false;
+        }
+        logs.add(log);
+        return true;
+    }
+
+    /**
+     * Starts flushing the registered logs periodically.
+     * Without it, the registered logs are written to their files when they are closed.
+     */
+    public void start() {
+        executor.scheduleWithFixedDelay(this::flushAll, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops flushing and waits for a flush in progress to complete.
+     * The records left in the logs are written when the logs are closed.
+     */
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Flushes every registered log until it is empty.
+     */
+    private void flushAll() {
+        for (PortLog log : logs) {
+            try {
+                while (log.flush(batchSize) == batchSize) {
+                    // Keep going while full batches come out
+                }
+            } catch (IOException e) {
+                System.err.println("Error flushing the log of " + log.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package HWSystem.Logging;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Block index of a text port log written by {@code Protocol.close()}.
+ * The log is divided into blocks of {@value #BLOCK_SIZE} lines. For each block the index
+ * keeps its byte offset, the sequence number of its newest record, its number of records
+ * and the operations it contains, so a query only reads the blocks that can match.
+ * The index is saved next to the log as {@code <name>.log.idx} and rebuilt when the log changes.
+ */
+public class LogIndex {
+    /** The number of records in a block. */
+    public static final int BLOCK_SIZE = 256;
+
+    private static final int MAGIC = 0x48574C49; // "HWLI"
+    private static final int VERSION = 1;
+
+    private static final byte[] READ_LINE = "Reading".getBytes();
+    private static final byte[] WRITE_PREFIX = "Writing \"".getBytes();
+
+    private final Path logFile;
+    private final long logSize;
+    private final long logModified;
+    private final long recordCount;
+    private final int blockCount;
+    private final long[] offsets;
+    private final long[] newestSequences;
+    private final int[] counts;
+    private final byte[] operationMasks;
+
+    /**
+     * Constructs an index from its blocks.
+     */
+    private LogIndex(Path logFile, long logSize, long logModified, long recordCount, int blockCount,
+                     long[] offsets, long[] newestSequences, int[] counts, byte[] operationMasks) {
+        this.logFile = logFile;
+        this.logSize = logSize;
+        this.logModified = logModified;
+        this.recordCount = recordCount;
+        this.blockCount = blockCount;
+        this.offsets = offsets;
+        this.newestSequences = newestSequences;
+        this.counts = counts;
+        this.operationMasks = operationMasks;
+    }
+
+    /**
+     * Opens the index of a log, loading it if it is up to date, or building and saving it otherwise.
+     * 
+     * @param logFile the path of the {@code .log} file
+     * @return the index of the log
+     * @throws IOException if the log cannot be read
+     */
+    public static LogIndex open(Path logFile) throws IOException {
+        Path indexFile = indexPath(logFile);
+        if (Files.exists(indexFile)) {
+            LogIndex index = load(logFile, indexFile);
+            if (index != null) return index;
+        }
+        LogIndex index = build(logFile);
+        index.save(indexFile);
+        return index;
+    }
+
+    /**
+     * Builds the index of a log by reading it once.
+     * 
+     * @param logFile the path of the {@code .log} file
+     * @return the index of the log
+     * @throws IOException if the log cannot be read
+     */
+    public static LogIndex build(Path logFile) throws IOException {
+        long logSize = Files.size(logFile);
+        long logModified = Files.getLastModifiedTime(logFile).toMillis();
+
+        int blockCount = 0;
+        long[] offsets = new long[16];
+        long[] firstLines = new long[16];
+        int[] counts = new int[16];
+        byte[] operationMasks = new byte[16];
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(logFile.toFile()), 1 << 16)) {
+            byte[] prefix = new byte[WRITE_PREFIX.length];
+            long offset = 0;
+            long lines = 0;
+            int prefixLength = 0;
+            long lineStart = 0;
+            int b;
+            while ((b = in.read()) >= 0) {
+                offset++;
+                if (b != '\n') {
+                    if (prefixLength < prefix.length) prefix[prefixLength++] = (byte) b;
+                    continue;
+                }
+
+                LogOperation operation = classify(prefix, prefixLength, offset - lineStart - 1);
+                if (operation == null) break; // "Port Opened." ends the records
+
+                if (lines % BLOCK_SIZE == 0) {
+                    if (blockCount == offsets.length) {
+                        int capacity = blockCount * 2;
+                        offsets = Arrays.copyOf(offsets, capacity);
+                        firstLines = Arrays.copyOf(firstLines, capacity);
+                        counts = Arrays.copyOf(counts, capacity);
+                        operationMasks = Arrays.copyOf(operationMasks, capacity);
+                    }
+                    offsets[blockCount] = lineStart;
+                    firstLines[blockCount] = lines;
+                    blockCount++;
+                }
+                counts[blockCount - 1]++;
+                operationMasks[blockCount - 1] |= 1 << operation.ordinal();
+
+                lines++;
+                lineStart = offset;
+                prefixLength = 0;
+            }
+
+            // The log is newest first, so the first line holds the highest sequence number
+            long[] newestSequences = new long[blockCount];
+            for (int i = 0; i < blockCount; i++) newestSequences[i] = lines - 1 - firstLines[i];
+            return new LogIndex(logFile, logSize, logModified, lines, blockCount,
+                    offsets, newestSequences, counts, operationMasks);
+        }
+    }
+
+    /**
+     * Gets the number of records in the log.
+     * 
+     * @return the record count
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Gets the number of blocks of the log.
+     * 
+     * @return the block count
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * Finds the records of the log matching a query, newest first.
+     * Only the blocks whose sequence range and operations can match are read.
+     * 
+     * @param query the query
+     * @param results the batch receiving the matching records
+     * @return the number of blocks read
+     * @throws IOException if the log cannot be read
+     */
+    public int query(LogQuery query, LogBatch<String> results) throws IOException {
+        int blocksRead = 0;
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.READ)) {
+            for (int i = 0; i < blockCount && results.size() < query.getLimit(); i++) {
+                long newest = newestSequences[i];
+                if (newest < query.getFromSequence()) break; // Every following block is older
+                if (!query.overlaps(newest - counts[i] + 1, newest)) continue;
+                if (query.getOperation() != null && (operationMasks[i] & 1 << query.getOperation().ordinal()) == 0) continue;
+
+                channel.position(offsets[i]);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel)));
+                for (int j = 0; j < counts[i] && results.size() < query.getLimit(); j++) {
+                    String line = reader.readLine();
+                    LogOperation operation = line.equals("Reading") ? LogOperation.READ : LogOperation.WRITE;
+                    String payload = operation == LogOperation.WRITE ? line.substring(9, line.length() - 1) : null;
+                    if (query.matches(newest - j, operation, payload)) {
+                        results.add(newest - j, (byte) operation.ordinal(), payload);
+                    }
+                }
+                blocksRead++;
+            }
+        }
+        return blocksRead;
+    }
+
+    /**
+     * Gets the path of the index file of a log.
+     * 
+     * @param logFile the path of the {@code .log} file
+     * @return the path of the {@code .log.idx} file
+     */
+    private static Path indexPath(Path logFile) {
+        return logFile.resolveSibling(logFile.getFileName() + ".idx");
+    }
+
+    /**
+     * Determines the operation of a line from its first bytes.
+     * 
+     * @param prefix the first bytes of the line
+     * @param prefixLength the number of bytes in the prefix
+     * @param lineLength the length of the line without the newline
+     * @return the operation of the line, or null if it is not a record
+     */
+    private static LogOperation classify(byte[] prefix, int prefixLength, long lineLength) {
+        if (lineLength == READ_LINE.length && startsWith(prefix, prefixLength, READ_LINE)) return LogOperation.READ;
+        if (startsWith(prefix, prefixLength, WRITE_PREFIX)) return LogOperation.WRITE;
+        return null;
+    }
+
+    /**
+     * Checks whether bytes start with the given ones.
+     * 
+     * @param bytes the bytes to check
+     * @param length the number of bytes to check
+     * @param start the expected start
+     * @return true if the bytes start with the expected ones, false otherwise
+     */
+    private static boolean startsWith(byte[] bytes, int length, byte[] start) {
+        if (length < start.length) return false;
+        for (int i = 0; i < start.length; i++) {
+            if (bytes[i] != start[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Saves the index.
+     * 
+     * @param indexFile the path of the index file
+     * @throws IOException if the file cannot be written
+     */
+    private void save(Path indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile.toFile())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(logSize);
+            out.writeLong(logModified);
+            out.writeLong(recordCount);
+            out.writeInt(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                out.writeLong(offsets[i]);
+                out.writeLong(newestSequences[i]);
+                out.writeInt(counts[i]);
+                out.writeByte(operationMasks[i]);
+            }
+        }
+    }
+
+    /**
+     * Loads a saved index.
+     * 
+     * @param logFile the path of the log
+     * @param indexFile the path of the index file
+     * @return the index, or null if it is not an index or the log changed since it was saved
+     * @throws IOException if the file cannot be read
+     */
+    private static LogIndex load(Path logFile, Path indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile.toFile())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            long logSize = in.readLong();
+            long logModified = in.readLong();
+            if (logSize != Files.size(logFile) || logModified != Files.getLastModifiedTime(logFile).toMillis()) return null;
+
+            long recordCount = in.readLong();
+            int blockCount = in.readInt();
+            long[] offsets = new long[blockCount];
+            long[] newestSequences = new long[blockCount];
+            int[] counts = new int[blockCount];
+            byte[] operationMasks = new byte[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                offsets[i] = in.readLong();
+                newestSequences[i] = in.readLong();
+                counts[i] = in.readInt();
+                operationMasks[i] = in.readByte();
+            }
+            return new LogIndex(logFile, logSize, logModified, recordCount, blockCount,
+                    offsets, newestSequences, counts, operationMasks);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package HWSystem.Logging;
+
+/**
+ * Enum representing the order of the records in a port log file.
+ */
+public enum LogLayout {
+    /** Newest record first, ending with "Port Opened.". This is the layout of {@code Protocol.close()}. */
+    NEWEST_FIRST,
+
+    /** "Port Opened." first, followed by the records in the order they happened. */
+    OLDEST_FIRST,
+
+    /** Structured records in the order they happened, with an offset index, read newest first by {@link IndexedLogReader}. */
+    INDEXED;
+}
@@ -0,0 +1,63 @@
+package HWSystem.Logging;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Enum representing the operations recorded in a protocol log.
+ * Log records only keep the operation and a reference to its payload;
+ * the text of a record is rendered when the log is written out.
+ * Payloads are either strings or UTF-8 byte arrays.
+ */
+public enum LogOperation {
+    /** Data was read from the protocol. The payload is not used. */
+    READ,
+
+    /** Data was written to the protocol. The payload is the written data. */
+    WRITE;
+
+    // Cached copy of values(), which clones the array on every call
+    private static final LogOperation[] VALUES = values();
+
+    /**
+     * Appends the text of a record with this operation.
+     * 
+     * @param text the builder to append to
+     * @param payload the payload of the record, a string or UTF-8 bytes
+     */
+    public void render(StringBuilder text, Object payload) {
+        if (this == READ) {
+            text.append("Reading");
+        } else {
+            text.append("Writing \"");
+            if (payload instanceof byte[]) appendBytes(text, (byte[]) payload);
+            else text.append(payload);
+            text.append('"');
+        }
+    }
+
+    /**
+     * Appends UTF-8 bytes as text, without decoding them if they are ASCII.
+     * 
+     * @param text the builder to append to
+     * @param bytes the bytes to append
+     */
+    private static void appendBytes(StringBuilder text, byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                text.append(new String(bytes, StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        for (byte b : bytes) text.append((char) b);
+    }
+
+    /**
+     * Gets the operation with the given index in declaration order.
+     * 
+     * @param ordinal the index of the operation
+     * @return the operation at the index
+     */
+    public static LogOperation fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,102 @@
+package HWSystem.Logging;
+
+/**
+ * A query for the records of a port log.
+ * Records match if they have the operation, a sequence number within the range and the
+ * payload of the query; a null operation or payload matches any. Sequence numbers count
+ * the records of a log from 0, the oldest one.
+ */
+public class LogQuery {
+    private final LogOperation operation;
+    private final long fromSequence;
+    private final long toSequence;
+    private final String payload;
+    private final int limit;
+
+    /**
+     * Constructs a query.
+     * 
+     * @param operation the operation of the matching records, or null for any
+     * @param fromSequence the lowest sequence number of the matching records
+     * @param toSequence the highest sequence number of the matching records
+     * @param payload the payload of the matching records, or null for any
+     * @param limit the maximum number of records returned, newest first
+     */
+    public LogQuery(LogOperation operation, long fromSequence, long toSequence, String payload, int limit) {
+        this.operation = operation;
+        this.fromSequence = fromSequence;
+        this.toSequence = toSequence;
+        this.payload = payload;
+        this.limit = limit;
+    }
+
+    /**
+     * Gets the operation of the matching records.
+     * 
+     * @return the operation, or null for any
+     */
+    public LogOperation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Gets the lowest sequence number of the matching records.
+     * 
+     * @return the first sequence number of the range
+     */
+    public long getFromSequence() {
+        return fromSequence;
+    }
+
+    /**
+     * Gets the highest sequence number of the matching records.
+     * 
+     * @return the last sequence number of the range
+     */
+    public long getToSequence() {
+        return toSequence;
+    }
+
+    /**
+     * Gets the payload of the matching records.
+     * 
+     * @return the payload, or null for any
+     */
+    public String getPayload() {
+        return payload;
+    }
+
+    /**
+     * Gets the maximum number of records returned.
+     * 
+     * @return the limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Checks whether a range of records can contain matches.
+     * 
+     * @param oldestSequence the sequence number of the oldest record of the range
+     * @param newestSequence the sequence number of the newest record of the range
+     * @return true if the ranges overlap, false otherwise
+     */
+    boolean overlaps(long oldestSequence, long newestSequence) {
+        return newestSequence >= fromSequence && oldestSequence <= toSequence;
+    }
+
+    /**
+     * Checks whether a record matches.
+     * 
+     * @param sequence the sequence number of the record
+     * @param recordOperation the operation of the record
+     * @param recordPayload the payload of the record
+     * @return true if the record matches, false otherwise
+     */
+    boolean matches(long sequence, LogOperation recordOperation, String recordPayload) {
+        return sequence >= fromSequence && sequence <= toSequence
+                && (operation == null || operation == recordOperation)
+                && (payload == null || payload.equals(recordPayload));
+    }
+}
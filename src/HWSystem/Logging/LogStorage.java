@@ -0,0 +1,42 @@
+package HWSystem.Logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Interface representing where the finished log file of a port is stored.
+ */
+public interface LogStorage {
+    /** Stores each port log in a single {@code <name>.log} file. */
+    LogStorage FILE = new FileLogStorage();
+
+    /**
+     * Gets the path of the stored log of a port.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension, e.g., "I2C_3"
+     * @return the path of the log file or directory
+     */
+    Path locate(Path directory, String name);
+
+    /**
+     * Opens the stored log of a port for writing, replacing a previous one.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension, e.g., "I2C_3"
+     * @return the stream writing the log
+     * @throws IOException if the log cannot be created
+     */
+    OutputStream open(Path directory, String name) throws IOException;
+
+    /**
+     * Gets the number of bytes the stored log of a port takes on disk.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension, e.g., "I2C_3"
+     * @return the size of the log in bytes
+     * @throws IOException if the log cannot be accessed
+     */
+    long sizeOf(Path directory, String name) throws IOException;
+}
@@ -0,0 +1,12 @@
+package HWSystem.Logging;
+
+/**
+ * Enum representing what a bounded log does with a record when it is full.
+ */
+public enum OverflowPolicy {
+    /** The new record is discarded and the log keeps its oldest records. */
+    DROP_NEWEST,
+
+    /** The oldest record is discarded to make room, so the log keeps its newest records. */
+    OVERWRITE_OLDEST;
+}
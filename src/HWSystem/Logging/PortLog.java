@@ -0,0 +1,185 @@
+package HWSystem.Logging;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * The traffic log of one port.
+ * Records are appended to a bounded {@link RingLog} by the protocol. Without a log file,
+ * they stay in memory until {@link #close(String)} writes them out, newest first. Once a
+ * {@link PortLogFile} is attached, a {@link LogFlusher} moves them to the file in batches
+ * while the system runs, and closing only has to write the remaining tail.
+ * The finished log is written to a {@link LogStorage}, a single file by default.
+ */
+public class PortLog {
+    /** The line ending every port log file. */
+    public static final String OPENED_LINE = "Port Opened.";
+
+    private final String name;
+    private final RingLog<Object> records;
+    private final LogBatch<Object> batch = new LogBatch<>(256);
+    private final StringBuilder text = new StringBuilder();
+
+    private LogStorage storage = LogStorage.FILE;
+    private PortLogFile file;
+
+    /**
+     * Constructs an empty port log.
+     * 
+     * @param name the name of the log file without extension, e.g., "I2C_3"
+     * @param capacity the maximum number of records kept in memory
+     * @param policy what to do with a record when the memory is full
+     */
+    public PortLog(String name, int capacity, OverflowPolicy policy) {
+        this.name = name;
+        this.records = new RingLog<>(capacity, policy);
+    }
+
+    /**
+     * Gets the name of the log file without extension.
+     * 
+     * @return the log name, e.g., "I2C_3"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Appends a record. Never blocks and never allocates.
+     * 
+     * @param operation the operation of the record
+     * @param payload the payload of the record, a string or UTF-8 bytes owned by the log,
+     *                or null if the operation has none
+     */
+    public void append(LogOperation operation, Object payload) {
+        records.append(operation, payload);
+    }
+
+    /**
+     * Gets the number of records discarded because the memory of the log was full.
+     * 
+     * @return the number of dropped records
+     */
+    public long getDroppedCount() {
+        return records.getDroppedCount();
+    }
+
+    /**
+     * Gets where the finished log is stored.
+     * 
+     * @return the log storage
+     */
+    public LogStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Sets where the finished log is stored. Must be called before the log is flushed or closed.
+     * 
+     * @param storage the log storage
+     */
+    public synchronized void setStorage(LogStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Attaches the file the records are flushed to.
+     * 
+     * @param file the open log file
+     */
+    synchronized void attach(PortLogFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Moves up to the given number of the oldest records to the attached file.
+     * 
+     * @param maxRecords the maximum number of records to move
+     * @return the number of records moved, 0 if no file is attached
+     * @throws IOException if writing the file fails
+     */
+    synchronized int flush(int maxRecords) throws IOException {
+        if (file == null) return 0;
+
+        int count = records.drain(batch, maxRecords);
+        file.write(batch);
+        batch.clear();
+        file.flush();
+        return count;
+    }
+
+    /**
+     * Writes the newest records of the log, newest first, while the port is open.
+     * The records still in memory are flushed to the file first, so this needs an
+     * indexed log file, which can be read back while it is being appended.
+     * "Port Opened." follows only if all records were written.
+     * 
+     * @param out where the records are written
+     * @param limit the maximum number of records to write
+     * @return true if the records were written, false if the log has no indexed file
+     * @throws IOException if the file cannot be read or writing fails
+     */
+    public synchronized Boolean renderNewestFirst(Appendable out, long limit) throws IOException {
+        if (!(file instanceof IndexedLogFile)) return false;
+        while (flush(Integer.MAX_VALUE) > 0) {
+            // Flush until no record is left
+        }
+        try (IndexedLogReader reader = ((IndexedLogFile) file).openReader()) {
+            reader.renderNewestFirst(out, limit);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the log file of the port into the given directory.
+     * With an attached file, the remaining records are flushed and the file is completed
+     * in its layout. Otherwise all records are written newest first, followed by "Port Opened.".
+     * 
+     * @param logDirectory the directory where the log file will be stored
+     */
+    public void close(String logDirectory) {
+        try {
+            export(logDirectory);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the log file of the port into the given directory, as {@link #close(String)} does.
+     * 
+     * @param logDirectory the directory where the log file will be stored
+     * @return the size of the log on disk in bytes
+     * @throws IOException if writing the log fails
+     */
+    public synchronized long export(String logDirectory) throws IOException {
+        Path directory = Paths.get(logDirectory);
+        if (file != null) {
+            while (flush(Integer.MAX_VALUE) > 0) {
+                // Flush until no record is left
+            }
+            PortLogFile finished = file;
+            file = null;
+            return finished.finish(directory);
+        }
+
+        try (Writer writer = new OutputStreamWriter(storage.open(directory, name))) {  // Open the log for writing
+            // Write the logs newest first, rendering each record only now
+            records.drain(batch);
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                text.setLength(0);
+                batch.render(i, text);
+                text.append('\n');
+                writer.append(text);
+            }
+            batch.clear();
+
+            // Write "Port Opened" at the end
+            writer.write(OPENED_LINE + "\n");
+        }
+        return storage.sizeOf(directory, name);
+    }
+}
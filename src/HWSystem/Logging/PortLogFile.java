@@ -0,0 +1,33 @@
+package HWSystem.Logging;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Interface representing the file a port log is flushed to while the system runs.
+ */
+interface PortLogFile {
+    /**
+     * Appends records to the file.
+     * 
+     * @param records the records, oldest first
+     * @throws IOException if writing fails
+     */
+    void write(LogBatch<Object> records) throws IOException;
+
+    /**
+     * Pushes the buffered records to the file.
+     * 
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException;
+
+    /**
+     * Closes the file and completes it in its layout.
+     * 
+     * @param logDirectory the directory where the finished log must be
+     * @return the size of the finished log in bytes
+     * @throws IOException if writing the file fails
+     */
+    long finish(Path logDirectory) throws IOException;
+}
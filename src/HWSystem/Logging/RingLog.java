@@ -0,0 +1,201 @@
+package HWSystem.Logging;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free log of records.
+ * A record is an operation, a reference to its payload and its sequence number; records
+ * are stored in parallel arrays, so appending does not create an object. Writers claim a
+ * sequence number with an atomic increment (or a compare-and-set when the newest records
+ * are dropped) and publish their record into the slot of that sequence, so appending
+ * never takes a lock. Each slot carries a stamp that is odd while a record is being
+ * written and even once it is published, which lets the reader detect slots that are
+ * unfinished or were overwritten while it was reading them. Operations and payloads are
+ * volatile array elements, so a record read between two equal stamps is the one published.
+ * A writer only takes a slot with a compare-and-set from an older, published stamp, so the
+ * stamp of a slot never moves backward and a writer a lap behind gives its record up.
+ * 
+ * Records are appended by any number of threads and drained by one thread at a time.
+ * When the log is full, the {@link OverflowPolicy} decides whether the new record or the
+ * oldest record is discarded; either way the discarded record is counted.
+ * 
+ * @param <E> the type of the record payloads
+ */
+public class RingLog<E> {
+    private final int capacity;
+    private final int mask;
+    private final OverflowPolicy policy;
+
+    private final AtomicReferenceArray<E> payloads;
+    private final AtomicIntegerArray operations;
+    private final AtomicLongArray stamps;
+
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final AtomicLong readSequence = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructs an empty log.
+     * 
+     * @param capacity the maximum number of records held, rounded up to a power of two
+     * @param policy what to do with a record when the log is full
+     */
+    public RingLog(int capacity, OverflowPolicy policy) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid log capacity: " + capacity);
+        }
+        this.capacity = roundUp(capacity);
+        this.mask = this.capacity - 1;
+        this.policy = policy;
+        this.payloads = new AtomicReferenceArray<>(this.capacity);
+        this.operations = new AtomicIntegerArray(this.capacity);
+        this.stamps = new AtomicLongArray(this.capacity);
+    }
+
+    /**
+     * Rounds a capacity up to the next power of two.
+     * 
+     * @param capacity the requested capacity
+     * @return the smallest power of two not less than the capacity
+     */
+    private static int roundUp(int capacity) {
+        int highest = Integer.highestOneBit(capacity);
+        return highest == capacity ? capacity : highest << 1;
+    }
+
+    /**
+     * Appends a record.
+     * 
+     * @param operation the operation of the record
+     * @param payload the payload of the record, or null if the operation has none
+     * @return true if the record was stored, false if it was dropped or already overwritten
+     */
+    public boolean append(LogOperation operation, E payload) {
+        long sequence;
+        if (policy == OverflowPolicy.DROP_NEWEST) {
+            do {
+                sequence = writeSequence.get();
+                if (sequence - readSequence.get() >= capacity) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+            } while (!writeSequence.compareAndSet(sequence, sequence + 1));
+        } else {
+            // Overwritten records are counted when the log is drained
+            sequence = writeSequence.getAndIncrement();
+        }
+
+        int slot = (int) sequence & mask;
+        long writing = sequence * 2 + 1;
+        while (true) {
+            long stamp = stamps.get(slot);
+            if (stamp >= writing) {
+                // A writer a lap ahead already took the slot: this record is overwritten,
+                // and the reader counts it as lost
+                return false;
+            }
+            if ((stamp & 1) != 0) {
+                // A writer a lap behind is between its two stamps; it does not wait, so it finishes soon
+                Thread.onSpinWait();
+                continue;
+            }
+            if (stamps.compareAndSet(slot, stamp, writing)) break;
+        }
+
+        // Stamps of a slot only move forward, so no other writer stores into it until it is published
+        operations.set(slot, operation.ordinal());
+        payloads.set(slot, payload);
+        stamps.set(slot, writing + 1); // Published
+        return true;
+    }
+
+    /**
+     * Moves all records currently in the log into a batch.
+     * Records appended while draining may or may not be included.
+     * 
+     * @param batch the batch receiving the records, oldest first
+     * @return the number of records moved
+     */
+    public int drain(LogBatch<E> batch) {
+        return drain(batch, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Moves up to the given number of the oldest records in the log into a batch.
+     * 
+     * @param batch the batch receiving the records, oldest first
+     * @param maxRecords the maximum number of records to move
+     * @return the number of records moved
+     */
+    public int drain(LogBatch<E> batch, int maxRecords) {
+        long first = readSequence.get();
+        long start = Math.max(first, writeSequence.get() - capacity);
+        long end = Math.min(writeSequence.get(), start + maxRecords);
+        int drained = 0;
+        long lost = start - first;
+
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) sequence & mask;
+            long published = sequence * 2 + 2;
+
+            // Wait for a writer that claimed the sequence but has not published it yet
+            long stamp = stamps.get(slot);
+            while (stamp < published) {
+                Thread.onSpinWait();
+                stamp = stamps.get(slot);
+            }
+            if (stamp != published) { // Overwritten by a newer record
+                lost++;
+                continue;
+            }
+
+            byte operation = (byte) operations.get(slot);
+            E payload = payloads.get(slot);
+            if (stamps.get(slot) != published) { // Overwritten while reading
+                lost++;
+                continue;
+            }
+            batch.add(sequence, operation, payload);
+            drained++;
+        }
+
+        dropped.addAndGet(lost);
+        readSequence.set(end);
+        return drained;
+    }
+
+    /**
+     * Gets the number of records held by the log.
+     * 
+     * @return the number of undrained records, at most the capacity
+     */
+    public int size() {
+        long unread = writeSequence.get() - readSequence.get();
+        return (int) Math.min(unread, capacity);
+    }
+
+    /**
+     * Gets the maximum number of records held by the log.
+     * 
+     * @return the capacity of the log
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of records discarded because the log was full.
+     * 
+     * @return the number of dropped records
+     */
+    public long getDroppedCount() {
+        if (policy == OverflowPolicy.DROP_NEWEST) return dropped.get();
+
+        // Records overwritten since the last drain are not counted yet
+        long overwritten = writeSequence.get() - readSequence.get() - capacity;
+        return dropped.get() + Math.max(0, overwritten);
+    }
+}
@@ -0,0 +1,108 @@
+package HWSystem.Logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Output stream writing into a directory of preallocated, memory-mapped segment files.
+ */
+class SegmentOutputStream extends OutputStream {
+    private final Path directory;
+    private final int segmentSize;
+
+    private int segmentNumber;
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+
+    /**
+     * Creates the segment directory and deletes the segments it contains.
+     * The first segment is created on the first write.
+     * 
+     * @param directory the segment directory
+     * @param segmentSize the size of a segment in bytes
+     * @throws IOException if the directory cannot be prepared
+     */
+    SegmentOutputStream(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "*.seg")) {
+            for (Path old : segments) Files.delete(old);
+        }
+    }
+
+    /**
+     * Writes a byte.
+     * 
+     * @param b the byte to write
+     * @throws IOException if a new segment cannot be created
+     */
+    @Override
+    public void write(int b) throws IOException {
+        if (segment == null || !segment.hasRemaining()) nextSegment();
+        segment.put((byte) b);
+    }
+
+    /**
+     * Writes bytes, starting new segments as needed.
+     * 
+     * @param bytes the bytes to write
+     * @param offset the offset of the first byte
+     * @param length the number of bytes
+     * @throws IOException if a new segment cannot be created
+     */
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            if (segment == null || !segment.hasRemaining()) nextSegment();
+            int count = Math.min(length, segment.remaining());
+            segment.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Truncates the last segment to its content and closes it.
+     * 
+     * @throws IOException if the segment cannot be truncated
+     */
+    @Override
+    public void close() throws IOException {
+        closeSegment();
+    }
+
+    /**
+     * Closes the current segment and maps the next one.
+     * 
+     * @throws IOException if the segment cannot be created
+     */
+    private void nextSegment() throws IOException {
+        closeSegment();
+        segmentNumber++;
+        Path path = directory.resolve(String.format("%05d.seg", segmentNumber));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize); // Grows the file to the segment size
+    }
+
+    /**
+     * Truncates the current segment to the bytes written and closes its channel.
+     * 
+     * @throws IOException if the segment cannot be truncated
+     */
+    private void closeSegment() throws IOException {
+        if (channel == null) return;
+        channel.truncate(segment.position());
+        channel.close();
+        channel = null;
+        segment = null;
+    }
+}
@@ -0,0 +1,80 @@
+package HWSystem.Logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Log storage writing each port log to a directory of memory-mapped segments.
+ * The log of {@code I2C_3} is stored as {@code I2C_3/00001.seg}, {@code I2C_3/00002.seg}, ...
+ * Each segment is preallocated to the segment size and mapped into memory, so records are
+ * copied into the page cache without a system call each and the operating system writes
+ * them back. A new segment is started when one is full, and the last one is truncated to
+ * its content. Concatenating the segments in order gives the content of a {@code .log} file.
+ */
+public class SegmentedLogStorage implements LogStorage {
+    /** The default size of a segment in bytes. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    private final int segmentSize;
+
+    /**
+     * Constructs a segmented storage.
+     * 
+     * @param segmentSize the size of a segment in bytes
+     */
+    public SegmentedLogStorage(int segmentSize) {
+        if (segmentSize <= 0) throw new IllegalArgumentException("Segment size must be positive: " + segmentSize);
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Gets the size of a segment.
+     * 
+     * @return the segment size in bytes
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Gets the segment directory of a port log.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the path of the {@code <name>} directory
+     */
+    public Path locate(Path directory, String name) {
+        return directory.resolve(name);
+    }
+
+    /**
+     * Opens the segments of a port log for writing, deleting the segments of a previous log.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the stream writing the segments
+     * @throws IOException if the segment directory cannot be created
+     */
+    public OutputStream open(Path directory, String name) throws IOException {
+        return new SegmentOutputStream(locate(directory, name), segmentSize);
+    }
+
+    /**
+     * Gets the total size of the segments of a port log.
+     * 
+     * @param directory the log directory
+     * @param name the name of the log without extension
+     * @return the size of the segments in bytes
+     * @throws IOException if the segments cannot be accessed
+     */
+    public long sizeOf(Path directory, String name) throws IOException {
+        long size = 0;
+        try (DirectoryStream<Path> segments = Files.newDirectoryStream(locate(directory, name), "*.seg")) {
+            for (Path segment : segments) size += Files.size(segment);
+        }
+        return size;
+    }
+}
@@ -0,0 +1,162 @@
+package HWSystem.Logging;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A text port log file written incrementally while the system runs.
+ * Records arrive oldest first. In the {@link LogLayout#OLDEST_FIRST} layout they are written
+ * straight after "Port Opened.". In the {@link LogLayout#NEWEST_FIRST} layout they are
+ * written to a spool file, which is copied line by line in reverse into the log file when
+ * the log is finished, so the final file is the same as one written at close.
+ * The finished log is written to the {@link LogStorage} of the port log.
+ */
+class TextLogFile implements PortLogFile {
+    private static final int REVERSE_CHUNK_SIZE = 1 << 16;
+
+    private final Path directory;
+    private final String name;
+    private final LogLayout layout;
+    private final LogStorage storage;
+    private final Path path;
+    private final Writer writer;
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * Creates the file of a port log.
+     * 
+     * @param directory the directory of the log file
+     * @param name the name of the log file without extension
+     * @param layout the order of the records in the finished file
+     * @param storage where the finished log is stored
+     * @throws IOException if the file cannot be created
+     */
+    TextLogFile(Path directory, String name, LogLayout layout, LogStorage storage) throws IOException {
+        this.directory = directory;
+        this.name = name;
+        this.layout = layout;
+        this.storage = storage;
+        if (layout == LogLayout.OLDEST_FIRST) {
+            this.path = storage.locate(directory, name);
+            this.writer = new BufferedWriter(new OutputStreamWriter(storage.open(directory, name)));
+        } else {
+            this.path = directory.resolve(name + ".log.spool");
+            this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(path.toFile())));
+        }
+
+        if (layout == LogLayout.OLDEST_FIRST) writer.write(PortLog.OPENED_LINE + "\n");
+    }
+
+    /**
+     * Appends records to the file, one line each.
+     * 
+     * @param records the records, oldest first
+     * @throws IOException if writing fails
+     */
+    public void write(LogBatch<Object> records) throws IOException {
+        for (int i = 0; i < records.size(); i++) {
+            text.setLength(0);
+            records.render(i, text);
+            text.append('\n');
+            writer.append(text);
+        }
+    }
+
+    /**
+     * Pushes the buffered records to the file.
+     * 
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Closes the file and completes it in its layout.
+     * 
+     * @param logDirectory the directory where the finished log file must be
+     * @return the size of the finished log in bytes
+     * @throws IOException if writing the file fails
+     */
+    public long finish(Path logDirectory) throws IOException {
+        writer.close();
+
+        if (layout == LogLayout.OLDEST_FIRST) {
+            if (!Files.isSameFile(directory, logDirectory)) {
+                Files.move(path, storage.locate(logDirectory, name), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return storage.sizeOf(logDirectory, name);
+        }
+
+        try (FileChannel spool = FileChannel.open(path, StandardOpenOption.READ);
+             OutputStream out = new BufferedOutputStream(storage.open(logDirectory, name))) {
+            copyLinesReversed(spool, out);
+            out.write((PortLog.OPENED_LINE + "\n").getBytes());
+        }
+        Files.delete(path);
+        return storage.sizeOf(logDirectory, name);
+    }
+
+    /**
+     * Copies the newline-terminated lines of a file to a stream, last line first.
+     * The file is read backwards in chunks, so memory use does not depend on its size.
+     * 
+     * @param in the file to read
+     * @param out the stream receiving the lines
+     * @throws IOException if reading or writing fails
+     */
+    private static void copyLinesReversed(FileChannel in, OutputStream out) throws IOException {
+        long position = in.size() - 1; // Skip the newline ending the last line
+        if (position <= 0) return;
+
+        ByteBuffer chunk = ByteBuffer.allocate(REVERSE_CHUNK_SIZE);
+        byte[] pending = new byte[REVERSE_CHUNK_SIZE * 2]; // The chunk followed by the unfinished line
+        int pendingLength = 0;
+
+        while (position > 0) {
+            int length = (int) Math.min(REVERSE_CHUNK_SIZE, position);
+            position -= length;
+
+            // Prepend the chunk to the start of the line carried over from the previous chunk
+            if (length + pendingLength > pending.length) {
+                byte[] larger = new byte[(length + pendingLength) * 2];
+                System.arraycopy(pending, 0, larger, length, pendingLength);
+                pending = larger;
+            } else {
+                System.arraycopy(pending, 0, pending, length, pendingLength);
+            }
+            chunk.clear().limit(length);
+            while (chunk.hasRemaining()) {
+                in.read(chunk, position + chunk.position());
+            }
+            System.arraycopy(chunk.array(), 0, pending, 0, length);
+            pendingLength += length;
+
+            // Write every complete line, last first
+            int lineEnd = pendingLength;
+            for (int i = pendingLength - 1; i >= 0; i--) {
+                if (pending[i] == '\n') {
+                    out.write(pending, i + 1, lineEnd - i - 1);
+                    out.write('\n');
+                    lineEnd = i;
+                }
+            }
+            pendingLength = lineEnd;
+        }
+
+        // The first line of the file has no newline before it
+        out.write(pending, 0, pendingLength);
+        out.write('\n');
+    }
+}
@@ -0,0 +1,121 @@
+package HWSystem;
+
+import java.util.Arrays;
+
+import HWSystem.Devices.DeviceCategory;
+
+/**
+ * Bidirectional index between ports and device IDs.
+ * For every occupied port it holds the category and devID of the attached device,
+ * and for every devID of a category it holds the port of the device.
+ * Devices sharing a bus by address are only indexed from their devID to their port.
+ * Both directions are array lookups, so listing the ports or the devices of a
+ * type does not need to search the device lists.
+ */
+class PortIndex {
+    private static final int NONE = -1;
+
+    private final DeviceCategory[] portCategories;
+    private final int[] portDevIDs;
+    private final int[][] devIDPorts;
+
+    /**
+     * Constructs an empty index.
+     * 
+     * @param portCount the number of ports
+     * @param capacities the maximum number of devices of each category, indexed by ordinal
+     */
+    PortIndex(int portCount, int[] capacities) {
+        this.portCategories = new DeviceCategory[portCount];
+        this.portDevIDs = new int[portCount];
+        this.devIDPorts = new int[capacities.length][];
+
+        Arrays.fill(portDevIDs, NONE);
+        for (int i = 0; i < capacities.length; i++) {
+            devIDPorts[i] = new int[capacities[i]];
+            Arrays.fill(devIDPorts[i], NONE);
+        }
+    }
+
+    /**
+     * Records that the device with the given category and devID is attached to a port.
+     * 
+     * @param portID the port of the device
+     * @param category the category of the device
+     * @param devID the device ID of the device
+     */
+    void bind(int portID, DeviceCategory category, int devID) {
+        portCategories[portID] = category;
+        portDevIDs[portID] = devID;
+        devIDPorts[category.ordinal()][devID] = portID;
+    }
+
+    /**
+     * Removes the device attached to a port.
+     * 
+     * @param portID the port of the removed device
+     */
+    void unbind(int portID) {
+        DeviceCategory category = portCategories[portID];
+        if (category == null) return;
+
+        devIDPorts[category.ordinal()][portDevIDs[portID]] = NONE;
+        portCategories[portID] = null;
+        portDevIDs[portID] = NONE;
+    }
+
+    /**
+     * Records that a device sharing the bus of a port by address is connected to the port.
+     * The port itself stays empty.
+     * 
+     * @param portID the port of the bus
+     * @param category the category of the device
+     * @param devID the device ID of the device
+     */
+    void bindShared(int portID, DeviceCategory category, int devID) {
+        devIDPorts[category.ordinal()][devID] = portID;
+    }
+
+    /**
+     * Removes a device sharing the bus of a port by address.
+     * 
+     * @param category the category of the device
+     * @param devID the device ID of the device
+     */
+    void unbindShared(DeviceCategory category, int devID) {
+        devIDPorts[category.ordinal()][devID] = NONE;
+    }
+
+    /**
+     * Gets the category of the device attached to a port.
+     * 
+     * @param portID the port ID
+     * @return the category, or null if the port is empty
+     */
+    DeviceCategory getCategory(int portID) {
+        return portCategories[portID];
+    }
+
+    /**
+     * Gets the devID of the device attached to a port.
+     * 
+     * @param portID the port ID
+     * @return the devID, or -1 if the port is empty
+     */
+    int getDevID(int portID) {
+        return portDevIDs[portID];
+    }
+
+    /**
+     * Gets the port of a device.
+     * 
+     * @param category the category of the device
+     * @param devID the device ID
+     * @return the port ID, or -1 if there is no such device
+     */
+    int getPort(DeviceCategory category, int devID) {
+        int[] ports = devIDPorts[category.ordinal()];
+        if (devID < 0 || devID >= ports.length) return NONE;
+        return ports[devID];
+    }
+}
@@ -0,0 +1,77 @@
+package HWSystem;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import HWSystem.Protocols.BaseProtocol;
+import HWSystem.Protocols.Protocol;
+
+/**
+ * Fork-join task closing a range of ports and writing their logs.
+ * The range is split in halves down to single ports, so ports with large logs
+ * are written concurrently and idle threads steal the remaining ones.
+ */
+class PortLogExportTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<Protocol> ports;
+    private final int from;
+    private final int to;
+    private final String logDirectory;
+    private final AtomicInteger failures;
+
+    /**
+     * Constructs a task for the ports in a range.
+     * 
+     * @param ports the ports of the system
+     * @param from the index of the first port, inclusive
+     * @param to the index of the last port, exclusive
+     * @param logDirectory the directory where the port logs will be stored
+     * @param failures the counter of ports whose log could not be written
+     */
+    PortLogExportTask(List<Protocol> ports, int from, int to, String logDirectory, AtomicInteger failures) {
+        this.ports = ports;
+        this.from = from;
+        this.to = to;
+        this.logDirectory = logDirectory;
+        this.failures = failures;
+    }
+
+    /**
+     * Writes the logs of the ports in the range.
+     * 
+     * @return the total size of the written logs in bytes
+     */
+    @Override
+    protected Long compute() {
+        if (to - from <= 1) return from < to ? export(ports.get(from)) : 0L;
+
+        int middle = (from + to) >>> 1;
+        PortLogExportTask left = new PortLogExportTask(ports, from, middle, logDirectory, failures);
+        left.fork();
+        long right = new PortLogExportTask(ports, middle, to, logDirectory, failures).compute();
+        return left.join() + right;
+    }
+
+    /**
+     * Closes a port and writes its log.
+     * 
+     * @param port the port
+     * @return the size of the written log in bytes, 0 if it is unknown or could not be written
+     */
+    private long export(Protocol port) {
+        if (!(port instanceof BaseProtocol)) {
+            port.close(logDirectory);
+            return 0;
+        }
+        try {
+            return ((BaseProtocol) port).closeAndExport(logDirectory);
+        } catch (IOException e) {
+            e.printStackTrace();
+            failures.incrementAndGet();
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package HWSystem;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import HWSystem.Commands.CommandTokenizer;
+import HWSystem.Commands.Opcode;
+
+/**
+ * Executes commands of a {@link HWSystem} on per-port lanes.
+ * Every lane is a single thread, and each port is always served by the same lane,
+ * so commands on one port run in input order while different ports run concurrently.
+ * 
+ * Commands that change the topology ("addDev", "rmDev", "attach", "detach"), "list", "exit"
+ * and commands that can not be mapped to a single port act as barriers: they wait for every lane
+ * to finish its queued commands and then run on the calling thread.
+ */
+class PortParallelExecutor {
+    private final HWSystem system;
+    private final int portCount;
+
+    private final ExecutorService[] lanes;
+    private final CommandTokenizer[] laneTokenizers;
+    private final Future<?>[] lastTasks;
+
+    // The first failure of a command on any lane, rethrown at the next barrier
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // Used on the calling thread to find the target port and to run barrier commands
+    private final CommandTokenizer tokenizer = new CommandTokenizer();
+
+    /**
+     * Constructs an executor with the given number of lanes.
+     * 
+     * @param system the system executing the commands
+     * @param portCount the number of ports of the system
+     * @param laneCount the number of lanes
+     */
+    PortParallelExecutor(HWSystem system, int portCount, int laneCount) {
+        this.system = system;
+        this.portCount = portCount;
+        this.lanes = new ExecutorService[laneCount];
+        this.laneTokenizers = new CommandTokenizer[laneCount];
+        this.lastTasks = new Future<?>[laneCount];
+
+        for (int i = 0; i < laneCount; i++) {
+            String name = "port-lane-" + i;
+            lanes[i] = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            laneTokenizers[i] = new CommandTokenizer();
+        }
+    }
+
+    /**
+     * Executes a command on the lane of its port, or as a barrier if it has no single port.
+     * 
+     * @param line the command line to execute
+     */
+    void execute(String line) {
+        int portID = findTargetPort(line);
+        if (portID < 0) {
+            awaitLanes();
+            system.exeCommand(line, tokenizer);
+            return;
+        }
+
+        int lane = portID % lanes.length;
+        CommandTokenizer laneTokenizer = laneTokenizers[lane];
+        lastTasks[lane] = lanes[lane].submit(() -> {
+            try {
+                system.exeCommand(line, laneTokenizer);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    /**
+     * Waits for the queued commands and stops the lanes.
+     */
+    void shutdown() {
+        try {
+            awaitLanes();
+        } finally {
+            for (ExecutorService lane : lanes) lane.shutdown();
+        }
+    }
+
+    /**
+     * Finds the port a command operates on.
+     * 
+     * @param line the command line
+     * @return the port ID, or -1 if the command must run as a barrier
+     */
+    private int findTargetPort(String line) {
+        tokenizer.reset(line);
+        Opcode opcode = tokenizer.opcode();
+        int argCount = tokenizer.getTokenCount();
+
+        // Malformed commands run as barriers so they fail exactly as in sequential execution
+        if (argCount < 2 || !tokenizer.isInt(1)) return -1;
+
+        switch (opcode) {
+            case TURN_ON:
+            case TURN_OFF:
+                int portID = tokenizer.parseInt(1);
+                return portID < portCount ? portID : -1;
+            case SET_MOTOR_SPEED:
+                if (argCount < 3 || !tokenizer.isInt(2)) return -1;
+                return system.findPort(opcode, tokenizer.parseInt(1));
+            case PRINT_DISPLAY:
+            case WRITE_WIRELESS:
+                if (argCount < 3) return -1;
+                return system.findPort(opcode, tokenizer.parseInt(1));
+            case READ_SENSOR:
+            case READ_WIRELESS:
+                return system.findPort(opcode, tokenizer.parseInt(1));
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Waits until every lane has executed its queued commands.
+     * The first failure of a command on a lane is rethrown on the calling thread.
+     */
+    private void awaitLanes() {
+        for (int i = 0; i < lastTasks.length; i++) {
+            if (lastTasks[i] == null) continue;
+            try {
+                lastTasks[i].get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+            lastTasks[i] = null;
+        }
+
+        Throwable cause = failure.getAndSet(null);
+        if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+        if (cause instanceof Error) throw (Error) cause;
+        if (cause != null) throw new IllegalStateException(cause);
+    }
+}
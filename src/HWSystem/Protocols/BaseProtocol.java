@@ -0,0 +1,475 @@
+package HWSystem.Protocols;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+import HWSystem.Logging.LogOperation;
+import HWSystem.Logging.OverflowPolicy;
+import HWSystem.Logging.PortLog;
+import HWSystem.Logging.RingLog;
+import HWSystem.Timing.BusModel;
+import HWSystem.Timing.BusStats;
+import HWSystem.Timing.BusTiming;
+
+/**
+ * Abstract class implementing the behavior shared by all protocols of a port.
+ * Every read and write is recorded in a bounded, lock-free {@link RingLog} as an
+ * operation and a reference to the written data, held by the {@link PortLog} of the port.
+ * The text of the records is only rendered when the log is flushed or by
+ * {@link #close(String)}, which completes the log file of the port.
+ * Every read and write is also timed on the {@link BusModel} of the port.
+ * Protocols with addressing let several devices share the port, each through
+ * its own {@link BusTarget}.
+ * Specific protocols extend this class and provide their name and kind.
+ */
+public abstract class BaseProtocol implements Protocol {
+    /** The default maximum number of log records kept per port. */
+    public static final int DEFAULT_LOG_CAPACITY = 1 << 20;
+
+    /** The default policy applied when the log of a port is full. */
+    public static final OverflowPolicy DEFAULT_OVERFLOW_POLICY = OverflowPolicy.OVERWRITE_OLDEST;
+
+    protected final int portID;
+    private final PortLog logs;
+    private final BusModel bus;
+
+    // Returned by every read; created on first use since the name comes from the subclass
+    private String readMessage;
+    private byte[] readMessageBytes;
+
+    // Devices sharing the bus by address, and the one that had the bus last
+    private final TreeMap<Long, BusTarget> targets = new TreeMap<>();
+    private BusTarget lastTarget;
+
+    /**
+     * Constructs a protocol for a port with a bounded log.
+     * 
+     * @param portID the port ID associated with the protocol
+     * @param logCapacity the maximum number of log records kept
+     * @param overflowPolicy what to do with a log record when the log is full
+     */
+    protected BaseProtocol(int portID, int logCapacity, OverflowPolicy overflowPolicy) {
+        this.portID = portID;
+        // Subclasses return a constant name, so it is available during construction
+        this.logs = new PortLog(getProtocolName() + "_" + portID, logCapacity, overflowPolicy);
+        this.bus = new BusModel(BusTiming.defaultFor(getProtocolKind()));
+    }
+
+    /**
+     * Reads data from the protocol.
+     * Logs the action and returns a message indicating that data is being read.
+     * 
+     * @return a string indicating the protocol's read action
+     */
+    public String read() {
+        return read((BusTarget) null);
+    }
+
+    /**
+     * Writes data to the protocol.
+     * Logs the action and the data being written.
+     * 
+     * @param data the data to be written to the protocol
+     */
+    public void write(String data) {
+        write(null, data);
+    }
+
+    /**
+     * Reads data from the protocol into a buffer.
+     * Logs the action and puts the message of {@link #read()} into the buffer, 
+     * as much of it as fits.
+     * 
+     * @param buffer the buffer receiving the data
+     * @return the number of bytes put into the buffer
+     */
+    public int read(ByteBuffer buffer) {
+        return read(null, buffer);
+    }
+
+    /**
+     * Reads data from the protocol into an array.
+     * Logs the action and copies the message of {@link #read()} into the array, 
+     * as much of it as fits.
+     * 
+     * @param data the array receiving the data
+     * @param offset the index of the first byte to fill
+     * @param length the maximum number of bytes to fill
+     * @return the number of bytes copied into the array
+     */
+    public int read(byte[] data, int offset, int length) {
+        return read(null, data, offset, length);
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer to the protocol.
+     * Logs the action and a copy of the bytes, which are consumed from the buffer.
+     * 
+     * @param data the buffer holding the UTF-8 data to be written
+     */
+    public void write(ByteBuffer data) {
+        write(null, data);
+    }
+
+    /**
+     * Writes a range of an array to the protocol.
+     * Logs the action and a copy of the bytes, so the caller can reuse the array.
+     * 
+     * @param data the array holding the UTF-8 data to be written
+     * @param offset the index of the first byte to write
+     * @param length the number of bytes to write
+     */
+    public void write(byte[] data, int offset, int length) {
+        write(null, data, offset, length);
+    }
+
+    /**
+     * Reads data from a target of the bus, or from the port itself.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @return a string indicating the protocol's read action
+     */
+    String read(BusTarget target) {
+        // A read ends the transfer of the writes queued before it
+        if (target != null) target.flushBurst(false);
+        this.logs.append(LogOperation.READ, null);
+        String message = readMessage();
+        receive(target, utf8Length(message));
+        return message;
+    }
+
+    /**
+     * Gets the message returned by every read.
+     * 
+     * @return the read message, e.g., "I2C: Reading."
+     */
+    protected String readMessage() {
+        if (readMessage == null) readMessage = getProtocolName() + ": Reading.";
+        return readMessage;
+    }
+
+    /**
+     * Writes data to a target of the bus, or to the port itself.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param data the data to be written
+     */
+    void write(BusTarget target, String data) {
+        send(target, utf8Length(data));
+        this.logs.append(LogOperation.WRITE, data);
+    }
+
+    /**
+     * Reads data from a target of the bus, or from the port itself, into a buffer.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param buffer the buffer receiving the data
+     * @return the number of bytes put into the buffer
+     */
+    int read(BusTarget target, ByteBuffer buffer) {
+        byte[] message = readBytes(target);
+        int count = Math.min(message.length, buffer.remaining());
+        buffer.put(message, 0, count);
+        return count;
+    }
+
+    /**
+     * Reads data from a target of the bus, or from the port itself, into an array.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param data the array receiving the data
+     * @param offset the index of the first byte to fill
+     * @param length the maximum number of bytes to fill
+     * @return the number of bytes copied into the array
+     */
+    int read(BusTarget target, byte[] data, int offset, int length) {
+        byte[] message = readBytes(target);
+        int count = Math.min(message.length, length);
+        System.arraycopy(message, 0, data, offset, count);
+        return count;
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer to a target of the bus, or to the port itself.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param data the buffer holding the UTF-8 data to be written
+     */
+    void write(BusTarget target, ByteBuffer data) {
+        send(target, data.remaining());
+        byte[] copy = new byte[data.remaining()];
+        data.get(copy);
+        this.logs.append(LogOperation.WRITE, copy);
+    }
+
+    /**
+     * Writes a range of an array to a target of the bus, or to the port itself.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param data the array holding the UTF-8 data to be written
+     * @param offset the index of the first byte to write
+     * @param length the number of bytes to write
+     */
+    void write(BusTarget target, byte[] data, int offset, int length) {
+        send(target, length);
+        this.logs.append(LogOperation.WRITE, Arrays.copyOfRange(data, offset, offset + length));
+    }
+
+    /**
+     * Counts the bytes of the UTF-8 encoding of a string without encoding it,
+     * so that transfers are timed by their bytes on the bus rather than their characters.
+     * An unpaired surrogate counts as one byte, like the replacement character it is encoded as.
+     * 
+     * @param text the string
+     * @return the number of UTF-8 bytes
+     */
+    static int utf8Length(String text) {
+        int length = text.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) continue;
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 2; // Four bytes for the two chars of the pair
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Logs a read and gets the bytes of the read message.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @return the UTF-8 bytes of the message returned by {@link #read()}
+     */
+    private byte[] readBytes(BusTarget target) {
+        String message = read(target);
+        if (readMessageBytes == null) readMessageBytes = message.getBytes(StandardCharsets.UTF_8);
+        return readMessageBytes;
+    }
+
+    /**
+     * Sends a write on the bus of the port, or queues it in the open burst of its target.
+     * Called before the write is logged, so a protocol can reject it.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param payloadBytes the number of payload bytes of the write
+     */
+    protected void send(BusTarget target, int payloadBytes) {
+        if (target != null && target.queue(payloadBytes)) return;
+        transfer(target, payloadBytes);
+    }
+
+    /**
+     * Receives the response of a read on the bus of the port.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param payloadBytes the number of payload bytes of the response
+     */
+    protected void receive(BusTarget target, int payloadBytes) {
+        transfer(target, payloadBytes);
+    }
+
+    /**
+     * Times a transfer on the bus of the port, requested now.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the simulated completion time of the transfer, in nanoseconds
+     */
+    protected long transfer(BusTarget target, int payloadBytes) {
+        return transfer(target, payloadBytes, bus.getClock().nanoTime());
+    }
+
+    /**
+     * Times a transfer on the bus of the port.
+     * Transfers of the device of the port only go through the bus model. Transfers of
+     * a target are also recorded for the target, which loses the arbitration when the
+     * bus is still busy with a transfer of another target.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @param now the time the transfer is requested, in nanoseconds
+     * @return the simulated completion time of the transfer, in nanoseconds
+     */
+    protected long transfer(BusTarget target, int payloadBytes, long now) {
+        if (target == null) return bus.transfer(now, payloadBytes);
+
+        synchronized (bus) {
+            long duration = bus.getTiming().transferNanos(payloadBytes);
+            BusStats stats = bus.getStats();
+            boolean lostArbitration = lastTarget != null && lastTarget != target && stats.getFreeAt() > now;
+
+            long completion = stats.record(now, duration, payloadBytes);
+            target.record(now, completion - duration, completion, payloadBytes, lostArbitration);
+            lastTarget = target;
+            return completion;
+        }
+    }
+
+    /**
+     * Checks whether a device can be attached to the bus of the port at an address.
+     * Protocols without addressing do not support devices sharing the port.
+     * 
+     * @param address the address of the device on the bus
+     * @return true if the address is valid on the bus, false otherwise
+     */
+    public boolean isValidAddress(long address) {
+        return false;
+    }
+
+    /**
+     * Parses an address of the bus as written in a command.
+     * 
+     * @param text the address, in decimal or hexadecimal with a "0x" prefix
+     * @return the address
+     * @throws NumberFormatException if the text is not an address
+     */
+    public long parseAddress(String text) {
+        return Long.decode(text);
+    }
+
+    /**
+     * Formats an address of the bus.
+     * 
+     * @param address the address
+     * @return the address as a string
+     */
+    public String formatAddress(long address) {
+        return Long.toString(address);
+    }
+
+    /**
+     * Attaches a device to the bus of the port at an address.
+     * 
+     * @param address the address of the device on the bus
+     * @return the target of the device, or null if the address is invalid or already in use
+     */
+    public synchronized BusTarget attach(long address) {
+        if (!isValidAddress(address) || targets.containsKey(address)) return null;
+
+        BusTarget target = new BusTarget(this, address);
+        targets.put(address, target);
+        return target;
+    }
+
+    /**
+     * Detaches the device at an address from the bus of the port.
+     * Writes queued by an open burst of the device are sent first.
+     * 
+     * @param address the address of the device on the bus
+     * @return the target of the device, or null if no device uses the address
+     */
+    public BusTarget detach(long address) {
+        BusTarget target;
+        synchronized (this) {
+            target = targets.remove(address);
+        }
+        if (target != null) target.endBurst();
+        return target;
+    }
+
+    /**
+     * Gets the target of the device at an address of the bus.
+     * 
+     * @param address the address of the device on the bus
+     * @return the target, or null if no device uses the address
+     */
+    public synchronized BusTarget getTarget(long address) {
+        return targets.get(address);
+    }
+
+    /**
+     * Gets the number of targets attached to the bus of the port.
+     * 
+     * @return the target count
+     */
+    public synchronized int getTargetCount() {
+        return targets.size();
+    }
+
+    /**
+     * Gets the targets attached to the bus of the port, in address order.
+     * 
+     * @return a copy of the list of targets
+     */
+    public synchronized List<BusTarget> getTargets() {
+        return new ArrayList<>(targets.values());
+    }
+
+    /**
+     * Closes the protocol and logs the actions to a specified directory.
+     * The logs are written to a file with the protocol's name and port ID,
+     * newest first unless the log is being flushed in another layout.
+     * 
+     * @param logDirectory the directory where the protocol logs will be stored
+     */
+    public void close(String logDirectory) {
+        try {
+            closeAndExport(logDirectory);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Closes the protocol and writes its log to a specified directory, as
+     * {@link #close(String)} does, but reports the size of the log and any failure.
+     * Writes queued by open bursts of the targets are sent first.
+     * Protocols with work to finish at close override this method.
+     * 
+     * @param logDirectory the directory where the protocol logs will be stored
+     * @return the size of the log on disk in bytes
+     * @throws IOException if writing the log fails
+     */
+    public long closeAndExport(String logDirectory) throws IOException {
+        for (BusTarget target : getTargets()) target.endBurst();
+        return logs.export(logDirectory);
+    }
+
+    /**
+     * Gets the port ID associated with the protocol.
+     * 
+     * @return the port ID
+     */
+    public int getPortID() {
+        return portID;
+    }
+
+    /**
+     * Gets the number of log records discarded because the log of the port was full.
+     * 
+     * @return the number of dropped log records
+     */
+    public long getDroppedLogCount() {
+        return logs.getDroppedCount();
+    }
+
+    /**
+     * Gets the traffic log of the port.
+     * 
+     * @return the port log
+     */
+    public PortLog getLog() {
+        return logs;
+    }
+
+    /**
+     * Gets the timed model of the bus of the port.
+     * 
+     * @return the bus model
+     */
+    public BusModel getBus() {
+        return bus;
+    }
+}
@@ -0,0 +1,345 @@
+package HWSystem.Protocols;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One addressed device on a shared bus.
+ * A target is the protocol a device attached to a bus uses: its reads and writes go
+ * through the port of the bus, which logs them and times them on the bus model like
+ * any other transfer, and they are also counted for the target.
+ * Transfers are granted in request order, so a transfer requested while the bus is
+ * still busy with another target waits and counts as a lost arbitration.
+ * 
+ * While a burst is open, the writes of the target are logged as usual but queued
+ * instead of transferred, and ending the burst sends them all in one transfer,
+ * which pays the framing overhead of the bus once.
+ */
+public class BusTarget implements Protocol {
+    private final BaseProtocol port;
+    private final long address;
+
+    private long transfers;
+    private long bytes;
+    private long waitNanos;
+    private long maxWaitNanos;
+    private long arbitrationLosses;
+    private int maxQueueDepth;
+    private long bursts;
+    private long burstWrites;
+
+    // Writes and bytes queued by the open burst; -1 writes when no burst is open
+    private int queuedWrites = -1;
+    private int queuedBytes;
+
+    // Completion times of the transfers of the target that were still queued or in progress
+    private long[] pending = new long[8];
+    private int pendingHead;
+    private int pendingSize;
+
+    /**
+     * Constructs the target of a device on a bus.
+     * Targets are created by {@link BaseProtocol#attach(long)}.
+     * 
+     * @param port the port of the bus
+     * @param address the address of the device on the bus
+     */
+    BusTarget(BaseProtocol port, long address) {
+        this.port = port;
+        this.address = address;
+    }
+
+    /**
+     * Reads data from the device through the bus.
+     * 
+     * @return the message of the read
+     */
+    @Override
+    public String read() {
+        return port.read(this);
+    }
+
+    /**
+     * Reads data from the device through the bus into a buffer.
+     * 
+     * @param buffer the buffer receiving the data
+     * @return the number of bytes put into the buffer
+     */
+    @Override
+    public int read(ByteBuffer buffer) {
+        return port.read(this, buffer);
+    }
+
+    /**
+     * Reads data from the device through the bus into an array.
+     * 
+     * @param data the array receiving the data
+     * @param offset the index of the first byte to fill
+     * @param length the maximum number of bytes to fill
+     * @return the number of bytes copied into the array
+     */
+    @Override
+    public int read(byte[] data, int offset, int length) {
+        return port.read(this, data, offset, length);
+    }
+
+    /**
+     * Writes data to the device through the bus.
+     * 
+     * @param data the data to be written
+     */
+    @Override
+    public void write(String data) {
+        port.write(this, data);
+    }
+
+    /**
+     * Writes the remaining bytes of a buffer to the device through the bus.
+     * 
+     * @param data the buffer holding the UTF-8 data to be written
+     */
+    @Override
+    public void write(ByteBuffer data) {
+        port.write(this, data);
+    }
+
+    /**
+     * Writes a range of an array to the device through the bus.
+     * 
+     * @param data the array holding the UTF-8 data to be written
+     * @param offset the index of the first byte to write
+     * @param length the number of bytes to write
+     */
+    @Override
+    public void write(byte[] data, int offset, int length) {
+        port.write(this, data, offset, length);
+    }
+
+    /**
+     * Sends the writes queued by an open burst; the log of the bus is closed with its port.
+     * 
+     * @param logDirectory the directory where the protocol logs are stored
+     */
+    @Override
+    public void close(String logDirectory) {
+        endBurst();
+    }
+
+    /**
+     * Gets the name of the protocol of the bus.
+     * 
+     * @return the name of the protocol
+     */
+    @Override
+    public String getProtocolName() {
+        return port.getProtocolName();
+    }
+
+    /**
+     * Gets the kind of the protocol of the bus.
+     * 
+     * @return the protocol kind
+     */
+    @Override
+    public ProtocolKind getProtocolKind() {
+        return port.getProtocolKind();
+    }
+
+    /**
+     * Gets the port of the bus.
+     * 
+     * @return the port
+     */
+    public BaseProtocol getPort() {
+        return port;
+    }
+
+    /**
+     * Gets the address of the device on the bus.
+     * 
+     * @return the address
+     */
+    public long getAddress() {
+        return address;
+    }
+
+    /**
+     * Gets the address of the device formatted the way the protocol writes addresses.
+     * 
+     * @return the formatted address
+     */
+    public String formatAddress() {
+        return port.formatAddress(address);
+    }
+
+    /**
+     * Opens a burst: the following writes of the target are queued until {@link #endBurst()}.
+     * Opening a burst that is already open does nothing.
+     */
+    public synchronized void beginBurst() {
+        if (queuedWrites < 0) {
+            queuedWrites = 0;
+            queuedBytes = 0;
+        }
+    }
+
+    /**
+     * Closes the open burst and sends its queued writes in one transfer.
+     * 
+     * @return the number of writes sent, or -1 if no burst was open
+     */
+    public int endBurst() {
+        return flushBurst(true);
+    }
+
+    /**
+     * Checks whether a burst is open.
+     * 
+     * @return true if writes of the target are being queued, false otherwise
+     */
+    public synchronized boolean isBursting() {
+        return queuedWrites >= 0;
+    }
+
+    /**
+     * Queues a write if a burst is open.
+     * 
+     * @param payloadBytes the number of payload bytes of the write
+     * @return true if the write was queued, false if it must be transferred now
+     */
+    synchronized boolean queue(int payloadBytes) {
+        if (queuedWrites < 0) return false;
+        queuedWrites++;
+        queuedBytes += payloadBytes;
+        return true;
+    }
+
+    /**
+     * Sends the writes queued by the open burst in one transfer.
+     * 
+     * @param close whether to close the burst, or keep queueing the following writes
+     * @return the number of writes sent, or -1 if no burst was open
+     */
+    int flushBurst(boolean close) {
+        int writes;
+        int payloadBytes;
+        synchronized (this) {
+            writes = queuedWrites;
+            payloadBytes = queuedBytes;
+            if (writes < 0) return -1;
+
+            queuedWrites = close ? -1 : 0;
+            queuedBytes = 0;
+            if (writes > 0) {
+                bursts++;
+                burstWrites += writes;
+            }
+        }
+        if (writes > 0) port.transfer(this, payloadBytes);
+        return writes;
+    }
+
+    /**
+     * Records a transfer of the target.
+     * 
+     * @param requestTime the time the transfer was requested, in nanoseconds
+     * @param startTime the time the transfer was granted the bus, in nanoseconds
+     * @param completionTime the time the transfer completes, in nanoseconds
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @param lostArbitration whether the bus was busy with another target
+     */
+    synchronized void record(long requestTime, long startTime, long completionTime, int payloadBytes, boolean lostArbitration) {
+        long wait = startTime - requestTime;
+        transfers++;
+        bytes += payloadBytes;
+        waitNanos += wait;
+        if (wait > maxWaitNanos) maxWaitNanos = wait;
+        if (lostArbitration) arbitrationLosses++;
+
+        // Completed transfers leave the queue of the target in order
+        while (pendingSize > 0 && pending[pendingHead] <= requestTime) {
+            pendingHead = (pendingHead + 1) % pending.length;
+            pendingSize--;
+        }
+        if (pendingSize == pending.length) {
+            long[] grown = new long[pending.length * 2];
+            for (int i = 0; i < pendingSize; i++) grown[i] = pending[(pendingHead + i) % pending.length];
+            pending = grown;
+            pendingHead = 0;
+        }
+        pending[(pendingHead + pendingSize) % pending.length] = completionTime;
+        pendingSize++;
+        if (pendingSize > maxQueueDepth) maxQueueDepth = pendingSize;
+    }
+
+    /**
+     * Gets the number of transfers of the target.
+     * 
+     * @return the transfer count
+     */
+    public synchronized long getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * Gets the number of payload bytes transferred by the target.
+     * 
+     * @return the byte count
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the average time the transfers of the target waited for the bus.
+     * 
+     * @return the average wait, in nanoseconds
+     */
+    public synchronized double getAverageWaitNanos() {
+        return transfers == 0 ? 0 : (double) waitNanos / transfers;
+    }
+
+    /**
+     * Gets the longest time a transfer of the target waited for the bus.
+     * 
+     * @return the longest wait, in nanoseconds
+     */
+    public synchronized long getMaxWaitNanos() {
+        return maxWaitNanos;
+    }
+
+    /**
+     * Gets the number of transfers that found the bus busy with another target.
+     * 
+     * @return the number of lost arbitrations
+     */
+    public synchronized long getArbitrationLosses() {
+        return arbitrationLosses;
+    }
+
+    /**
+     * Gets the number of transfers that carried the writes of a burst.
+     * 
+     * @return the burst count
+     */
+    public synchronized long getBursts() {
+        return bursts;
+    }
+
+    /**
+     * Gets the number of writes sent in bursts.
+     * 
+     * @return the number of batched writes
+     */
+    public synchronized long getBurstWrites() {
+        return burstWrites;
+    }
+
+    /**
+     * Gets the largest number of transfers of the target queued or in progress at once.
+     * 
+     * @return the largest queue depth
+     */
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+}
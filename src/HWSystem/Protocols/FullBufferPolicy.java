@@ -0,0 +1,15 @@
+package HWSystem.Protocols;
+
+/**
+ * Enum representing what a write does when the transmit buffer of a port is full.
+ */
+public enum FullBufferPolicy {
+    /** The writer waits until the line has drained enough of the buffer for the write. */
+    BLOCK,
+
+    /** The write is rejected and nothing is logged or sent. */
+    FAIL_FAST,
+
+    /** The write is accepted and held until the buffer has room, then sent in order. */
+    PENDING;
+}
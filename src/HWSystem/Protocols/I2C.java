@@ -1,19 +1,19 @@
 package HWSystem.Protocols;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.Stack;
+import HWSystem.Logging.OverflowPolicy;
 
 /**
  * Represents an I2C communication protocol for a device.
- * Implements the {@link Protocol} interface to provide the necessary 
- * operations to read data, write data, close the protocol with logging, 
- * and retrieve the protocol's name.
+ * Extends {@link BaseProtocol}, which provides the operations to read data, 
+ * write data and close the protocol with logging, and supplies the protocol's name.
+ * Several devices can share an I2C port, each at its own 7-bit address.
  */
-public class I2C implements Protocol {
-    private Stack<String> logs = new Stack<>();
-    private int portID;
+public class I2C extends BaseProtocol {
+    /** The lowest 7-bit address available to devices; lower addresses are reserved. */
+    public static final int MIN_ADDRESS = 0x08;
+
+    /** The highest 7-bit address available to devices; higher addresses are reserved. */
+    public static final int MAX_ADDRESS = 0x77;
 
     /**
      * Constructs an I2C protocol object for a specified port ID.
@@ -21,63 +21,57 @@ public class I2C implements Protocol {
      * @param ID the port ID associated with the I2C protocol
      */
     public I2C(int ID) {
-        portID = ID;
+        this(ID, DEFAULT_LOG_CAPACITY, DEFAULT_OVERFLOW_POLICY);
     }
 
     /**
-     * Reads data from the I2C protocol.
-     * Logs the action and returns a message indicating that data is being read.
+     * Constructs an I2C protocol object for a specified port ID with a bounded log.
      * 
-     * @return a string indicating the protocol's read action
+     * @param ID the port ID associated with the I2C protocol
+     * @param logCapacity the maximum number of log records kept
+     * @param overflowPolicy what to do with a log record when the log is full
      */
-    public String read() {
-        String log = "Reading";
-        this.logs.push(log);
-        return getProtocolName() + ": Reading.";
+    public I2C(int ID, int logCapacity, OverflowPolicy overflowPolicy) {
+        super(ID, logCapacity, overflowPolicy);
     }
 
     /**
-     * Writes data to the I2C protocol.
-     * Logs the action and the data being written.
+     * Gets the name of the protocol.
      * 
-     * @param data the data to be written to the protocol
+     * @return the name of the protocol as a string ("I2C")
      */
-    public void write(String data) {
-        String log = String.format("Writing \"%s\"", data);
-        this.logs.push(log);
+    public String getProtocolName() {
+        return "I2C";
     }
 
     /**
-     * Closes the I2C protocol and logs the actions to a specified directory.
-     * The logs are written to a file with the protocol's name and port ID.
+     * Gets the kind of the protocol.
      * 
-     * @param logDirectory the directory where the protocol logs will be stored
+     * @return {@link ProtocolKind#I2C}
      */
-    public void close(String logDirectory) {
-        // Create a file for the protocol (use the protocol name and port ID)
-        String fileName = logDirectory + File.separator + getProtocolName() + "_" + portID + ".log";
-        File logFile = new File(fileName);
-
-        try (FileWriter writer = new FileWriter(logFile)) {  // Open the file for writing
-            // Write the logs in reverse order from the stack
-            while (!logs.isEmpty()) {
-                writer.write(logs.pop() + "\n");  // Write each log and move to the next one
-            }
-
-            // Write "Port Opened" at the end
-            writer.write("Port Opened.\n");
+    public ProtocolKind getProtocolKind() {
+        return ProtocolKind.I2C;
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Checks whether an address is a non-reserved 7-bit I2C address.
+     * 
+     * @param address the address of the device on the bus
+     * @return true if the address is between {@link #MIN_ADDRESS} and {@link #MAX_ADDRESS}
+     */
+    @Override
+    public boolean isValidAddress(long address) {
+        return address >= MIN_ADDRESS && address <= MAX_ADDRESS;
     }
 
     /**
-     * Gets the name of the protocol.
+     * Formats an I2C address as two hexadecimal digits.
      * 
-     * @return the name of the protocol as a string ("I2C")
+     * @param address the address
+     * @return the address as a string, e.g., "0x68"
      */
-    public String getProtocolName() {
-        return "I2C";
+    @Override
+    public String formatAddress(long address) {
+        return String.format("0x%02X", address);
     }
 }
@@ -1,19 +1,41 @@
 package HWSystem.Protocols;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import HWSystem.Logging.OverflowPolicy;
+import HWSystem.Timing.BusModel;
 
 /**
  * Represents a OneWire communication protocol for a device.
- * Implements the {@link Protocol} interface to provide the necessary 
- * operations to read data, write data, close the protocol with logging, 
- * and retrieve the protocol's name.
+ * Extends {@link BaseProtocol}, which provides the operations to read data, 
+ * write data and close the protocol with logging, and supplies the protocol's name.
+ * 
+ * A OneWire port is a multi-drop bus: many devices can be attached, each at its 64-bit
+ * ROM code, enumerated with the ROM search algorithm and read by address. The whole
+ * bus can be sampled in one cycle that starts the conversion of every device at once
+ * and then reads each device.
  */
-public class OneWire implements Protocol {
-    private Stack<String> logs = new Stack<>();
-    private int portID;
+public class OneWire extends BaseProtocol {
+    /** The family code given to devices attached by serial number, that of a DS18B20 thermometer. */
+    public static final int DEFAULT_FAMILY = 0x28;
+
+    /** The number of bytes of a ROM code, sent to address a device. */
+    public static final int ROM_BYTES = 8;
+
+    /** The time a device takes to convert a sample, that of a 12-bit DS18B20 conversion. */
+    public static final long CONVERSION_NANOS = 750_000_000L;
+
+    // A search pass reads two bits and writes one for each of the 64 bits of a ROM code
+    private static final int SEARCH_PASS_BYTES = 3 * 64 / 8;
+
+    // The largest serial number, which fills the 48 bits between family code and CRC
+    private static final long MAX_SERIAL = (1L << 48) - 1;
+
+    private long sampleCycles;
+    private long samples;
+    private long sampleNanos;
 
     /**
      * Constructs a OneWire protocol object for a specified port ID.
@@ -21,63 +43,249 @@ public class OneWire implements Protocol {
      * @param ID the port ID associated with the OneWire protocol
      */
     public OneWire(int ID) {
-        portID = ID;
+        this(ID, DEFAULT_LOG_CAPACITY, DEFAULT_OVERFLOW_POLICY);
+    }
+
+    /**
+     * Constructs a OneWire protocol object for a specified port ID with a bounded log.
+     * 
+     * @param ID the port ID associated with the OneWire protocol
+     * @param logCapacity the maximum number of log records kept
+     * @param overflowPolicy what to do with a log record when the log is full
+     */
+    public OneWire(int ID, int logCapacity, OverflowPolicy overflowPolicy) {
+        super(ID, logCapacity, overflowPolicy);
     }
 
     /**
-     * Reads data from the OneWire protocol.
-     * Logs the action and returns a message indicating that data is being read.
+     * Gets the name of the protocol.
      * 
-     * @return a string indicating the protocol's read action
+     * @return the name of the protocol as a string ("OneWire")
      */
-    public String read() {
-        String log = "Reading";
-        this.logs.push(log);
-        return getProtocolName() + ": Reading.";
+    public String getProtocolName() {
+        return "OneWire";
     }
 
     /**
-     * Writes data to the OneWire protocol.
-     * Logs the action and the data being written.
+     * Gets the kind of the protocol.
      * 
-     * @param data the data to be written to the protocol
+     * @return {@link ProtocolKind#ONE_WIRE}
      */
-    public void write(String data) {
-        String log = String.format("Writing \"%s\"", data);
-        this.logs.push(log);
+    public ProtocolKind getProtocolKind() {
+        return ProtocolKind.ONE_WIRE;
     }
 
     /**
-     * Closes the OneWire protocol and logs the actions to a specified directory.
-     * The logs are written to a file with the protocol's name and port ID.
+     * Computes the ROM code of a device: the family code, the serial number and their CRC.
      * 
-     * @param logDirectory the directory where the protocol logs will be stored
+     * @param family the family code, in the low byte
+     * @param serial the 48-bit serial number
+     * @return the ROM code
      */
-    public void close(String logDirectory) {
-        // Create a file for the protocol (use the protocol name and port ID)
-        String fileName = logDirectory + File.separator + getProtocolName() + "_" + portID + ".log";
-        File logFile = new File(fileName);
+    public static long romCode(int family, long serial) {
+        long code = (family & 0xFF) | (serial & MAX_SERIAL) << 8;
+        return code | (long) crc8(code, ROM_BYTES - 1) << 56;
+    }
 
-        try (FileWriter writer = new FileWriter(logFile)) {  // Open the file for writing
-            // Write the logs in reverse order from the stack
-            while (!logs.isEmpty()) {
-                writer.write(logs.pop() + "\n");  // Write each log and move to the next one
+    /**
+     * Computes the Dallas/Maxim CRC-8 of the low bytes of a value, lowest byte first.
+     * 
+     * @param data the bytes
+     * @param count the number of bytes
+     * @return the CRC
+     */
+    private static int crc8(long data, int count) {
+        int crc = 0;
+        for (int i = 0; i < count; i++) {
+            int b = (int) (data >>> (8 * i)) & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                boolean mix = ((crc ^ b) & 1) != 0;
+                crc >>>= 1;
+                if (mix) crc ^= 0x8C;
+                b >>>= 1;
             }
+        }
+        return crc;
+    }
 
-            // Write "Port Opened" at the end
-            writer.write("Port Opened.\n");
+    /**
+     * Checks whether an address is a ROM code with a valid CRC.
+     * 
+     * @param address the ROM code of the device
+     * @return true if the CRC byte matches the other bytes, false otherwise
+     */
+    @Override
+    public boolean isValidAddress(long address) {
+        return (address & 0xFF) != 0 && crc8(address, ROM_BYTES - 1) == (int) (address >>> 56);
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Parses a ROM code as written in a command: either as printed by
+     * {@link #formatAddress(long)}, e.g., "28-00000000002a", or as a serial number,
+     * which is given the family code {@link #DEFAULT_FAMILY}.
+     * 
+     * @param text the ROM code or serial number
+     * @return the ROM code
+     * @throws NumberFormatException if the text is not a ROM code
+     */
+    @Override
+    public long parseAddress(String text) {
+        int dash = text.indexOf('-');
+        if (dash < 0) {
+            long serial = Long.decode(text);
+            if (serial < 0 || serial > MAX_SERIAL) throw new NumberFormatException("Serial number out of range: " + text);
+            return romCode(DEFAULT_FAMILY, serial);
         }
+        return romCode(Integer.parseInt(text.substring(0, dash), 16), Long.parseLong(text.substring(dash + 1), 16));
     }
 
     /**
-     * Gets the name of the protocol.
+     * Formats a ROM code as family code and serial number in hexadecimal.
      * 
-     * @return the name of the protocol as a string ("OneWire")
+     * @param address the ROM code
+     * @return the ROM code as a string, e.g., "28-00000000002a"
      */
-    public String getProtocolName() {
-        return "OneWire";
+    @Override
+    public String formatAddress(long address) {
+        return String.format("%02x-%012x", address & 0xFF, (address >>> 8) & MAX_SERIAL);
+    }
+
+    /**
+     * Times a transfer on the bus, preceded by the ROM code of its target when it is addressed.
+     * 
+     * @param target the addressed device, or null for the device of the port
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @param now the time the transfer is requested, in nanoseconds
+     * @return the simulated completion time of the transfer, in nanoseconds
+     */
+    @Override
+    protected long transfer(BusTarget target, int payloadBytes, long now) {
+        return super.transfer(target, target == null ? payloadBytes : payloadBytes + ROM_BYTES, now);
+    }
+
+    /**
+     * Enumerates the devices of the bus with the ROM search algorithm.
+     * Every pass walks the 64 bits of the ROM codes from the lowest: where the devices
+     * still taking part disagree, the pass takes the branch chosen from the last
+     * discrepancy of the previous pass, and the devices on the other branch drop out.
+     * Each pass finds one device and is timed on the bus.
+     * 
+     * @return the ROM codes of the devices, in the order they were found
+     */
+    public List<Long> search() {
+        List<BusTarget> devices = getTargets();
+        List<Long> found = new ArrayList<>(devices.size());
+        long[] codes = new long[devices.size()];
+        boolean[] taking = new boolean[codes.length];
+        for (int i = 0; i < codes.length; i++) codes[i] = devices.get(i).getAddress();
+
+        long previous = 0;
+        int lastDiscrepancy = -1;
+        while (codes.length > 0) {
+            transfer(null, SEARCH_PASS_BYTES);
+            Arrays.fill(taking, true);
+
+            long code = 0;
+            int lastZero = -1;
+            for (int bit = 0; bit < 64; bit++) {
+                boolean anyZero = false;
+                boolean anyOne = false;
+                for (int i = 0; i < codes.length; i++) {
+                    if (!taking[i]) continue;
+                    if ((codes[i] >>> bit & 1) == 0) anyZero = true;
+                    else anyOne = true;
+                }
+
+                long direction;
+                if (anyZero && anyOne) {
+                    if (bit < lastDiscrepancy) direction = previous >>> bit & 1;
+                    else direction = bit == lastDiscrepancy ? 1 : 0;
+                    if (direction == 0) lastZero = bit;
+                } else {
+                    direction = anyOne ? 1 : 0;
+                }
+
+                code |= direction << bit;
+                for (int i = 0; i < codes.length; i++) {
+                    if (taking[i] && (codes[i] >>> bit & 1) != direction) taking[i] = false;
+                }
+            }
+
+            found.add(code);
+            previous = code;
+            lastDiscrepancy = lastZero;
+            if (lastDiscrepancy < 0) break;
+        }
+        return found;
+    }
+
+    /**
+     * Samples every device of the bus in one cycle: a single broadcast command starts the
+     * conversion of all devices, the bus powers them while they convert, and then each
+     * device is read by address. Sampling the devices one at a time would instead pay the
+     * conversion time once per device.
+     * 
+     * @return the duration of the cycle, in nanoseconds
+     */
+    public long sampleAll() {
+        List<BusTarget> devices = getTargets();
+        BusModel bus = getBus();
+        long now = bus.getClock().nanoTime();
+        // The cycle starts once the transfers already queued on the bus are done
+        long start = Math.max(now, bus.getStats().getFreeAt());
+
+        // Skip ROM followed by Convert T
+        transfer(null, 1, now);
+        long end = bus.hold(now, CONVERSION_NANOS);
+        for (BusTarget device : devices) {
+            read(device);
+            end = Math.max(end, bus.getStats().getFreeAt());
+        }
+
+        synchronized (this) {
+            sampleCycles++;
+            samples += devices.size();
+            sampleNanos += end - start;
+        }
+        return end - start;
+    }
+
+    /**
+     * Estimates the time it takes to sample every device of the bus one at a time:
+     * an addressed conversion, the conversion time and an addressed read for each device.
+     * 
+     * @return the estimated duration, in nanoseconds
+     */
+    public long estimateSingleSampling() {
+        long perDevice = getBus().getTiming().transferNanos(1 + ROM_BYTES) + CONVERSION_NANOS
+                + getBus().getTiming().transferNanos(utf8Length(readMessage()) + ROM_BYTES);
+        return perDevice * getTargetCount();
+    }
+
+    /**
+     * Gets the number of sampling cycles run on the bus.
+     * 
+     * @return the cycle count
+     */
+    public synchronized long getSampleCycles() {
+        return sampleCycles;
+    }
+
+    /**
+     * Gets the number of samples taken by the sampling cycles.
+     * 
+     * @return the sample count
+     */
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    /**
+     * Gets the rate at which the sampling cycles have sampled the bus.
+     * 
+     * @return the samples per second, or 0 if no cycle has run
+     */
+    public synchronized double getSamplesPerSecond() {
+        return sampleNanos == 0 ? 0 : samples * 1e9 / sampleNanos;
     }
 }
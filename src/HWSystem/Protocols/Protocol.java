@@ -1,17 +1,31 @@
 package HWSystem.Protocols;
 
+import java.nio.ByteBuffer;
+
 /**
  * Represents the communication protocol for devices in the system.
  * The Protocol interface defines the basic operations that a protocol 
  * must implement: reading, writing, closing the connection, and retrieving 
  * the protocol's name.
+ * Data can be read and written as strings, or as bytes from buffers and arrays
+ * without converting them to strings first.
  */
 public interface Protocol {
     String read();
 
+    int read(ByteBuffer buffer);
+
+    int read(byte[] data, int offset, int length);
+
     void write (String data);
 
+    void write(ByteBuffer data);
+
+    void write(byte[] data, int offset, int length);
+
     void close(String logDirectory);
     
     String getProtocolName();
+
+    ProtocolKind getProtocolKind();
 }
@@ -0,0 +1,40 @@
+package HWSystem.Protocols;
+
+/**
+ * Enum representing the kinds of communication protocols a port can use.
+ * Each kind has a distinct bit, so a set of kinds can be stored as an int mask.
+ */
+public enum ProtocolKind {
+    /** The I2C protocol. */
+    I2C,
+
+    /** The SPI protocol. */
+    SPI,
+
+    /** The UART protocol. */
+    UART,
+
+    /** The OneWire protocol. */
+    ONE_WIRE;
+
+    /**
+     * Gets the bit of this kind in a protocol mask.
+     * 
+     * @return the mask with only this kind set
+     */
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Creates the mask holding the given kinds.
+     * 
+     * @param kinds the protocol kinds
+     * @return the mask with the bit of every given kind set
+     */
+    public static int maskOf(ProtocolKind... kinds) {
+        int mask = 0;
+        for (ProtocolKind kind : kinds) mask |= kind.mask();
+        return mask;
+    }
+}
@@ -1,19 +1,15 @@
 package HWSystem.Protocols;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.util.Stack;
+import HWSystem.Logging.OverflowPolicy;
 
 /**
  * Represents an SPI (Serial Peripheral Interface) communication protocol for a device.
- * Implements the {@link Protocol} interface to provide the necessary 
- * operations to read data, write data, close the protocol with logging, 
- * and retrieve the protocol's name.
+ * Extends {@link BaseProtocol}, which provides the operations to read data, 
+ * write data and close the protocol with logging, and supplies the protocol's name.
  */
-public class SPI implements Protocol {
-    private Stack<String> logs = new Stack<>();
-    private int portID;
+public class SPI extends BaseProtocol {
+    /** The number of chip-select lines of a port, each selecting one device. */
+    public static final int CHIP_SELECTS = 8;
 
     /**
      * Constructs an SPI protocol object for a specified port ID.
@@ -21,63 +17,57 @@ public class SPI implements Protocol {
      * @param ID the port ID associated with the SPI protocol
      */
     public SPI(int ID) {
-        portID = ID;
+        this(ID, DEFAULT_LOG_CAPACITY, DEFAULT_OVERFLOW_POLICY);
     }
 
     /**
-     * Reads data from the SPI protocol.
-     * Logs the action and returns a message indicating that data is being read.
+     * Constructs an SPI protocol object for a specified port ID with a bounded log.
      * 
-     * @return a string indicating the protocol's read action
+     * @param ID the port ID associated with the SPI protocol
+     * @param logCapacity the maximum number of log records kept
+     * @param overflowPolicy what to do with a log record when the log is full
      */
-    public String read() {
-        String log = "Reading";
-        this.logs.push(log);
-        return getProtocolName() + ": Reading.";
+    public SPI(int ID, int logCapacity, OverflowPolicy overflowPolicy) {
+        super(ID, logCapacity, overflowPolicy);
     }
 
     /**
-     * Writes data to the SPI protocol.
-     * Logs the action and the data being written.
+     * Gets the name of the protocol.
      * 
-     * @param data the data to be written to the protocol
+     * @return the name of the protocol as a string ("SPI")
      */
-    public void write(String data) {
-        String log = String.format("Writing \"%s\"", data);
-        this.logs.push(log);
+    public String getProtocolName() {
+        return "SPI";
     }
 
     /**
-     * Closes the SPI protocol and logs the actions to a specified directory.
-     * The logs are written to a file with the protocol's name and port ID.
+     * Gets the kind of the protocol.
      * 
-     * @param logDirectory the directory where the protocol logs will be stored
+     * @return {@link ProtocolKind#SPI}
      */
-    public void close(String logDirectory) {
-        // Create a file for the protocol (use the protocol name and port ID)
-        String fileName = logDirectory + File.separator + getProtocolName() + "_" + portID + ".log";
-        File logFile = new File(fileName);
-
-        try (FileWriter writer = new FileWriter(logFile)) {  // Open the file for writing
-            // Write the logs in reverse order from the stack
-            while (!logs.isEmpty()) {
-                writer.write(logs.pop() + "\n");  // Write each log and move to the next one
-            }
-
-            // Write "Port Opened" at the end
-            writer.write("Port Opened.\n");
+    public ProtocolKind getProtocolKind() {
+        return ProtocolKind.SPI;
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    /**
+     * Checks whether an address is a chip-select line of the port.
+     * 
+     * @param address the chip-select line of the device
+     * @return true if the line is between 0 and {@link #CHIP_SELECTS} - 1
+     */
+    @Override
+    public boolean isValidAddress(long address) {
+        return address >= 0 && address < CHIP_SELECTS;
     }
 
     /**
-     * Gets the name of the protocol.
+     * Formats a chip-select line.
      * 
-     * @return the name of the protocol as a string ("SPI")
+     * @param address the chip-select line
+     * @return the line as a string, e.g., "CS0"
      */
-    public String getProtocolName() {
-        return "SPI";
+    @Override
+    public String formatAddress(long address) {
+        return "CS" + address;
     }
 }
@@ -0,0 +1,227 @@
+package HWSystem.Protocols;
+
+import java.util.ArrayDeque;
+
+/**
+ * Model of one direction of the ring buffer of a serial port.
+ * The buffer holds bytes waiting for the line and drains one byte per byte time of the
+ * line, so the baud rate is what makes room for new writes. Only the number of buffered
+ * bytes is modeled; the data itself is in the log of the port.
+ * The buffer keeps its high-water mark and counts the writes that found it full.
+ * The package-private operations are called by the port with the buffer locked.
+ */
+public class SerialBuffer {
+    private final int capacity;
+
+    private long level;
+    private long drainedAt;
+
+    private long highWater;
+    private long overflows;
+    private long overflowBytes;
+    private long blockedWrites;
+    private long blockedNanos;
+    private long pendingWrites;
+
+    // Sizes of the writes held by the pending policy, in write order
+    private final ArrayDeque<Integer> pending = new ArrayDeque<>();
+
+    /**
+     * Constructs an empty buffer.
+     * 
+     * @param capacity the size of the buffer in bytes
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public SerialBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Buffer capacity must be positive: " + capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Removes the bytes the line has sent since the buffer last drained.
+     * 
+     * @param now the current time, in nanoseconds
+     * @param byteNanos the time the line takes to send one byte, in nanoseconds
+     */
+    void drain(long now, long byteNanos) {
+        if (now <= drainedAt) return;
+        long sent = (now - drainedAt) / byteNanos;
+        if (sent >= level) {
+            level = 0;
+            drainedAt = now;
+        } else {
+            // Keep the partly sent byte for the next drain
+            level -= sent;
+            drainedAt += sent * byteNanos;
+        }
+    }
+
+    /**
+     * Checks whether a write fits in the buffer without waiting.
+     * Writes held as pending go first, so nothing fits while any is held.
+     * 
+     * @param payloadBytes the size of the write
+     * @return true if the write fits, false otherwise
+     */
+    boolean fits(int payloadBytes) {
+        return pending.isEmpty() && level + payloadBytes <= capacity;
+    }
+
+    /**
+     * Puts a write into the buffer.
+     * A write larger than the buffer fills it; the rest has already been sent by the
+     * time the writer could put it in.
+     * 
+     * @param payloadBytes the size of the write
+     */
+    void fill(int payloadBytes) {
+        level = Math.min(capacity, level + payloadBytes);
+        if (level > highWater) highWater = level;
+    }
+
+    /**
+     * Records that a write found the buffer full.
+     * 
+     * @param payloadBytes the size of the write
+     */
+    void overflow(int payloadBytes) {
+        overflows++;
+        overflowBytes += payloadBytes;
+    }
+
+    /**
+     * Computes how long a write has to wait until the buffer has room for it,
+     * and records the wait.
+     * 
+     * @param payloadBytes the size of the write
+     * @param byteNanos the time the line takes to send one byte, in nanoseconds
+     * @return the wait, in nanoseconds
+     */
+    long block(int payloadBytes, long byteNanos) {
+        long wait = (level + payloadBytes - capacity) * byteNanos;
+        blockedWrites++;
+        blockedNanos += wait;
+        return wait;
+    }
+
+    /**
+     * Holds a write until the buffer has room for it.
+     * 
+     * @param payloadBytes the size of the write
+     */
+    void hold(int payloadBytes) {
+        pending.addLast(payloadBytes);
+        pendingWrites++;
+    }
+
+    /**
+     * Moves the oldest held write into the buffer if it has room for it.
+     * A write larger than the buffer is released once the buffer is empty.
+     * 
+     * @return the size of the released write, or -1 if none was released
+     */
+    int release() {
+        Integer next = pending.peekFirst();
+        if (next == null || (level > 0 && level + next > capacity)) return -1;
+
+        pending.removeFirst();
+        fill(next);
+        return next;
+    }
+
+    /**
+     * Computes how long the oldest held write has to wait until the buffer has room for it.
+     * 
+     * @param byteNanos the time the line takes to send one byte, in nanoseconds
+     * @return the wait in nanoseconds, or -1 if no write is held
+     */
+    long heldWait(long byteNanos) {
+        Integer next = pending.peekFirst();
+        if (next == null) return -1;
+        return Math.max(0, Math.min(level, level + next - capacity)) * byteNanos;
+    }
+
+    /**
+     * Records bytes received and read at once, which occupy the buffer only while they arrive.
+     * The bytes beyond the capacity of the buffer overflow it.
+     * 
+     * @param payloadBytes the number of bytes received
+     */
+    void receive(int payloadBytes) {
+        long held = Math.min(capacity, payloadBytes);
+        if (held > highWater) highWater = held;
+        if (payloadBytes > capacity) overflow(payloadBytes - capacity);
+    }
+
+    /**
+     * Gets the size of the buffer.
+     * 
+     * @return the capacity in bytes
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the largest number of bytes the buffer has held.
+     * 
+     * @return the high-water mark in bytes
+     */
+    public synchronized long getHighWater() {
+        return highWater;
+    }
+
+    /**
+     * Gets the number of writes that found the buffer full, or of reads that overflowed it.
+     * 
+     * @return the overflow count
+     */
+    public synchronized long getOverflows() {
+        return overflows;
+    }
+
+    /**
+     * Gets the number of bytes of the writes that found the buffer full, or that overflowed it.
+     * 
+     * @return the overflowed byte count
+     */
+    public synchronized long getOverflowBytes() {
+        return overflowBytes;
+    }
+
+    /**
+     * Gets the number of writes that waited for the buffer to drain.
+     * 
+     * @return the blocked write count
+     */
+    public synchronized long getBlockedWrites() {
+        return blockedWrites;
+    }
+
+    /**
+     * Gets the total time writes waited for the buffer to drain.
+     * 
+     * @return the blocked time, in nanoseconds
+     */
+    public synchronized long getBlockedNanos() {
+        return blockedNanos;
+    }
+
+    /**
+     * Gets the number of writes that were held as pending.
+     * 
+     * @return the pending write count
+     */
+    public synchronized long getPendingWrites() {
+        return pendingWrites;
+    }
+
+    /**
+     * Gets the number of writes still held as pending.
+     * 
+     * @return the number of held writes
+     */
+    public synchronized int getHeldWrites() {
+        return pending.size();
+    }
+}
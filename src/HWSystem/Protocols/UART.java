@@ -1,19 +1,31 @@
 package HWSystem.Protocols;
 
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Stack;
+import java.util.concurrent.locks.LockSupport;
+
+import HWSystem.Logging.LogOperation;
+import HWSystem.Logging.OverflowPolicy;
+import HWSystem.Simulation.EventHandler;
+import HWSystem.Simulation.Simulator;
+import HWSystem.Timing.BusModel;
+import HWSystem.Timing.Clock;
 
 /**
  * Represents a UART (Universal Asynchronous Receiver/Transmitter) communication protocol for a device.
- * Implements the {@link Protocol} interface to provide the necessary 
- * operations to read data, write data, close the protocol with logging, 
- * and retrieve the protocol's name.
+ * Extends {@link BaseProtocol}, which provides the operations to read data, 
+ * write data and close the protocol with logging, and supplies the protocol's name.
+ * A UART port can model its transmit and receive ring buffers, see
+ * {@link #setBuffers(int, int, FullBufferPolicy)}; without them writes are unlimited.
  */
-public class UART implements Protocol {
-    private Stack<String> logs = new Stack<>();
-    private int portID;
+public class UART extends BaseProtocol {
+    // Null while the port does not model its buffers
+    private volatile SerialBuffer txBuffer;
+    private volatile SerialBuffer rxBuffer;
+    private volatile FullBufferPolicy fullBufferPolicy = FullBufferPolicy.BLOCK;
+
+    // Whether a simulated event will release the held writes, guarded by the transmit buffer
+    private boolean releaseScheduled;
+    private final EventHandler releaseHandler = (simulator, data) -> releaseScheduledWrites();
 
     /**
      * Constructs a UART protocol object for a specified port ID.
@@ -21,63 +33,264 @@ public class UART implements Protocol {
      * @param ID the port ID associated with the UART protocol
      */
     public UART(int ID) {
-        portID = ID;
+        this(ID, DEFAULT_LOG_CAPACITY, DEFAULT_OVERFLOW_POLICY);
     }
 
     /**
-     * Reads data from the UART protocol.
-     * Logs the action and returns a message indicating that data is being read.
+     * Constructs a UART protocol object for a specified port ID with a bounded log.
      * 
-     * @return a string indicating the protocol's read action
+     * @param ID the port ID associated with the UART protocol
+     * @param logCapacity the maximum number of log records kept
+     * @param overflowPolicy what to do with a log record when the log is full
      */
-    public String read() {
-        String log = "Reading";
-        this.logs.push(log);
-        return getProtocolName() + ": Reading.";
+    public UART(int ID, int logCapacity, OverflowPolicy overflowPolicy) {
+        super(ID, logCapacity, overflowPolicy);
     }
-    
+
     /**
-     * Writes data to the UART protocol.
-     * Logs the action and the data being written.
+     * Gets the name of the protocol.
+     * 
+     * @return the name of the protocol as a string ("UART")
+     */
+    public String getProtocolName() {
+        return "UART";
+    }
+
+    /**
+     * Gets the kind of the protocol.
+     * 
+     * @return {@link ProtocolKind#UART}
+     */
+    public ProtocolKind getProtocolKind() {
+        return ProtocolKind.UART;
+    }
+
+    /**
+     * Sets the sizes of the transmit and receive buffers of the port.
+     * Writes go into the transmit buffer, which the line drains at its baud rate, and
+     * a write that finds it full is handled by the given policy. Responses to reads
+     * arrive in the receive buffer and overflow it if they are larger.
+     * 
+     * @param txCapacity the size of the transmit buffer in bytes, or 0 for unlimited writes
+     * @param rxCapacity the size of the receive buffer in bytes, or 0 for unlimited reads
+     * @param policy what a write does when the transmit buffer is full
+     */
+    public void setBuffers(int txCapacity, int rxCapacity, FullBufferPolicy policy) {
+        this.txBuffer = txCapacity > 0 ? new SerialBuffer(txCapacity) : null;
+        this.rxBuffer = rxCapacity > 0 ? new SerialBuffer(rxCapacity) : null;
+        this.fullBufferPolicy = policy;
+    }
+
+    /**
+     * Gets the transmit buffer of the port.
+     * 
+     * @return the transmit buffer, or null if writes are unlimited
+     */
+    public SerialBuffer getTxBuffer() {
+        return txBuffer;
+    }
+
+    /**
+     * Gets the receive buffer of the port.
+     * 
+     * @return the receive buffer, or null if reads are unlimited
+     */
+    public SerialBuffer getRxBuffer() {
+        return rxBuffer;
+    }
+
+    /**
+     * Gets what a write does when the transmit buffer is full.
+     * 
+     * @return the full buffer policy
+     */
+    public FullBufferPolicy getFullBufferPolicy() {
+        return fullBufferPolicy;
+    }
+
+    /**
+     * Writes data to the protocol and reports what happened to it.
+     * Unlike {@link #write(String)}, a write rejected because the transmit buffer
+     * is full does not throw; it is not logged either.
      * 
      * @param data the data to be written to the protocol
+     * @return the status of the write
      */
-    public void write(String data) {
-        String log = String.format("Writing \"%s\"", data);
-        this.logs.push(log);
+    public WriteStatus offer(String data) {
+        WriteStatus status = enqueue(utf8Length(data));
+        if (status != WriteStatus.REJECTED) getLog().append(LogOperation.WRITE, data);
+        return status;
     }
 
     /**
-     * Closes the UART protocol and logs the actions to a specified directory.
-     * The logs are written to a file with the protocol's name and port ID.
+     * Sends a write through the transmit buffer.
      * 
-     * @param logDirectory the directory where the protocol logs will be stored
+     * @param target always null, since UART ports are not shared
+     * @param payloadBytes the number of payload bytes of the write
+     * @throws WriteRejectedException if the buffer is full and the policy is to fail fast
+     */
+    @Override
+    protected void send(BusTarget target, int payloadBytes) {
+        if (enqueue(payloadBytes) == WriteStatus.REJECTED) throw new WriteRejectedException(getProtocolName(), portID);
+    }
+
+    /**
+     * Receives the response of a read through the receive buffer.
+     * 
+     * @param target always null, since UART ports are not shared
+     * @param payloadBytes the number of payload bytes of the response
      */
-    public void close(String logDirectory) {
-        // Create a file for the protocol (use the protocol name and port ID)
-        String fileName = logDirectory + File.separator + getProtocolName() + "_" + portID + ".log";
-        File logFile = new File(fileName);
+    @Override
+    protected void receive(BusTarget target, int payloadBytes) {
+        SerialBuffer buffer = rxBuffer;
+        if (buffer != null) {
+            synchronized (buffer) {
+                buffer.receive(payloadBytes);
+            }
+        }
+        transfer(target, payloadBytes);
+    }
+
+    /**
+     * Puts a write into the transmit buffer, applying the full buffer policy, and
+     * times it on the line once it is in the buffer.
+     * Held writes that fit again are released first, so writes leave in order.
+     * 
+     * @param payloadBytes the number of payload bytes of the write
+     * @return the status of the write
+     */
+    private WriteStatus enqueue(int payloadBytes) {
+        SerialBuffer buffer = txBuffer;
+        if (buffer == null) {
+            transfer(null, payloadBytes);
+            return WriteStatus.SENT;
+        }
 
-        try (FileWriter writer = new FileWriter(logFile)) {  // Open the file for writing
-            // Write the logs in reverse order from the stack
-            while (!logs.isEmpty()) {
-                writer.write(logs.pop() + "\n");  // Write each log and move to the next one
+        BusModel bus = getBus();
+        long now = bus.getClock().nanoTime();
+        long byteNanos = bus.getTiming().transferNanos(1);
+        long start = now;
+        WriteStatus status;
+        synchronized (buffer) {
+            buffer.drain(now, byteNanos);
+            releaseHeldWrites(buffer, now);
+
+            if (buffer.fits(payloadBytes)) {
+                buffer.fill(payloadBytes);
+                status = WriteStatus.SENT;
+            } else {
+                buffer.overflow(payloadBytes);
+                switch (fullBufferPolicy) {
+                    case BLOCK:
+                        start = now + buffer.block(payloadBytes, byteNanos);
+                        buffer.drain(start, byteNanos);
+                        buffer.fill(payloadBytes);
+                        status = WriteStatus.DELAYED;
+                        break;
+                    case PENDING:
+                        buffer.hold(payloadBytes);
+                        scheduleRelease(buffer, now, byteNanos);
+                        return WriteStatus.PENDING;
+                    default:
+                        return WriteStatus.REJECTED;
+                }
             }
+            transfer(null, payloadBytes, start);
+        }
 
-            // Write "Port Opened" at the end
-            writer.write("Port Opened.\n");
+        // On the wall clock the writer really waits, which throttles floods of writes
+        if (start > now && bus.getClock() == Clock.WALL) LockSupport.parkNanos(start - now);
+        return status;
+    }
+
+    /**
+     * Sends the writes still held, each at the time the line has drained enough of the
+     * transmit buffer for it, then closes the protocol and writes its log.
+     * 
+     * @param logDirectory the directory where the protocol logs will be stored
+     * @return the size of the log on disk in bytes
+     * @throws IOException if writing the log fails
+     */
+    @Override
+    public long closeAndExport(String logDirectory) throws IOException {
+        flushHeldWrites();
+        return super.closeAndExport(logDirectory);
+    }
 
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Moves the held writes the transmit buffer has room for into it, in order, and
+     * times them on the line. Held writes are released by the following writes of the port,
+     * by a simulated event once the line has drained enough for them, and all at close.
+     * 
+     * @param buffer the transmit buffer, locked by the caller
+     * @param now the current time, in nanoseconds
+     * @return the number of writes released
+     */
+    private int releaseHeldWrites(SerialBuffer buffer, long now) {
+        int released = 0;
+        for (int held = buffer.release(); held >= 0; held = buffer.release()) {
+            transfer(null, held, now);
+            released++;
         }
+        return released;
     }
 
     /**
-     * Gets the name of the protocol.
+     * Sends all held writes, each at the time the line has drained enough of the transmit
+     * buffer for it.
+     */
+    private void flushHeldWrites() {
+        SerialBuffer buffer = txBuffer;
+        if (buffer == null) return;
+
+        BusModel bus = getBus();
+        long at = bus.getClock().nanoTime();
+        long byteNanos = bus.getTiming().transferNanos(1);
+        synchronized (buffer) {
+            buffer.drain(at, byteNanos);
+            for (long wait = buffer.heldWait(byteNanos); wait >= 0; wait = buffer.heldWait(byteNanos)) {
+                at += wait;
+                buffer.drain(at, byteNanos);
+                if (releaseHeldWrites(buffer, at) == 0) break;
+            }
+        }
+    }
+
+    /**
+     * Schedules a simulated event releasing the held writes once the line has drained enough
+     * of the transmit buffer for the oldest one. Does nothing on the wall clock, or if such
+     * an event is already scheduled.
      * 
-     * @return the name of the protocol as a string ("UART")
+     * @param buffer the transmit buffer, locked by the caller
+     * @param now the current time, in nanoseconds
+     * @param byteNanos the time the line takes to send one byte, in nanoseconds
      */
-    public String getProtocolName() {
-        return "UART";
+    private void scheduleRelease(SerialBuffer buffer, long now, long byteNanos) {
+        Clock clock = getBus().getClock();
+        if (releaseScheduled || !(clock instanceof Simulator)) return;
+
+        long wait = buffer.heldWait(byteNanos);
+        if (wait < 0) return;
+        releaseScheduled = true;
+        ((Simulator) clock).scheduleAt(now + wait, releaseHandler, null);
+    }
+
+    /**
+     * Releases the held writes when a scheduled release event is due, and schedules the
+     * next event while writes are still held.
+     */
+    private void releaseScheduledWrites() {
+        SerialBuffer buffer = txBuffer;
+        if (buffer == null) return;
+
+        BusModel bus = getBus();
+        long now = bus.getClock().nanoTime();
+        long byteNanos = bus.getTiming().transferNanos(1);
+        synchronized (buffer) {
+            releaseScheduled = false;
+            buffer.drain(now, byteNanos);
+            releaseHeldWrites(buffer, now);
+            scheduleRelease(buffer, now, byteNanos);
+        }
     }
 }
@@ -0,0 +1,31 @@
+package HWSystem.Protocols;
+
+/**
+ * Exception thrown when a port rejects a write because its transmit buffer is full
+ * and its policy is to fail fast. The rejected write is neither logged nor sent.
+ */
+public class WriteRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int portID;
+
+    /**
+     * Constructs the exception for a port.
+     * 
+     * @param protocolName the name of the protocol of the port
+     * @param portID the port ID
+     */
+    public WriteRejectedException(String protocolName, int portID) {
+        super("TX buffer of " + protocolName + " port " + portID + " is full.");
+        this.portID = portID;
+    }
+
+    /**
+     * Gets the port that rejected the write.
+     * 
+     * @return the port ID
+     */
+    public int getPortID() {
+        return portID;
+    }
+}
@@ -0,0 +1,18 @@
+package HWSystem.Protocols;
+
+/**
+ * Enum representing the outcome of a write to a port with a transmit buffer.
+ */
+public enum WriteStatus {
+    /** The write went into the buffer at once. */
+    SENT,
+
+    /** The write went into the buffer after waiting for it to drain. */
+    DELAYED,
+
+    /** The write is held until the buffer has room. */
+    PENDING,
+
+    /** The buffer was full and the write was rejected. */
+    REJECTED;
+}
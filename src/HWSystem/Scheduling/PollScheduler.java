@@ -0,0 +1,189 @@
+package HWSystem.Scheduling;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs periodic polls on a bounded pool of workers, timed by a {@link TimingWheel}.
+ * A ticker thread advances the wheel on the wall clock and hands the expired timers to
+ * the workers. Every timer is then reinserted at its next deadline, a whole number of
+ * periods after its first one, so late polls do not make the schedule drift.
+ * A poll is skipped when the previous poll of its timer is not done yet or when the
+ * queue of the workers is full, so a slow or overloaded system sheds polls instead of
+ * building up a backlog.
+ */
+public class PollScheduler {
+    /** The default duration of a tick of the wheel: a quarter of the period at 1 kHz. */
+    public static final long DEFAULT_TICK_NANOS = 250_000L;
+
+    /** The default number of buckets of the wheel, a little over one second of ticks. */
+    public static final int DEFAULT_BUCKETS = 4096;
+
+    private final TimingWheel wheel;
+    private final ThreadPoolExecutor workers;
+    private final Thread ticker;
+    private final LinkedHashSet<PollTimer> timers = new LinkedHashSet<>();
+    private volatile boolean running;
+
+    /**
+     * Constructs a scheduler with the default wheel.
+     * 
+     * @param workerCount the number of worker threads
+     * @param queueCapacity the number of polls that can wait for a worker
+     */
+    public PollScheduler(int workerCount, int queueCapacity) {
+        this(workerCount, queueCapacity, DEFAULT_TICK_NANOS, DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Constructs a scheduler.
+     * 
+     * @param workerCount the number of worker threads
+     * @param queueCapacity the number of polls that can wait for a worker
+     * @param tickNanos the duration of a tick of the wheel, in nanoseconds
+     * @param bucketCount the number of buckets of the wheel
+     */
+    public PollScheduler(int workerCount, int queueCapacity, long tickNanos, int bucketCount) {
+        this.wheel = new TimingWheel(bucketCount, tickNanos, System.nanoTime());
+
+        AtomicInteger workerNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "poll-worker-" + workerNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.ticker = new Thread(this::tick, "poll-ticker");
+        this.ticker.setDaemon(true);
+    }
+
+    /**
+     * Starts the ticker thread.
+     */
+    public void start() {
+        running = true;
+        ticker.start();
+    }
+
+    /**
+     * Stops the ticker and waits for the polls already handed to the workers.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(ticker);
+        workers.shutdown();
+        try {
+            ticker.join();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedules a task to run periodically, first one period from now.
+     * 
+     * @param name the name of the timer, used in reports
+     * @param periodNanos the period, in nanoseconds
+     * @param task the task to run
+     * @return the timer of the task
+     */
+    public PollTimer schedule(String name, long periodNanos, Runnable task) {
+        PollTimer timer = new PollTimer(name, periodNanos, task, System.nanoTime() + periodNanos);
+        synchronized (timers) {
+            timers.add(timer);
+        }
+        wheel.insert(timer);
+        return timer;
+    }
+
+    /**
+     * Cancels a timer. A poll of the timer that is already running completes.
+     * 
+     * @param timer the timer to cancel
+     */
+    public void cancel(PollTimer timer) {
+        timer.markCancelled();
+        wheel.remove(timer);
+        synchronized (timers) {
+            timers.remove(timer);
+        }
+    }
+
+    /**
+     * Gets the timers that are scheduled.
+     * 
+     * @return a copy of the list of timers, in scheduling order
+     */
+    public List<PollTimer> getTimers() {
+        synchronized (timers) {
+            return new ArrayList<>(timers);
+        }
+    }
+
+    /**
+     * Gets the number of worker threads.
+     * 
+     * @return the worker count
+     */
+    public int getWorkerCount() {
+        return workers.getMaximumPoolSize();
+    }
+
+    /**
+     * Advances the wheel at every tick until the scheduler is stopped.
+     */
+    private void tick() {
+        List<PollTimer> expired = new ArrayList<>();
+        while (running) {
+            long wait = wheel.nextTickTime() - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+                continue;
+            }
+
+            wheel.advance(expired);
+            long now = System.nanoTime();
+            for (PollTimer timer : expired) {
+                if (timer.isCancelled()) continue;
+                dispatch(timer, timer.deadline);
+
+                // Deadlines missed while the ticker was behind are skipped, not run in a burst
+                timer.deadline += timer.getPeriodNanos();
+                while (timer.deadline <= now) {
+                    timer.skip();
+                    timer.deadline += timer.getPeriodNanos();
+                }
+                if (!timer.isCancelled()) wheel.insert(timer);
+            }
+            expired.clear();
+        }
+    }
+
+    /**
+     * Hands a poll to the workers, or skips it.
+     * 
+     * @param timer the timer of the poll
+     * @param scheduledAt the deadline of the poll, in nanoseconds
+     */
+    private void dispatch(PollTimer timer, long scheduledAt) {
+        if (!timer.claim()) {
+            timer.skip();
+            return;
+        }
+        try {
+            workers.execute(() -> timer.run(scheduledAt, System.nanoTime()));
+        } catch (RejectedExecutionException e) {
+            timer.release();
+            timer.skip();
+        }
+    }
+}
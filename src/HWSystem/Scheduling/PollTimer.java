@@ -0,0 +1,159 @@
+package HWSystem.Scheduling;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A periodic timer of a {@link PollScheduler}.
+ * The timer is linked into one bucket of the timing wheel of the scheduler, so it is
+ * inserted and cancelled in constant time. It also keeps the metrics of its polls:
+ * the jitter of a poll is how late it started on a worker after its deadline.
+ */
+public class PollTimer {
+    private final String name;
+    private final long periodNanos;
+    private final Runnable task;
+
+    // Owned by the timing wheel, under its lock
+    long deadline;
+    long expiryTick;
+    int bucket = -1;
+    PollTimer previous;
+    PollTimer next;
+
+    private volatile boolean cancelled;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private long polls;
+    private long skipped;
+    private long jitterNanos;
+    private long maxJitterNanos;
+
+    /**
+     * Constructs a timer.
+     * 
+     * @param name the name of the timer, used in reports
+     * @param periodNanos the period of the timer, in nanoseconds
+     * @param task the task run at every period
+     * @param deadline the first deadline of the timer, in nanoseconds
+     */
+    PollTimer(String name, long periodNanos, Runnable task, long deadline) {
+        this.name = name;
+        this.periodNanos = periodNanos;
+        this.task = task;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Runs the task of the timer and records the jitter of the poll.
+     * 
+     * @param scheduledAt the deadline the poll was started for, in nanoseconds
+     * @param startedAt the time the poll started, in nanoseconds
+     */
+    void run(long scheduledAt, long startedAt) {
+        try {
+            if (!cancelled) task.run();
+        } finally {
+            long jitter = Math.max(0, startedAt - scheduledAt);
+            synchronized (this) {
+                polls++;
+                jitterNanos += jitter;
+                if (jitter > maxJitterNanos) maxJitterNanos = jitter;
+            }
+            running.set(false);
+        }
+    }
+
+    /**
+     * Claims the timer for a poll, unless its previous poll is still queued or running.
+     * 
+     * @return true if the poll may be started, false if it must be skipped
+     */
+    boolean claim() {
+        return running.compareAndSet(false, true);
+    }
+
+    /**
+     * Releases the timer after its poll could not be started.
+     */
+    void release() {
+        running.set(false);
+    }
+
+    /**
+     * Records a poll that was skipped because the previous one was not done or no
+     * worker could take it.
+     */
+    synchronized void skip() {
+        skipped++;
+    }
+
+    /**
+     * Marks the timer as cancelled, so it is not run again.
+     */
+    void markCancelled() {
+        cancelled = true;
+    }
+
+    /**
+     * Checks whether the timer is cancelled.
+     * 
+     * @return true if the timer is cancelled, false otherwise
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets the name of the timer.
+     * 
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the period of the timer.
+     * 
+     * @return the period, in nanoseconds
+     */
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    /**
+     * Gets the number of polls run.
+     * 
+     * @return the poll count
+     */
+    public synchronized long getPolls() {
+        return polls;
+    }
+
+    /**
+     * Gets the number of polls skipped.
+     * 
+     * @return the skipped poll count
+     */
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Gets the average jitter of the polls.
+     * 
+     * @return the average jitter, in nanoseconds
+     */
+    public synchronized double getAverageJitterNanos() {
+        return polls == 0 ? 0 : (double) jitterNanos / polls;
+    }
+
+    /**
+     * Gets the largest jitter of the polls.
+     * 
+     * @return the largest jitter, in nanoseconds
+     */
+    public synchronized long getMaxJitterNanos() {
+        return maxJitterNanos;
+    }
+}
@@ -0,0 +1,110 @@
+package HWSystem.Scheduling;
+
+import java.util.List;
+
+/**
+ * Hashed timing wheel.
+ * Time is divided into ticks, and a timer expiring at a tick is linked into the bucket
+ * of that tick modulo the number of buckets, in a doubly linked list. Inserting and
+ * cancelling a timer are constant time, and each tick only visits the timers of one
+ * bucket; timers more than a turn of the wheel away stay in their bucket until their
+ * tick comes around.
+ */
+class TimingWheel {
+    private final PollTimer[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long origin;
+
+    private long tick;
+    private int size;
+
+    /**
+     * Constructs an empty wheel.
+     * 
+     * @param bucketCount the number of buckets, rounded up to a power of two
+     * @param tickNanos the duration of a tick, in nanoseconds
+     * @param origin the time of tick 0, in nanoseconds
+     */
+    TimingWheel(int bucketCount, long tickNanos, long origin) {
+        int count = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.buckets = new PollTimer[count];
+        this.mask = count - 1;
+        this.tickNanos = tickNanos;
+        this.origin = origin;
+    }
+
+    /**
+     * Inserts a timer at its deadline.
+     * A deadline that has already passed expires at the next tick.
+     * 
+     * @param timer the timer to insert, not in the wheel
+     */
+    synchronized void insert(PollTimer timer) {
+        long expiry = (timer.deadline - origin + tickNanos - 1) / tickNanos;
+        timer.expiryTick = Math.max(expiry, tick);
+        timer.bucket = (int) (timer.expiryTick & mask);
+
+        timer.previous = null;
+        timer.next = buckets[timer.bucket];
+        if (timer.next != null) timer.next.previous = timer;
+        buckets[timer.bucket] = timer;
+        size++;
+    }
+
+    /**
+     * Removes a timer from the wheel.
+     * 
+     * @param timer the timer to remove
+     * @return true if the timer was in the wheel, false otherwise
+     */
+    synchronized boolean remove(PollTimer timer) {
+        if (timer.bucket < 0) return false;
+
+        if (timer.previous != null) timer.previous.next = timer.next;
+        else buckets[timer.bucket] = timer.next;
+        if (timer.next != null) timer.next.previous = timer.previous;
+
+        timer.previous = null;
+        timer.next = null;
+        timer.bucket = -1;
+        size--;
+        return true;
+    }
+
+    /**
+     * Advances the wheel by one tick and removes the timers that expire at it.
+     * 
+     * @param expired the list receiving the expired timers
+     */
+    synchronized void advance(List<PollTimer> expired) {
+        PollTimer timer = buckets[(int) (tick & mask)];
+        while (timer != null) {
+            PollTimer next = timer.next;
+            if (timer.expiryTick <= tick) {
+                remove(timer);
+                expired.add(timer);
+            }
+            timer = next;
+        }
+        tick++;
+    }
+
+    /**
+     * Gets the time at which the next tick is due.
+     * 
+     * @return the time of the next tick, in nanoseconds
+     */
+    synchronized long nextTickTime() {
+        return origin + tick * tickNanos;
+    }
+
+    /**
+     * Gets the number of timers in the wheel.
+     * 
+     * @return the timer count
+     */
+    synchronized int size() {
+        return size;
+    }
+}
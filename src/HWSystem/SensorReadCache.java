@@ -0,0 +1,189 @@
+package HWSystem;
+
+import HWSystem.Devices.Sensors.Sensor;
+import HWSystem.Devices.Sensors.SensorSample;
+import HWSystem.History.TimeSeriesStore;
+
+/**
+ * Read-through cache of the readings of sensors, addressed by device ID.
+ * Caching is enabled per sensor with a maximum age: a read within that age of the
+ * cached reading is served from the cache without touching the bus, and an older
+ * reading expires and is replaced by a new read. The cached reading is kept as a
+ * {@link SensorSample}, which is refilled in place.
+ */
+class SensorReadCache {
+    private final Entry[] entries;
+
+    /**
+     * Constructs a cache with caching disabled for every sensor.
+     * 
+     * @param capacity the number of sensor device IDs
+     */
+    SensorReadCache(int capacity) {
+        this.entries = new Entry[capacity];
+    }
+
+    /**
+     * Enables caching for a sensor, or changes its maximum age.
+     * 
+     * @param devID the device ID of the sensor
+     * @param maxAgeNanos the maximum age of a served reading, in nanoseconds
+     */
+    void enable(int devID, long maxAgeNanos) {
+        Entry entry = entries[devID];
+        if (entry == null) entries[devID] = new Entry(maxAgeNanos);
+        else entry.setMaxAge(maxAgeNanos);
+    }
+
+    /**
+     * Disables caching for a sensor and drops its cached reading and counters.
+     * 
+     * @param devID the device ID of the sensor
+     * @return true if caching was enabled, false otherwise
+     */
+    boolean disable(int devID) {
+        if (devID < 0 || devID >= entries.length || entries[devID] == null) return false;
+        entries[devID] = null;
+        return true;
+    }
+
+    /**
+     * Drops the cached reading of a sensor, so the next read goes to the bus.
+     * 
+     * @param devID the device ID of the sensor
+     */
+    void invalidate(int devID) {
+        Entry entry = entries[devID];
+        if (entry != null) entry.invalidate();
+    }
+
+    /**
+     * Reads a sensor through the cache and formats the reading.
+     * A reading taken from the sensor is recorded in the history; a cached one is not recorded again.
+     * 
+     * @param devID the device ID of the sensor
+     * @param sensor the sensor
+     * @param history the history of the sensors
+     * @return the formatted reading, or null if caching is disabled for the sensor
+     */
+    String read(int devID, Sensor sensor, TimeSeriesStore history) {
+        Entry entry = entries[devID];
+        return entry == null ? null : entry.read(devID, sensor, history);
+    }
+
+    /**
+     * Gets the cache entry of a sensor.
+     * 
+     * @param devID the device ID of the sensor
+     * @return the entry, or null if caching is disabled for the sensor
+     */
+    Entry get(int devID) {
+        return entries[devID];
+    }
+
+    /**
+     * Gets the number of sensor device IDs of the cache.
+     * 
+     * @return the capacity
+     */
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * The cached reading of one sensor and its counters.
+     */
+    static final class Entry {
+        private final SensorSample sample = new SensorSample();
+        private long maxAgeNanos;
+        private boolean valid;
+
+        private long hits;
+        private long misses;
+        private long expirations;
+
+        /**
+         * Constructs an empty entry.
+         * 
+         * @param maxAgeNanos the maximum age of a served reading, in nanoseconds
+         */
+        Entry(long maxAgeNanos) {
+            this.maxAgeNanos = maxAgeNanos;
+        }
+
+        /**
+         * Serves the cached reading if it is fresh, or reads the sensor into the entry.
+         * 
+         * @param devID the device ID of the sensor
+         * @param sensor the sensor
+         * @param history the history recording the new readings
+         * @return the formatted reading
+         */
+        synchronized String read(int devID, Sensor sensor, TimeSeriesStore history) {
+            if (valid) {
+                if (sensor.sampleTime() - sample.getTimestamp() <= maxAgeNanos) {
+                    hits++;
+                    return sensor.format(sample);
+                }
+                expirations++;
+            }
+            misses++;
+            sensor.readSample(sample);
+            history.record(devID, sample);
+            valid = true;
+            return sensor.format(sample);
+        }
+
+        /**
+         * Drops the cached reading.
+         */
+        synchronized void invalidate() {
+            valid = false;
+        }
+
+        /**
+         * Sets the maximum age of a served reading.
+         * 
+         * @param maxAgeNanos the maximum age, in nanoseconds
+         */
+        synchronized void setMaxAge(long maxAgeNanos) {
+            this.maxAgeNanos = maxAgeNanos;
+        }
+
+        /**
+         * Gets the maximum age of a served reading.
+         * 
+         * @return the maximum age, in nanoseconds
+         */
+        synchronized long getMaxAgeNanos() {
+            return maxAgeNanos;
+        }
+
+        /**
+         * Gets the number of reads served from the cache.
+         * 
+         * @return the hit count
+         */
+        synchronized long getHits() {
+            return hits;
+        }
+
+        /**
+         * Gets the number of reads that went to the bus, including expirations.
+         * 
+         * @return the miss count
+         */
+        synchronized long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Gets the number of reads that found the cached reading too old.
+         * 
+         * @return the expiration count
+         */
+        synchronized long getExpirations() {
+            return expirations;
+        }
+    }
+}
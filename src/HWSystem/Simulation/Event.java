@@ -0,0 +1,25 @@
+package HWSystem.Simulation;
+
+/**
+ * A scheduled event. Events are pooled by the {@link Simulator} and reused once run.
+ */
+final class Event {
+    long time;
+    long sequence;
+    EventHandler handler;
+    Object data;
+
+    // Next event in the free list of the pool
+    Event next;
+
+    /**
+     * Checks whether this event is due before another one.
+     * Events at the same time run in the order they were scheduled.
+     * 
+     * @param other the other event
+     * @return true if this event runs first, false otherwise
+     */
+    boolean before(Event other) {
+        return time < other.time || (time == other.time && sequence < other.sequence);
+    }
+}
@@ -0,0 +1,17 @@
+package HWSystem.Simulation;
+
+/**
+ * Functional interface for the code run when a scheduled event is due.
+ * Handlers are meant to be long-lived objects reused for many events, with the
+ * per-event state passed as data, so scheduling does not allocate a closure per event.
+ */
+@FunctionalInterface
+public interface EventHandler {
+    /**
+     * Handles a due event. The clock of the simulator is at the time of the event.
+     * 
+     * @param simulator the simulator running the event
+     * @param data the data the event was scheduled with
+     */
+    void handle(Simulator simulator, Object data);
+}
@@ -0,0 +1,70 @@
+package HWSystem.Simulation;
+
+/**
+ * Summary of a simulation run: the simulated time covered and the wall time it took.
+ */
+public class SimulationReport {
+    private final long simulatedNanos;
+    private final long wallNanos;
+    private final long events;
+
+    /**
+     * Constructs a report.
+     * 
+     * @param simulatedNanos the simulated time covered, in nanoseconds
+     * @param wallNanos the wall time taken, in nanoseconds
+     * @param events the number of events processed
+     */
+    public SimulationReport(long simulatedNanos, long wallNanos, long events) {
+        this.simulatedNanos = simulatedNanos;
+        this.wallNanos = wallNanos;
+        this.events = events;
+    }
+
+    /**
+     * Gets the simulated time covered.
+     * 
+     * @return the simulated time in nanoseconds
+     */
+    public long getSimulatedNanos() {
+        return simulatedNanos;
+    }
+
+    /**
+     * Gets the wall time the simulation took.
+     * 
+     * @return the wall time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Gets the number of events processed.
+     * 
+     * @return the event count
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * Gets how many times faster than real time the simulation ran.
+     * 
+     * @return the simulated time divided by the wall time
+     */
+    public double getSpeedup() {
+        return wallNanos == 0 ? 0 : (double) simulatedNanos / wallNanos;
+    }
+
+    /**
+     * Formats the report as a single line.
+     * 
+     * @return the report, e.g., "Simulated 3600.000 s in 0.512 s of wall time (7031.3x), 3601 events."
+     */
+    @Override
+    public String toString() {
+        return String.format("Simulated %.3f s in %.3f s of wall time (%.1fx), %d events.",
+                simulatedNanos / 1e9, wallNanos / 1e9, getSpeedup(), events);
+    }
+}
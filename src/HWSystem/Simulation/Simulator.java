@@ -0,0 +1,168 @@
+package HWSystem.Simulation;
+
+import java.util.Arrays;
+
+import HWSystem.Timing.Clock;
+
+/**
+ * Discrete-event simulation kernel.
+ * Events are kept in a binary heap ordered by time, and the virtual clock jumps from
+ * one event to the next instead of waiting, so simulated time runs as fast as the events
+ * can be processed. The simulator is a {@link Clock}, so bus transfers done by an event
+ * are timed in simulated time.
+ * 
+ * <p>Event objects are pooled: a run event goes back to a free list and is reused by the
+ * next schedule call, so a steady simulation does not allocate per event.</p>
+ * 
+ * <p>The simulator is not thread-safe; events must be scheduled from the running thread.</p>
+ */
+public class Simulator implements Clock {
+    private Event[] heap = new Event[64];
+    private int size;
+    private Event free;
+    private long now;
+    private long nextSequence;
+    private long processed;
+    private boolean stopped;
+
+    /**
+     * Gets the current simulated time.
+     * 
+     * @return the simulated time in nanoseconds
+     */
+    public long nanoTime() {
+        return now;
+    }
+
+    /**
+     * Schedules an event at an absolute simulated time.
+     * An event in the past runs at the current time.
+     * 
+     * @param time the simulated time of the event, in nanoseconds
+     * @param handler the code to run
+     * @param data the data passed to the handler
+     */
+    public void scheduleAt(long time, EventHandler handler, Object data) {
+        Event event = free;
+        if (event != null) {
+            free = event.next;
+            event.next = null;
+        } else {
+            event = new Event();
+        }
+        event.time = Math.max(time, now);
+        event.sequence = nextSequence++;
+        event.handler = handler;
+        event.data = data;
+
+        if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+        heap[size] = event;
+        siftUp(size++);
+    }
+
+    /**
+     * Schedules an event after a delay from the current simulated time.
+     * 
+     * @param delay the delay in nanoseconds
+     * @param handler the code to run
+     * @param data the data passed to the handler
+     */
+    public void schedule(long delay, EventHandler handler, Object data) {
+        scheduleAt(now + delay, handler, data);
+    }
+
+    /**
+     * Runs events in time order until none is left or the simulator is stopped.
+     */
+    public void run() {
+        runUntil(Long.MAX_VALUE);
+    }
+
+    /**
+     * Runs the events due up to a simulated time, then advances the clock to that time.
+     * 
+     * @param endTime the simulated time to stop at, in nanoseconds
+     */
+    public void runUntil(long endTime) {
+        stopped = false;
+        while (size > 0 && !stopped && heap[0].time <= endTime) {
+            Event event = heap[0];
+            heap[0] = heap[--size];
+            heap[size] = null;
+            if (size > 0) siftDown(0);
+
+            now = event.time;
+            EventHandler handler = event.handler;
+            Object data = event.data;
+
+            // Return the event to the pool before running it, so the handler can reuse it
+            event.handler = null;
+            event.data = null;
+            event.next = free;
+            free = event;
+
+            processed++;
+            handler.handle(this, data);
+        }
+        if (!stopped && endTime != Long.MAX_VALUE && endTime > now) now = endTime;
+    }
+
+    /**
+     * Stops the running simulation after the current event. Pending events are kept.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Gets the number of pending events.
+     * 
+     * @return the number of scheduled events not run yet
+     */
+    public int getPendingCount() {
+        return size;
+    }
+
+    /**
+     * Gets the number of events run.
+     * 
+     * @return the processed event count
+     */
+    public long getProcessedCount() {
+        return processed;
+    }
+
+    /**
+     * Moves an event up the heap to its place.
+     * 
+     * @param index the index of the event
+     */
+    private void siftUp(int index) {
+        Event event = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!event.before(heap[parent])) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = event;
+    }
+
+    /**
+     * Moves an event down the heap to its place.
+     * 
+     * @param index the index of the event
+     */
+    private void siftDown(int index) {
+        Event event = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && heap[child + 1].before(heap[child])) child++;
+            if (!heap[child].before(event)) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = event;
+    }
+}
@@ -0,0 +1,99 @@
+package HWSystem.Timing;
+
+/**
+ * Timed model of the bus of a port.
+ * Every transfer takes the duration given by the timing of the bus, starting when the
+ * clock says it was requested or when the bus becomes free, whichever is later.
+ */
+public class BusModel {
+    private volatile BusTiming timing;
+    private volatile Clock clock = Clock.WALL;
+    private final BusStats stats = new BusStats();
+
+    /**
+     * Constructs the model of a bus.
+     * 
+     * @param timing the timing of the bus
+     */
+    public BusModel(BusTiming timing) {
+        this.timing = timing;
+    }
+
+    /**
+     * Records a transfer on the bus.
+     * 
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the simulated completion time of the transfer, in nanoseconds
+     */
+    public long transfer(int payloadBytes) {
+        return transfer(clock.nanoTime(), payloadBytes);
+    }
+
+    /**
+     * Records a transfer on the bus requested at a given time.
+     * 
+     * @param requestTime the time the transfer was requested, in nanoseconds
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the simulated completion time of the transfer, in nanoseconds
+     */
+    public long transfer(long requestTime, int payloadBytes) {
+        return stats.record(requestTime, timing.transferNanos(payloadBytes), payloadBytes);
+    }
+
+    /**
+     * Records that the bus is held for a given time without transferring data,
+     * e.g., to power a device during a conversion. Holds are not counted as transfers.
+     * 
+     * @param requestTime the time the bus was requested, in nanoseconds
+     * @param nanos the time the bus is held, in nanoseconds
+     * @return the simulated time the bus is released, in nanoseconds
+     */
+    public long hold(long requestTime, long nanos) {
+        return stats.hold(requestTime, nanos);
+    }
+
+    /**
+     * Gets the timing of the bus.
+     * 
+     * @return the timing
+     */
+    public BusTiming getTiming() {
+        return timing;
+    }
+
+    /**
+     * Sets the timing of the bus.
+     * 
+     * @param timing the timing
+     */
+    public void setTiming(BusTiming timing) {
+        this.timing = timing;
+    }
+
+    /**
+     * Gets the clock the transfers are timed with.
+     * 
+     * @return the clock
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Sets the clock the transfers are timed with.
+     * 
+     * @param clock the clock
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the accounting of the transfers.
+     * 
+     * @return the bus statistics
+     */
+    public BusStats getStats() {
+        return stats;
+    }
+}
@@ -0,0 +1,156 @@
+package HWSystem.Timing;
+
+/**
+ * Accounting of the transfers on a bus.
+ * The bus carries one transfer at a time: a transfer requested while the bus is busy
+ * waits until the previous transfers complete, and that wait is its queueing delay.
+ * Utilization is the busy time divided by the time elapsed since the first transfer.
+ * Holds keep the bus busy without transferring data; they count towards the busy time
+ * but not as transfers, and their waits are not part of the queueing delay.
+ */
+public class BusStats {
+    private long transfers;
+    private long bytes;
+    private long busyNanos;
+    private long queueNanos;
+    private long maxQueueNanos;
+    private long holds;
+    private long holdNanos;
+    private long firstRequest = -1;
+    private long freeAt;
+
+    /**
+     * Records a transfer and gets the time it completes.
+     * 
+     * @param requestTime the time the transfer was requested, in nanoseconds
+     * @param durationNanos the time the transfer keeps the bus busy, in nanoseconds
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the completion time of the transfer, in nanoseconds
+     */
+    public synchronized long record(long requestTime, long durationNanos, int payloadBytes) {
+        long delay = occupy(requestTime, durationNanos);
+
+        transfers++;
+        bytes += payloadBytes;
+        queueNanos += delay;
+        if (delay > maxQueueNanos) maxQueueNanos = delay;
+        return freeAt;
+    }
+
+    /**
+     * Records a hold of the bus and gets the time it is released.
+     * 
+     * @param requestTime the time the bus was requested, in nanoseconds
+     * @param durationNanos the time the bus is held, in nanoseconds
+     * @return the release time of the bus, in nanoseconds
+     */
+    public synchronized long hold(long requestTime, long durationNanos) {
+        occupy(requestTime, durationNanos);
+
+        holds++;
+        holdNanos += durationNanos;
+        return freeAt;
+    }
+
+    /**
+     * Keeps the bus busy for a given time once the previous transfers and holds complete.
+     * 
+     * @param requestTime the time the bus was requested, in nanoseconds
+     * @param durationNanos the time the bus is busy, in nanoseconds
+     * @return the time the request waited for the bus, in nanoseconds
+     */
+    private long occupy(long requestTime, long durationNanos) {
+        if (firstRequest < 0) {
+            firstRequest = requestTime;
+            freeAt = requestTime;
+        }
+        long start = Math.max(requestTime, freeAt);
+        freeAt = start + durationNanos;
+        busyNanos += durationNanos;
+        return start - requestTime;
+    }
+
+    /**
+     * Gets the number of transfers.
+     * 
+     * @return the transfer count
+     */
+    public synchronized long getTransfers() {
+        return transfers;
+    }
+
+    /**
+     * Gets the number of payload bytes transferred.
+     * 
+     * @return the byte count
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the total time the bus was busy, with transfers or holds.
+     * 
+     * @return the busy time in nanoseconds
+     */
+    public synchronized long getBusyNanos() {
+        return busyNanos;
+    }
+
+    /**
+     * Gets the number of holds of the bus.
+     * 
+     * @return the hold count
+     */
+    public synchronized long getHolds() {
+        return holds;
+    }
+
+    /**
+     * Gets the total time the bus was held without transferring data.
+     * 
+     * @return the hold time in nanoseconds
+     */
+    public synchronized long getHoldNanos() {
+        return holdNanos;
+    }
+
+    /**
+     * Gets the time the last recorded transfer completes.
+     * 
+     * @return the time the bus becomes free, in nanoseconds
+     */
+    public synchronized long getFreeAt() {
+        return freeAt;
+    }
+
+    /**
+     * Gets the average time transfers waited for the bus.
+     * 
+     * @return the average queueing delay in nanoseconds, 0 without transfers
+     */
+    public synchronized double getAverageQueueNanos() {
+        return transfers == 0 ? 0 : (double) queueNanos / transfers;
+    }
+
+    /**
+     * Gets the longest time a transfer waited for the bus.
+     * 
+     * @return the maximum queueing delay in nanoseconds
+     */
+    public synchronized long getMaxQueueNanos() {
+        return maxQueueNanos;
+    }
+
+    /**
+     * Gets the fraction of time the bus was busy since the first transfer.
+     * 
+     * @param now the current time, in nanoseconds
+     * @return the utilization, from 0 to 1
+     */
+    public synchronized double getUtilization(long now) {
+        if (firstRequest < 0) return 0;
+        long elapsed = Math.max(now, freeAt) - firstRequest;
+        return elapsed == 0 ? 0 : (double) busyNanos / elapsed;
+    }
+}
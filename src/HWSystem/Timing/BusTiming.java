@@ -0,0 +1,82 @@
+package HWSystem.Timing;
+
+import HWSystem.Protocols.ProtocolKind;
+
+/**
+ * Abstract class representing the timing of the transfers on a bus.
+ * A timing model computes how long a transfer of a given payload keeps the bus busy,
+ * from the clock rate or baud rate of the bus and the framing of the protocol.
+ */
+public abstract class BusTiming {
+    /** Nanoseconds per second. */
+    protected static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * Gets the time a transfer keeps the bus busy.
+     * 
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the duration of the transfer in nanoseconds
+     */
+    public abstract long transferNanos(int payloadBytes);
+
+    /**
+     * Gets the fixed part of the duration of every transfer, spent on framing such as
+     * addressing or chip select rather than on payload.
+     * Batching payload into fewer transfers saves this overhead once per transfer.
+     * 
+     * @return the overhead of a transfer in nanoseconds
+     */
+    public long overheadNanos() {
+        return transferNanos(0);
+    }
+
+    /**
+     * Gets a short description of the timing, e.g., "400 kHz".
+     * 
+     * @return the description
+     */
+    public abstract String describe();
+
+    /**
+     * Gets the default timing of a protocol kind: I2C at 100 kHz, SPI at 1 MHz,
+     * UART at 115200 baud and OneWire at standard speed.
+     * 
+     * @param kind the protocol kind
+     * @return the default timing of the protocol kind
+     */
+    public static BusTiming defaultFor(ProtocolKind kind) {
+        switch (kind) {
+            case I2C:
+                return new I2CTiming(I2CTiming.STANDARD_MODE);
+            case SPI:
+                return new SPITiming(SPITiming.DEFAULT_CLOCK);
+            case UART:
+                return new UARTTiming(UARTTiming.DEFAULT_BAUD);
+            default:
+                return OneWireTiming.STANDARD;
+        }
+    }
+
+    /**
+     * Converts a number of bit times at a rate into nanoseconds, rounding up.
+     * 
+     * @param bits the number of bit times
+     * @param bitsPerSecond the rate
+     * @return the duration in nanoseconds
+     */
+    protected static long bitsToNanos(long bits, long bitsPerSecond) {
+        return (bits * NANOS_PER_SECOND + bitsPerSecond - 1) / bitsPerSecond;
+    }
+
+    /**
+     * Formats a frequency with its unit.
+     * 
+     * @param hertz the frequency
+     * @return the frequency, e.g., "400 kHz"
+     */
+    protected static String formatHertz(long hertz) {
+        if (hertz % 1_000_000 == 0) return hertz / 1_000_000 + " MHz";
+        if (hertz % 1_000 == 0) return hertz / 1_000 + " kHz";
+        return hertz + " Hz";
+    }
+}
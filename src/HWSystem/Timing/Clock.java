@@ -0,0 +1,17 @@
+package HWSystem.Timing;
+
+/**
+ * Interface representing the source of time of the simulated buses.
+ * Times are in nanoseconds from an arbitrary origin and never decrease.
+ */
+public interface Clock {
+    /** The clock following real time, starting at 0 when the class is loaded. */
+    Clock WALL = new WallClock();
+
+    /**
+     * Gets the current time.
+     * 
+     * @return the current time in nanoseconds
+     */
+    long nanoTime();
+}
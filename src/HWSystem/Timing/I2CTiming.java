@@ -0,0 +1,49 @@
+package HWSystem.Timing;
+
+/**
+ * Timing of an I2C bus.
+ * A transfer is a start condition, the address byte, the payload bytes, each byte
+ * followed by an acknowledge bit, and a stop condition.
+ */
+public class I2CTiming extends BusTiming {
+    /** The clock of the standard mode, 100 kHz. */
+    public static final long STANDARD_MODE = 100_000;
+
+    /** The clock of the fast mode, 400 kHz. */
+    public static final long FAST_MODE = 400_000;
+
+    /** The clock of the fast mode plus, 1 MHz. */
+    public static final long FAST_MODE_PLUS = 1_000_000;
+
+    private final long clockHz;
+
+    /**
+     * Constructs the timing of an I2C bus.
+     * 
+     * @param clockHz the SCL clock in hertz
+     */
+    public I2CTiming(long clockHz) {
+        if (clockHz <= 0) throw new IllegalArgumentException("I2C clock must be positive: " + clockHz);
+        this.clockHz = clockHz;
+    }
+
+    /**
+     * Gets the time a transfer keeps the bus busy.
+     * 
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the duration of the transfer in nanoseconds
+     */
+    public long transferNanos(int payloadBytes) {
+        long bits = 9L * (payloadBytes + 1) + 2; // 8 data bits and an ACK per byte, start and stop
+        return bitsToNanos(bits, clockHz);
+    }
+
+    /**
+     * Gets the clock of the bus.
+     * 
+     * @return the description, e.g., "400 kHz"
+     */
+    public String describe() {
+        return formatHertz(clockHz);
+    }
+}
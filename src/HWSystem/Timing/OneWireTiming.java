@@ -0,0 +1,68 @@
+package HWSystem.Timing;
+
+/**
+ * Timing of a 1-Wire bus.
+ * A transfer is a reset and presence pulse, a ROM command byte and the payload bytes,
+ * each bit taking one time slot.
+ */
+public class OneWireTiming extends BusTiming {
+    /** Standard speed: 70 µs slots including recovery, 960 µs reset and presence. */
+    public static final OneWireTiming STANDARD = new OneWireTiming(70_000, 960_000, "standard");
+
+    /** Overdrive speed: 10 µs slots including recovery, 146 µs reset and presence. */
+    public static final OneWireTiming OVERDRIVE = new OneWireTiming(10_000, 146_000, "overdrive");
+
+    private final long slotNanos;
+    private final long resetNanos;
+    private final String name;
+
+    /**
+     * Constructs the timing of a 1-Wire bus.
+     * 
+     * @param slotNanos the duration of a bit slot including recovery, in nanoseconds
+     * @param resetNanos the duration of the reset and presence pulses, in nanoseconds
+     * @param name the name of the speed
+     */
+    public OneWireTiming(long slotNanos, long resetNanos, String name) {
+        this.slotNanos = slotNanos;
+        this.resetNanos = resetNanos;
+        this.name = name;
+    }
+
+    /**
+     * Gets the time a transfer keeps the bus busy.
+     * 
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the duration of the transfer in nanoseconds
+     */
+    public long transferNanos(int payloadBytes) {
+        return resetNanos + 8L * (payloadBytes + 1) * slotNanos;
+    }
+
+    /**
+     * Gets the duration of a bit slot.
+     * 
+     * @return the slot duration in nanoseconds
+     */
+    public long getSlotNanos() {
+        return slotNanos;
+    }
+
+    /**
+     * Gets the duration of the reset and presence pulses.
+     * 
+     * @return the reset duration in nanoseconds
+     */
+    public long getResetNanos() {
+        return resetNanos;
+    }
+
+    /**
+     * Gets the speed of the bus.
+     * 
+     * @return the description, e.g., "standard"
+     */
+    public String describe() {
+        return name;
+    }
+}
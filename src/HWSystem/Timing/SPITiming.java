@@ -0,0 +1,66 @@
+package HWSystem.Timing;
+
+/**
+ * Timing of an SPI bus.
+ * A transfer shifts 8 bits per payload byte at the SPI clock, plus a fixed chip-select
+ * setup and hold time around the transaction.
+ */
+public class SPITiming extends BusTiming {
+    /** The default SPI clock, 1 MHz. */
+    public static final long DEFAULT_CLOCK = 1_000_000;
+
+    /** The default chip-select setup plus hold time, 1 microsecond. */
+    public static final long DEFAULT_SELECT_NANOS = 1_000;
+
+    private final long clockHz;
+    private final long selectNanos;
+
+    /**
+     * Constructs the timing of an SPI bus with the default chip-select time.
+     * 
+     * @param clockHz the SCK clock in hertz
+     */
+    public SPITiming(long clockHz) {
+        this(clockHz, DEFAULT_SELECT_NANOS);
+    }
+
+    /**
+     * Constructs the timing of an SPI bus.
+     * 
+     * @param clockHz the SCK clock in hertz
+     * @param selectNanos the chip-select setup plus hold time of a transaction, in nanoseconds
+     */
+    public SPITiming(long clockHz, long selectNanos) {
+        if (clockHz <= 0) throw new IllegalArgumentException("SPI clock must be positive: " + clockHz);
+        this.clockHz = clockHz;
+        this.selectNanos = selectNanos;
+    }
+
+    /**
+     * Gets the time a transfer keeps the bus busy.
+     * 
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the duration of the transfer in nanoseconds
+     */
+    public long transferNanos(int payloadBytes) {
+        return selectNanos + bitsToNanos(8L * payloadBytes, clockHz);
+    }
+
+    /**
+     * Gets the chip-select setup plus hold time of a transaction.
+     * 
+     * @return the time in nanoseconds
+     */
+    public long getSelectNanos() {
+        return selectNanos;
+    }
+
+    /**
+     * Gets the clock of the bus.
+     * 
+     * @return the description, e.g., "8 MHz"
+     */
+    public String describe() {
+        return formatHertz(clockHz);
+    }
+}
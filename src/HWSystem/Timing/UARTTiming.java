@@ -0,0 +1,51 @@
+package HWSystem.Timing;
+
+/**
+ * Timing of a UART line with 8N1 framing: a start bit, 8 data bits and a stop bit per byte.
+ */
+public class UARTTiming extends BusTiming {
+    /** The default baud rate, 115200. */
+    public static final int DEFAULT_BAUD = 115_200;
+
+    private static final int BITS_PER_FRAME = 10;
+
+    private final int baud;
+
+    /**
+     * Constructs the timing of a UART line.
+     * 
+     * @param baud the baud rate in bits per second
+     */
+    public UARTTiming(int baud) {
+        if (baud <= 0) throw new IllegalArgumentException("UART baud rate must be positive: " + baud);
+        this.baud = baud;
+    }
+
+    /**
+     * Gets the time a transfer keeps the line busy.
+     * 
+     * @param payloadBytes the number of payload bytes of the transfer
+     * @return the duration of the transfer in nanoseconds
+     */
+    public long transferNanos(int payloadBytes) {
+        return bitsToNanos((long) BITS_PER_FRAME * payloadBytes, baud);
+    }
+
+    /**
+     * Gets the baud rate of the line.
+     * 
+     * @return the baud rate in bits per second
+     */
+    public int getBaud() {
+        return baud;
+    }
+
+    /**
+     * Gets the baud rate of the line.
+     * 
+     * @return the description, e.g., "115200 baud"
+     */
+    public String describe() {
+        return baud + " baud";
+    }
+}
@@ -0,0 +1,17 @@
+package HWSystem.Timing;
+
+/**
+ * Clock following real time, based on {@link System#nanoTime()}.
+ */
+class WallClock implements Clock {
+    private final long origin = System.nanoTime();
+
+    /**
+     * Gets the real time elapsed since the clock was created.
+     * 
+     * @return the elapsed time in nanoseconds
+     */
+    public long nanoTime() {
+        return System.nanoTime() - origin;
+    }
+}
@@ -0,0 +1,41 @@
+package Main;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import HWSystem.Commands.CompiledScript;
+import HWSystem.Commands.ScriptCompiler;
+
+/**
+ * Command-line tool that compiles a text command script into the binary form
+ * executed by {@code Main --replay}.
+ */
+public class CompileScript {
+
+    /**
+     * Compiles a text command script into a binary script file.
+     * 
+     * @param args Command-line arguments. The first argument should be the path of the 
+     *             text script and the second argument the path of the compiled output.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: CompileScript <script.txt> <script.hwcs>");
+            return;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(args[0]));
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(args[1]))) {
+            CompiledScript script = ScriptCompiler.compile(reader);
+            script.write(out);
+            System.out.println("Compiled " + script.getCodeSize() + " bytes of code with "
+                    + script.getStringCount() + " distinct strings.");
+        } catch (IOException e) {
+            System.err.println("Error compiling the script: " + e.getMessage());
+        }
+    }
+}
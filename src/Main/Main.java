@@ -1,16 +1,35 @@
 package Main;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Scanner;
 
 import HWSystem.HWSystem;
+import HWSystem.Commands.CompiledScript;
+import HWSystem.Logging.GzipLogStorage;
+import HWSystem.Logging.LogExportReport;
+import HWSystem.Logging.LogFlusher;
+import HWSystem.Logging.LogLayout;
+import HWSystem.Logging.LogStorage;
+import HWSystem.Logging.OverflowPolicy;
+import HWSystem.Logging.SegmentedLogStorage;
+import HWSystem.Protocols.BaseProtocol;
+import HWSystem.Protocols.FullBufferPolicy;
 import HWSystem.Protocols.Protocol;
 import HWSystem.Protocols.I2C;
 import HWSystem.Protocols.OneWire;
 import HWSystem.Protocols.SPI;
 import HWSystem.Protocols.UART;
+import HWSystem.Timing.BusModel;
+import HWSystem.Timing.I2CTiming;
+import HWSystem.Timing.OneWireTiming;
+import HWSystem.Timing.SPITiming;
+import HWSystem.Timing.UARTTiming;
 
 /**
  * Main class to initialize the hardware system based on configuration file input.
@@ -24,6 +43,8 @@ import HWSystem.Protocols.UART;
  * <p>It also logs the configuration of the ports after processing the commands.</p>
  */
 public class Main {
+    /** The default number of pending commands in streaming mode. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
 
     /**
      * The entry point of the application. This method reads the configuration file,
@@ -32,7 +53,63 @@ public class Main {
      *
      * @param args Command-line arguments. The first argument should be the path 
      *             to the configuration file and the second argument should be the 
-     *             log directory for logging the port configuration.
+     *             log directory for logging the port configuration. The remaining 
+     *             arguments are options:
+     *             <ul>
+     *                 <li>{@code --stream}: execute commands while they are being read</li>
+     *                 <li>{@code --queue-capacity <n>}: the maximum number of pending 
+     *                     commands in streaming mode (default {@value #DEFAULT_QUEUE_CAPACITY})</li>
+     *                 <li>{@code --parallel <lanes>}: execute commands on different ports 
+     *                     concurrently, using the given number of lanes</li>
+     *                 <li>{@code --log-capacity <n>}: the maximum number of log records 
+     *                     kept per port</li>
+     *                 <li>{@code --log-policy <drop|overwrite>}: whether the newest or the oldest 
+     *                     log records are discarded when a port's log is full</li>
+     *                 <li>{@code --flush-interval <ms>}: write the port logs to the log 
+     *                     directory in the background every given number of milliseconds 
+     *                     (default 0, the logs are only written at the end, except for the 
+     *                     indexed layout)</li>
+     *                 <li>{@code --flush-batch <n>}: the maximum number of records written 
+     *                     per port at a time by the background writer</li>
+     *                 <li>{@code --log-layout <newest-first|oldest-first|indexed>}: the order of the 
+     *                     records in the log files (default newest-first); indexed stores records 
+     *                     as they happen in {@code .hlog} files read back with {@link ReadLog} 
+     *                     or the "log" command, and flushes every 
+     *                     {@value HWSystem.Logging.LogFlusher#DEFAULT_INDEXED_INTERVAL} ms unless 
+     *                     {@code --flush-interval} is given; it can not be combined with 
+     *                     {@code --log-segments} or {@code --log-compress}</li>
+     *                 <li>{@code --log-segments <bytes>}: write each port log to a directory 
+     *                     of memory-mapped segments of the given size instead of a single file</li>
+     *                 <li>{@code --log-compress}: write each port log GZIP-compressed to 
+     *                     {@code <name>.log.gz}</li>
+     *                 <li>{@code --export-threads <n>}: the number of threads writing the port 
+     *                     logs at the end (default: one per processor)</li>
+     *                 <li>{@code --export-report}: print the time taken and bytes written 
+     *                     to write the port logs</li>
+     *                 <li>{@code --i2c-clock <hz>}: the clock of the I2C buses (default 100000)</li>
+     *                 <li>{@code --spi-clock <hz>}: the clock of the SPI buses (default 1000000)</li>
+     *                 <li>{@code --uart-baud <baud>}: the baud rate of the UART lines (default 115200)</li>
+     *                 <li>{@code --uart-tx-buffer <bytes>}: model a transmit buffer of the given 
+     *                     size on the UART ports, drained at the baud rate (default 0, unlimited)</li>
+     *                 <li>{@code --uart-rx-buffer <bytes>}: model a receive buffer of the given 
+     *                     size on the UART ports (default 0, unlimited)</li>
+     *                 <li>{@code --uart-policy <block|fail|pending>}: whether a write to a full 
+     *                     transmit buffer waits, is rejected or is held until the buffer has room 
+     *                     (default block)</li>
+     *                 <li>{@code --onewire-speed <standard|overdrive>}: the speed of the 1-Wire buses</li>
+     *                 <li>{@code --poll-workers <n>}: the number of threads reading the sensors 
+     *                     polled with "poll start" (default: the number of processors)</li>
+     *                 <li>{@code --history-points <n>}: the number of raw readings kept per 
+     *                     sensor for the "history" command (default 0, no history). Each sensor 
+     *                     read then keeps about 16 bytes per raw reading plus 80 KB of one-second 
+     *                     and one-minute rollups for two channels, more with more channels; 
+     *                     "history stats" prints the actual memory</li>
+     *                 <li>{@code --simulate <us>}: execute the commands in simulated time, 
+     *                     one every given number of microseconds unless a command has an 
+     *                     {@code @<ms>} prefix, and print the simulated and wall time</li>
+     *                 <li>{@code --replay <file>}: execute a compiled command script 
+     *                     (see {@link CompileScript}) instead of reading commands</li>
+     *             </ul>
      */
     public static void main(String[] args) {
         // Check if the configuration file is provided as an argument
@@ -42,6 +119,227 @@ public class Main {
         }
 
         String configFile = args[0];
+        boolean stream = false;
+        int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+        String replayFile = null;
+        int laneCount = 1;
+        int logCapacity = BaseProtocol.DEFAULT_LOG_CAPACITY;
+        OverflowPolicy overflowPolicy = BaseProtocol.DEFAULT_OVERFLOW_POLICY;
+        long flushInterval = 0;
+        int flushBatch = LogFlusher.DEFAULT_BATCH_SIZE;
+        LogLayout logLayout = LogLayout.NEWEST_FIRST;
+        LogStorage logStorage = LogStorage.FILE;
+        int exportThreads = Runtime.getRuntime().availableProcessors();
+        boolean exportReport = false;
+        long simulateInterval = -1;
+        I2CTiming i2cTiming = new I2CTiming(I2CTiming.STANDARD_MODE);
+        SPITiming spiTiming = new SPITiming(SPITiming.DEFAULT_CLOCK);
+        UARTTiming uartTiming = new UARTTiming(UARTTiming.DEFAULT_BAUD);
+        OneWireTiming oneWireTiming = OneWireTiming.STANDARD;
+        int pollWorkers = Runtime.getRuntime().availableProcessors();
+        int historyPoints = 0;
+        int uartTxBuffer = 0;
+        int uartRxBuffer = 0;
+        FullBufferPolicy uartPolicy = FullBufferPolicy.BLOCK;
+
+        // Process the options following the configuration file and log directory
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--stream":
+                    stream = true;
+                    break;
+                case "--queue-capacity":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --queue-capacity requires a value.");
+                        return;
+                    }
+                    queueCapacity = Integer.parseInt(args[++i]);
+                    break;
+                case "--parallel":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --parallel requires a number of lanes.");
+                        return;
+                    }
+                    laneCount = Integer.parseInt(args[++i]);
+                    break;
+                case "--log-capacity":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --log-capacity requires a value.");
+                        return;
+                    }
+                    logCapacity = Integer.parseInt(args[++i]);
+                    break;
+                case "--log-policy":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --log-policy requires drop or overwrite.");
+                        return;
+                    }
+                    String policy = args[++i];
+                    if (policy.equals("drop")) {
+                        overflowPolicy = OverflowPolicy.DROP_NEWEST;
+                    } else if (policy.equals("overwrite")) {
+                        overflowPolicy = OverflowPolicy.OVERWRITE_OLDEST;
+                    } else {
+                        System.err.println("Error: Unknown log policy " + policy);
+                        return;
+                    }
+                    break;
+                case "--flush-interval":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --flush-interval requires a value.");
+                        return;
+                    }
+                    flushInterval = Long.parseLong(args[++i]);
+                    break;
+                case "--flush-batch":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --flush-batch requires a value.");
+                        return;
+                    }
+                    flushBatch = Integer.parseInt(args[++i]);
+                    break;
+                case "--log-layout":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --log-layout requires newest-first, oldest-first or indexed.");
+                        return;
+                    }
+                    String layout = args[++i];
+                    if (layout.equals("newest-first")) {
+                        logLayout = LogLayout.NEWEST_FIRST;
+                    } else if (layout.equals("oldest-first")) {
+                        logLayout = LogLayout.OLDEST_FIRST;
+                    } else if (layout.equals("indexed")) {
+                        logLayout = LogLayout.INDEXED;
+                    } else {
+                        System.err.println("Error: Unknown log layout " + layout);
+                        return;
+                    }
+                    break;
+                case "--log-segments":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --log-segments requires a segment size.");
+                        return;
+                    }
+                    logStorage = new SegmentedLogStorage(Integer.parseInt(args[++i]));
+                    break;
+                case "--log-compress":
+                    logStorage = new GzipLogStorage();
+                    break;
+                case "--export-threads":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --export-threads requires a number of threads.");
+                        return;
+                    }
+                    exportThreads = Integer.parseInt(args[++i]);
+                    break;
+                case "--export-report":
+                    exportReport = true;
+                    break;
+                case "--i2c-clock":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --i2c-clock requires a frequency.");
+                        return;
+                    }
+                    i2cTiming = new I2CTiming(Long.parseLong(args[++i]));
+                    break;
+                case "--spi-clock":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --spi-clock requires a frequency.");
+                        return;
+                    }
+                    spiTiming = new SPITiming(Long.parseLong(args[++i]));
+                    break;
+                case "--uart-baud":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --uart-baud requires a baud rate.");
+                        return;
+                    }
+                    uartTiming = new UARTTiming(Integer.parseInt(args[++i]));
+                    break;
+                case "--uart-tx-buffer":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --uart-tx-buffer requires a size in bytes.");
+                        return;
+                    }
+                    uartTxBuffer = Integer.parseInt(args[++i]);
+                    break;
+                case "--uart-rx-buffer":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --uart-rx-buffer requires a size in bytes.");
+                        return;
+                    }
+                    uartRxBuffer = Integer.parseInt(args[++i]);
+                    break;
+                case "--uart-policy":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --uart-policy requires block, fail or pending.");
+                        return;
+                    }
+                    String fullPolicy = args[++i];
+                    if (fullPolicy.equals("block")) {
+                        uartPolicy = FullBufferPolicy.BLOCK;
+                    } else if (fullPolicy.equals("fail")) {
+                        uartPolicy = FullBufferPolicy.FAIL_FAST;
+                    } else if (fullPolicy.equals("pending")) {
+                        uartPolicy = FullBufferPolicy.PENDING;
+                    } else {
+                        System.err.println("Error: Unknown UART policy " + fullPolicy);
+                        return;
+                    }
+                    break;
+                case "--poll-workers":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --poll-workers requires a number of threads.");
+                        return;
+                    }
+                    pollWorkers = Integer.parseInt(args[++i]);
+                    break;
+                case "--history-points":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --history-points requires a number of readings.");
+                        return;
+                    }
+                    historyPoints = Integer.parseInt(args[++i]);
+                    break;
+                case "--onewire-speed":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --onewire-speed requires standard or overdrive.");
+                        return;
+                    }
+                    String speed = args[++i];
+                    if (speed.equals("standard")) {
+                        oneWireTiming = OneWireTiming.STANDARD;
+                    } else if (speed.equals("overdrive")) {
+                        oneWireTiming = OneWireTiming.OVERDRIVE;
+                    } else {
+                        System.err.println("Error: Unknown 1-Wire speed " + speed);
+                        return;
+                    }
+                    break;
+                case "--simulate":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --simulate requires a command interval.");
+                        return;
+                    }
+                    simulateInterval = Long.parseLong(args[++i]);
+                    break;
+                case "--replay":
+                    if (i + 1 >= args.length) {
+                        System.err.println("Error: --replay requires a file.");
+                        return;
+                    }
+                    replayFile = args[++i];
+                    break;
+                default:
+                    System.err.println("Error: Unknown option " + args[i]);
+                    return;
+            }
+        }
+        if (logLayout == LogLayout.INDEXED && logStorage != LogStorage.FILE) {
+            // Indexed logs are read back while they are written, so they need a plain file
+            System.err.println("Error: --log-layout indexed can not be combined with --log-segments or --log-compress.");
+            return;
+        }
         ArrayList<Protocol> ports = new ArrayList<>();
         int maxSensors = 0, maxDisplays = 0, maxWirelessAdapters = 0, maxMotorDrivers = 0;
 
@@ -61,16 +359,16 @@ public class Main {
                         // Add corresponding port to the ports list based on its type
                         switch (portName) {
                             case "I2C":
-                                ports.add(new I2C(i));
+                                ports.add(new I2C(i, logCapacity, overflowPolicy));
                                 break;
                             case "OneWire":
-                                ports.add(new OneWire(i));
+                                ports.add(new OneWire(i, logCapacity, overflowPolicy));
                                 break;
                             case "SPI":
-                                ports.add(new SPI(i));
+                                ports.add(new SPI(i, logCapacity, overflowPolicy));
                                 break;
                             case "UART":
-                                ports.add(new UART(i));
+                                ports.add(new UART(i, logCapacity, overflowPolicy));
                                 break;
                             default:
                                 break;
@@ -100,10 +398,67 @@ public class Main {
 
         // Create the hardware system object using the parsed configurations
         HWSystem system = new HWSystem(ports, maxSensors, maxDisplays, maxWirelessAdapters, maxMotorDrivers);
+        system.setPollWorkers(pollWorkers);
+        system.setHistoryPoints(historyPoints);
+
+        for (Protocol port : ports) {
+            if (!(port instanceof BaseProtocol)) continue;
+            BaseProtocol protocol = (BaseProtocol) port;
+            protocol.getLog().setStorage(logStorage);
+
+            BusModel bus = protocol.getBus();
+            switch (protocol.getProtocolKind()) {
+                case I2C:
+                    bus.setTiming(i2cTiming);
+                    break;
+                case SPI:
+                    bus.setTiming(spiTiming);
+                    break;
+                case UART:
+                    bus.setTiming(uartTiming);
+                    ((UART) protocol).setBuffers(uartTxBuffer, uartRxBuffer, uartPolicy);
+                    break;
+                case ONE_WIRE:
+                    bus.setTiming(oneWireTiming);
+                    break;
+            }
+        }
+
+        // Indexed records only leave the bounded memory of the logs when flushed
+        if (logLayout == LogLayout.INDEXED && flushInterval == 0) flushInterval = LogFlusher.DEFAULT_INDEXED_INTERVAL;
+
+        // Write the port logs in the background while the commands run
+        LogFlusher flusher = null;
+        if (flushInterval > 0 || logLayout != LogLayout.NEWEST_FIRST) {
+            flusher = new LogFlusher(args[1], logLayout, flushInterval, flushBatch);
+            for (Protocol port : ports) {
+                if (port instanceof BaseProtocol) flusher.register(((BaseProtocol) port).getLog());
+            }
+            if (flushInterval > 0) flusher.start();
+        }
+
         // Get and execute commands for the hardware system
-        system.getCommands();
-        system.exeCommands();
+        if (replayFile != null) {
+            try (InputStream in = new BufferedInputStream(new FileInputStream(replayFile))) {
+                system.replay(CompiledScript.read(in));
+            } catch (IOException e) {
+                System.err.println("Error reading the compiled script: " + e.getMessage());
+                return;
+            }
+        } else if (simulateInterval >= 0) {
+            system.getCommands();
+            System.out.println(system.simulate(simulateInterval * 1_000L));
+        } else if (stream) {
+            system.streamCommands(queueCapacity, laneCount);
+        } else {
+            system.getCommands();
+            if (laneCount > 1) system.exeCommandsParallel(laneCount);
+            else system.exeCommands();
+        }
         // Log the ports configuration to the specified log directory
-        system.logPorts(args[1]);
+        system.shutdownPolling();
+        if (flusher != null) flusher.stop();
+        LogExportReport report = system.logPorts(args[1], exportThreads);
+        if (exportReport) System.out.println(report);
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package Main;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import HWSystem.Logging.IndexedLogReader;
+import HWSystem.Logging.LogBatch;
+import HWSystem.Logging.LogIndex;
+import HWSystem.Logging.LogOperation;
+import HWSystem.Logging.LogQuery;
+
+/**
+ * Command-line tool that finds the records of a port log matching a query.
+ * Text logs written by {@code Protocol.close()} are queried through a {@link LogIndex},
+ * built on first use, and record files written with {@code --log-layout indexed}
+ * through their own offset index.
+ */
+public class QueryLog {
+
+    /**
+     * Prints the matching records of a port log, newest first.
+     * 
+     * @param args Command-line arguments. The first argument should be the log directory and 
+     *             the second the port ID. The remaining arguments are optional filters:
+     *             <ul>
+     *                 <li>{@code --op <read|write>}: the operation of the records</li>
+     *                 <li>{@code --payload <text>}: the written data of the records</li>
+     *                 <li>{@code --from <n>}, {@code --to <n>}: the range of sequence numbers, 
+     *                     0 being the oldest record</li>
+     *                 <li>{@code --limit <n>}: the maximum number of records printed</li>
+     *             </ul>
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: QueryLog <logDirectory> <port> [--op read|write] [--payload <text>] "
+                    + "[--from <n>] [--to <n>] [--limit <n>]");
+            return;
+        }
+
+        int port = Integer.parseInt(args[1]);
+        LogOperation operation = null;
+        String payload = null;
+        long from = 0;
+        long to = Long.MAX_VALUE;
+        int limit = Integer.MAX_VALUE;
+
+        for (int i = 2; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                System.err.println("Error: " + args[i] + " requires a value.");
+                return;
+            }
+            switch (args[i]) {
+                case "--op":
+                    String op = args[++i];
+                    if (op.equals("read")) {
+                        operation = LogOperation.READ;
+                    } else if (op.equals("write")) {
+                        operation = LogOperation.WRITE;
+                    } else {
+                        System.err.println("Error: Unknown operation " + op);
+                        return;
+                    }
+                    break;
+                case "--payload":
+                    payload = args[++i];
+                    break;
+                case "--from":
+                    from = Long.parseLong(args[++i]);
+                    break;
+                case "--to":
+                    to = Long.parseLong(args[++i]);
+                    break;
+                case "--limit":
+                    limit = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    System.err.println("Error: Unknown option " + args[i]);
+                    return;
+            }
+        }
+
+        try {
+            Path logFile = findLog(Paths.get(args[0]), port);
+            if (logFile == null) {
+                System.err.println("No log found for port " + port + ".");
+                return;
+            }
+
+            LogQuery query = new LogQuery(operation, from, to, payload, limit);
+            LogBatch<String> results = new LogBatch<>(Math.min(limit, 1024));
+            int blocksRead, blockCount;
+            if (logFile.toString().endsWith(".hlog")) {
+                try (IndexedLogReader reader = new IndexedLogReader(logFile)) {
+                    blocksRead = reader.query(query, results);
+                    blockCount = reader.getBlockCount();
+                }
+            } else {
+                LogIndex index = LogIndex.open(logFile);
+                blocksRead = index.query(query, results);
+                blockCount = index.getBlockCount();
+            }
+
+            String name = logFile.getFileName().toString();
+            name = name.substring(0, name.lastIndexOf('.'));
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < results.size(); i++) {
+                text.setLength(0);
+                text.append(name).append(" #").append(results.getSequence(i)).append(' ');
+                results.render(i, text);
+                System.out.println(text);
+            }
+            System.out.println(results.size() + " records found, " + blocksRead + " of " + blockCount + " blocks read.");
+        } catch (IOException e) {
+            System.err.println("Error querying the log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the log of a port in a log directory, preferring a record file over a text log.
+     * 
+     * @param directory the log directory
+     * @param port the port ID
+     * @return the path of the log, or null if the port has none
+     * @throws IOException if the directory cannot be read
+     */
+    private static Path findLog(Path directory, int port) throws IOException {
+        Path textLog = null;
+        try (DirectoryStream<Path> logs = Files.newDirectoryStream(directory, "*_" + port + ".{log,hlog}")) {
+            for (Path log : logs) {
+                if (log.toString().endsWith(".hlog")) return log;
+                textLog = log;
+            }
+        }
+        return textLog;
+    }
+}
@@ -0,0 +1,39 @@
+package Main;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Paths;
+
+import HWSystem.Logging.IndexedLogReader;
+
+/**
+ * Command-line tool that prints a port log stored with {@code Main --log-layout indexed},
+ * newest first, in the format of a port log file.
+ */
+public class ReadLog {
+
+    /**
+     * Prints a port log record file.
+     * 
+     * @param args Command-line arguments. The first argument should be the path of the 
+     *             {@code .hlog} file. The optional second argument is the maximum number 
+     *             of records to print, newest first.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ReadLog <port.hlog> [count]");
+            return;
+        }
+
+        try (IndexedLogReader reader = new IndexedLogReader(Paths.get(args[0]))) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out));
+            if (args.length > 1) reader.renderNewestFirst(out, Long.parseLong(args[1]));
+            else reader.renderNewestFirst(out);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error reading the log: " + e.getMessage());
+        }
+    }
+}